@@ -14,8 +14,10 @@ public class Main {
 
         // Step 1: Create a price service to get real stock prices from the internet
         // This uses Alpha Vantage API to fetch live prices
+        // RateLimitedPriceService queues requests so we stay inside the free API quota,
+        // and CachingPriceService reuses quotes fetched in the last minute
         StockPriceService priceService =
-            new AlphaVantageService();  // Create the service that talks to Alpha Vantage
+            new CachingPriceService(new RateLimitedPriceService(new AlphaVantageService()));  // Create the service that talks to Alpha Vantage
 
         // Step 2: Create a portfolio manager and give it the price service
         // This will manage all your stocks and transactions
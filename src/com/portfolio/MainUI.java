@@ -23,7 +23,8 @@ public class MainUI {
         // This is important for thread safety in Swing applications
         SwingUtilities.invokeLater(() -> {
 
-            StockPriceService priceService = new AlphaVantageService();
+            StockPriceService priceService = new CachingPriceService(
+                    new RateLimitedPriceService(new AlphaVantageService()));
 
             PortfolioService portfolioService = new PortfolioService(priceService);
 
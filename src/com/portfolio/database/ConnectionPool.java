@@ -0,0 +1,214 @@
+package com.portfolio.database; // Database package
+
+import java.sql.*; // Import SQL classes
+import java.util.ArrayList; // Import ArrayList
+import java.util.List; // Import List interface
+import java.util.Properties; // Import Properties for connection settings
+import java.util.concurrent.ArrayBlockingQueue; // Import ArrayBlockingQueue - idle readers wait here
+import java.util.concurrent.BlockingQueue; // Import BlockingQueue interface
+import java.util.concurrent.Semaphore; // Import Semaphore - one writer at a time
+import java.util.concurrent.TimeUnit; // Import TimeUnit for waits
+import java.util.concurrent.atomic.AtomicLong; // Import AtomicLong for the counters
+
+/**
+ * ConnectionPool - One connection that may write, plus a few read-only ones
+ * SQLite only lets one connection write at a time, but many can read. So the pool
+ * keeps exactly one writer (used by the WriteBehindQueue) and up to "readers"
+ * read-only connections, opened the first time they are needed. A thread loading
+ * a chart no longer waits behind a thread saving prices.
+ *
+ * Every connection is tuned when it opens (see tune): the database runs in WAL mode, so
+ * readers keep reading while the writer commits, and each commit costs one quick
+ * append to the log instead of rewriting pages in place.
+ *
+ * It also counts how long borrowers waited and how often the statement cache hit,
+ * so getStats() can show whether the pool is big enough.
+ *
+ * Example:
+ *   try (PooledConnection conn = pool.borrowReader()) { ... } // Given back automatically
+ */
+public class ConnectionPool {
+    private static final long WAIT_SECONDS = 30; // Give up borrowing after this long
+
+    private final String url;
+    private final int readers; // Most read-only connections to open
+    private final PooledConnection writer;
+    private final Semaphore writerPermit = new Semaphore(1, true); // Whoever holds it owns the writer
+    private final BlockingQueue<PooledConnection> idleReaders;
+    private final List<PooledConnection> allReaders = new ArrayList<>();
+    private volatile boolean closed = false;
+
+    // Counters for getStats()
+    private final AtomicLong borrows = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+
+    /**
+     * Opens the writer connection (readers are opened later, when needed)
+     *
+     * @param url     The JDBC URL (ex: "jdbc:sqlite:portfolio.db")
+     * @param readers How many read-only connections may be open at once (ex: 4)
+     * @throws SQLException if the database can't be opened
+     */
+    ConnectionPool(String url, int readers) throws SQLException {
+        this.url = url;
+        this.readers = readers;
+        this.idleReaders = new ArrayBlockingQueue<>(readers);
+        Connection conn = DriverManager.getConnection(url);
+        try (Statement stmt = conn.createStatement()) {
+            // WAL (write-ahead log) is stored in the database file, so setting it once on
+            // the writer is enough - readers opened later use it too
+            stmt.execute("PRAGMA journal_mode = WAL");
+        }
+        tune(conn);
+        this.writer = new PooledConnection(conn, this, true);
+    }
+
+    // Settings that only last as long as the connection, so every connection gets them
+    private static void tune(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            // In WAL mode NORMAL only syncs the disk at checkpoints, not on every commit;
+            // a power cut can lose the last commits but never corrupts the file
+            stmt.execute("PRAGMA synchronous = NORMAL");
+            stmt.execute("PRAGMA cache_size = -20000"); // 20 MB of pages kept in memory (negative = KB)
+            stmt.execute("PRAGMA mmap_size = 268435456"); // Read up to 256 MB straight from the file mapping
+            stmt.execute("PRAGMA temp_store = MEMORY"); // Sorting scratch space in memory, not temp files
+            stmt.execute("PRAGMA busy_timeout = 5000"); // Wait up to 5 s for a lock instead of failing
+        }
+    }
+
+    /**
+     * Borrows the writer connection, waiting while someone else has it
+     *
+     * @return The writer - close it (try-with-resources) to give it back
+     * @throws SQLException if it isn't free within 30 seconds
+     */
+    public PooledConnection borrowWriter() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            if (!writerPermit.tryAcquire(WAIT_SECONDS, TimeUnit.SECONDS)) {
+                throw new SQLException("Timed out waiting for the database writer connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the database writer connection", e);
+        }
+        recordWait(start);
+        return writer;
+    }
+
+    /**
+     * Borrows a read-only connection
+     * Opens a new one if fewer than "readers" are open, otherwise waits for one to come back
+     *
+     * @return A reader - close it (try-with-resources) to give it back
+     * @throws SQLException if none is free within 30 seconds, or a new one can't be opened
+     */
+    public PooledConnection borrowReader() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+
+        PooledConnection conn = idleReaders.poll();
+        if (conn == null) {
+            conn = openReaderIfRoom();
+        }
+        if (conn == null) {
+            try {
+                conn = idleReaders.poll(WAIT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection", e);
+            }
+            if (conn == null) {
+                throw new SQLException("Timed out waiting for a database connection (" + readers + " in use)");
+            }
+        }
+
+        recordWait(start);
+        return conn;
+    }
+
+    // Opens one more reader, or returns null if "readers" are already open
+    private PooledConnection openReaderIfRoom() throws SQLException {
+        synchronized (allReaders) {
+            if (allReaders.size() >= readers) {
+                return null;
+            }
+            Properties props = new Properties();
+            props.setProperty("open_mode", "1"); // SQLITE_OPEN_READONLY - this connection can't change data
+            Connection raw = DriverManager.getConnection(url, props);
+            tune(raw);
+            PooledConnection conn = new PooledConnection(raw, this, false);
+            allReaders.add(conn);
+            return conn;
+        }
+    }
+
+    // Takes a connection back (called by PooledConnection.close)
+    void release(PooledConnection conn) {
+        if (conn.isWriter()) {
+            writerPermit.release();
+        } else if (closed) {
+            conn.closeForGood();
+        } else {
+            idleReaders.offer(conn);
+        }
+    }
+
+    private void recordWait(long start) {
+        long waited = System.nanoTime() - start;
+        borrows.incrementAndGet();
+        waitNanos.addAndGet(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+    }
+
+    // Called by PooledConnection each time it looks up a statement
+    void recordStatement(boolean hit) {
+        (hit ? statementHits : statementMisses).incrementAndGet();
+    }
+
+    /**
+     * Returns how the pool is doing
+     * Example: "42 borrows, avg wait 0.01 ms, max wait 2.30 ms, 2/4 readers open,
+     *           statement cache 93.5% hits (187/200)"
+     */
+    public String getStats() {
+        long count = borrows.get();
+        long hits = statementHits.get();
+        long lookups = hits + statementMisses.get();
+        int open;
+        synchronized (allReaders) {
+            open = allReaders.size();
+        }
+        return String.format("%d borrows, avg wait %.2f ms, max wait %.2f ms, %d/%d readers open, "
+                + "statement cache %.1f%% hits (%d/%d)",
+                count,
+                count > 0 ? waitNanos.get() / 1e6 / count : 0.0,
+                maxWaitNanos.get() / 1e6,
+                open, readers,
+                lookups > 0 ? 100.0 * hits / lookups : 0.0, hits, lookups);
+    }
+
+    // The writer's plain connection - for code that still uses DatabaseManager.getConnection()
+    Connection writerConnection() {
+        return writer.getConnection();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    // Closes every connection; readers still borrowed are closed when they come back
+    void close() {
+        closed = true;
+        PooledConnection idle;
+        while ((idle = idleReaders.poll()) != null) {
+            idle.closeForGood();
+        }
+        writer.closeForGood();
+    }
+}
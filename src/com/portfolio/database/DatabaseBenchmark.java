@@ -0,0 +1,130 @@
+package com.portfolio.database; // Database package
+
+import com.portfolio.model.PriceSeries; // Import PriceSeries class
+import com.portfolio.model.StockPrice; // Import StockPrice class
+import com.portfolio.model.Transaction; // Import Transaction class
+import java.io.File; // Import File to start from an empty database
+import java.sql.*; // Import SQL classes
+import java.time.LocalDate; // Import LocalDate for the made-up price history
+import java.util.ArrayList; // Import ArrayList
+import java.util.List; // Import List interface
+
+/**
+ * DatabaseBenchmark - Times writing and reading a big transaction and price history
+ * Uses its own database file (never your portfolio.db), fills it with
+ * transactions through the normal PortfolioDAO and write queue, then times
+ * the queries the app runs.
+ *
+ * Run it with:
+ *   java -cp ".;lib/*" com.portfolio.database.DatabaseBenchmark [count] [file]
+ * Example: ... DatabaseBenchmark 1000000 benchmark.db
+ */
+public class DatabaseBenchmark {
+
+    private static final String[] SYMBOLS = { "AAPL", "MSFT", "GOOGL", "NVDA", "TSLA", "JPM", "XOM", "KO",
+            "RELIANCE", "INFY", "HDFC", "TCS" };
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String file = args.length > 1 ? args[1] : "benchmark.db";
+
+        // Start from an empty file, and point DatabaseManager at it before it is first used
+        for (String suffix : new String[] { "", "-wal", "-shm" }) {
+            new File(file + suffix).delete();
+        }
+        System.setProperty("portfolio.db", file);
+
+        PortfolioDAO dao = new PortfolioDAO();
+        DatabaseManager.getConnection(); // Create the tables now, so the timing is only the writes
+
+        // ===== WRITE =====
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            String symbol = SYMBOLS[i % SYMBOLS.length];
+            Transaction transaction = new Transaction(symbol, i % 3 == 0 ? "SELL" : "BUY", 1 + i % 50,
+                    100 + (i % 1000) / 10.0);
+            dao.saveTransaction(transaction); // Queued - saved in batches by the writer thread
+        }
+        DatabaseManager.getWriteQueue().flush();
+        report("Write " + count + " transactions", start, count);
+
+        // ===== LOAD EVERYTHING (what the app does at startup) =====
+        start = System.nanoTime();
+        List<Transaction> all = dao.loadAllTransactions();
+        report("Load all " + all.size() + " transactions (newest first)", start, all.size());
+
+        // ===== PAGE BY PAGE (what the transactions table does as you scroll) =====
+        start = System.nanoTime();
+        TransactionPage page = dao.loadTransactionsPage(null, 200);
+        report("First page of 200", start, page.size());
+
+        start = System.nanoTime();
+        int paged = page.size();
+        while (page.hasMore()) {
+            page = dao.loadTransactionsPage(page, 200);
+            paged += page.size();
+        }
+        report("Every page of 200, one after another", start, paged);
+
+        start = System.nanoTime();
+        dao.loadRealizedProfitLoss();
+        report("Realized profit/loss summed in SQL", start, count);
+
+        // ===== NEWEST 100 (uses idx_transactions_time) =====
+        start = System.nanoTime();
+        int rows = query("SELECT * FROM transactions ORDER BY timestamp DESC LIMIT 100");
+        report("Newest 100 transactions", start, rows);
+
+        // ===== ONE STOCK (uses idx_transactions_symbol_time) =====
+        start = System.nanoTime();
+        rows = query("SELECT * FROM transactions WHERE symbol = 'NVDA' ORDER BY timestamp DESC");
+        report("All NVDA transactions", start, rows);
+
+        start = System.nanoTime();
+        rows = query("SELECT * FROM transactions WHERE symbol = 'NVDA' ORDER BY timestamp DESC LIMIT 50");
+        report("Newest 50 NVDA transactions", start, rows);
+
+        // ===== PRICE HISTORY: 20 years of daily bars per stock =====
+        HistoryDAO history = new HistoryDAO();
+        LocalDate first = LocalDate.now().minusYears(20);
+        start = System.nanoTime();
+        int bars = 0;
+        for (String symbol : SYMBOLS) {
+            List<StockPrice> series = new ArrayList<>();
+            double price = 100;
+            for (LocalDate day = first; day.isBefore(LocalDate.now()); day = day.plusDays(1)) {
+                price *= 1 + ((day.toEpochDay() * 7919 + symbol.hashCode()) % 41 - 20) / 1000.0; // Made-up moves
+                series.add(new StockPrice(day, price, price * 1.01, price * 0.99, price, 1_000_000));
+            }
+            history.saveBars(symbol, series);
+            bars += series.size();
+        }
+        report("Write " + bars + " daily bars", start, bars);
+
+        start = System.nanoTime();
+        PriceSeries closes = history.loadCloses("NVDA", first, LocalDate.now());
+        double drawdown = closes.getMaxDrawdown();
+        report(String.format("20y NVDA closes + drawdown (%.1f%%)", drawdown * 100), start, closes.size());
+
+        System.out.println("📊 Connection pool: " + DatabaseManager.getPoolStats());
+        DatabaseManager.closeConnection();
+    }
+
+    // Runs a SELECT and reads every row; returns how many rows came back
+    private static int query(String sql) throws SQLException {
+        int rows = 0;
+        try (PooledConnection conn = DatabaseManager.read();
+                ResultSet rs = conn.prepare(sql).executeQuery()) {
+            while (rs.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static void report(String what, long startNanos, int rows) {
+        double millis = (System.nanoTime() - startNanos) / 1e6;
+        System.out.println(String.format("⏱️ %-45s %10.1f ms  (%,d rows, %,.0f rows/s)",
+                what, millis, rows, rows / Math.max(millis / 1000, 1e-9)));
+    }
+}
@@ -16,33 +16,33 @@ public class DatabaseManager {
 
     // Database file path - where the database file will be stored
     // Example: "portfolio.db" creates a file in your project folder
-    private static final String DB_URL = "jdbc:sqlite:portfolio.db";
+    // Another file can be used with -Dportfolio.db=other.db (the benchmark does this)
+    private static final String DB_URL = "jdbc:sqlite:" + System.getProperty("portfolio.db", "portfolio.db");
 
-    // Connection object - represents the connection to the database
-    // Think of it like a phone line to the database
-    private static Connection connection = null;
+    // How many read-only connections may be open at once
+    private static final int READ_CONNECTIONS = 4;
 
-    /**
-     * Gets a connection to the database
-     * If connection doesn't exist, creates a new one
-     * 
-     * @return Connection object to interact with database
-     * @throws SQLException if connection fails
-     * 
-     *                      Example: Connection conn =
-     *                      DatabaseManager.getConnection();
-     */
-    public static Connection getConnection() throws SQLException {
-        // If connection is null or closed, create new connection
-        if (connection == null || connection.isClosed()) {
+    // The connections - one writer plus a few readers (see ConnectionPool)
+    // Think of them like phone lines to the database: one for making changes,
+    // several for asking questions at the same time
+    private static ConnectionPool pool = null;
+
+    // All changes (INSERT/UPDATE/DELETE) go through this queue and are saved in batches
+    // by one writer thread - see WriteBehindQueue. Created the first time a DAO needs it.
+    private static WriteBehindQueue writeQueue = null;
+
+    // Opens the pool (and creates the tables) the first time anyone needs the database
+    private static synchronized ConnectionPool pool() throws SQLException {
+        // If the pool is missing or closed, open a new one
+        if (pool == null || pool.isClosed()) {
             try {
                 // Load SQLite JDBC driver - tells Java how to talk to SQLite
                 // This is like installing a language translator
                 Class.forName("org.sqlite.JDBC");
 
-                // Create connection to database
+                // Open the writer connection
                 // If database file doesn't exist, SQLite creates it automatically
-                connection = DriverManager.getConnection(DB_URL);
+                pool = new ConnectionPool(DB_URL, READ_CONNECTIONS);
 
                 System.out.println("✅ Database connected successfully!");
 
@@ -55,86 +55,93 @@ public class DatabaseManager {
                 throw new SQLException("SQLite driver not found", e);
             }
         }
+        return pool;
+    }
+
+    /**
+     * Borrows a read-only connection (for SELECTs)
+     * Several threads can read at once, each on its own connection
+     *
+     * @return A connection - use try-with-resources so it goes back to the pool
+     * @throws SQLException if no connection is free within 30 seconds
+     *
+     *                      Example: try (PooledConnection conn = DatabaseManager.read()) { ... }
+     */
+    public static PooledConnection read() throws SQLException {
+        return pool().borrowReader();
+    }
+
+    /**
+     * Borrows the one connection that may change data
+     * Normally only the WriteBehindQueue needs this - DAOs submit their changes there
+     *
+     * @return The writer - use try-with-resources so it goes back to the pool
+     * @throws SQLException if the writer isn't free within 30 seconds
+     *
+     *                      Example: try (PooledConnection conn = DatabaseManager.write()) { ... }
+     */
+    public static PooledConnection write() throws SQLException {
+        return pool().borrowWriter();
+    }
+
+    /**
+     * Gets the writer's plain connection
+     * Kept for older code - it isn't borrowed, so prefer read() or write()
+     * 
+     * @return Connection object to interact with database
+     * @throws SQLException if connection fails
+     * 
+     *                      Example: Connection conn =
+     *                      DatabaseManager.getConnection();
+     */
+    public static Connection getConnection() throws SQLException {
+        return pool().writerConnection();
+    }
 
-        return connection; // Return the connection
+    // How the pool is doing (waits and statement cache hits) - see ConnectionPool.getStats
+    public static String getPoolStats() {
+        ConnectionPool current = pool;
+        return current != null ? current.getStats() : "not connected";
+    }
+
+    /**
+     * Gets the shared write-behind queue, starting it the first time
+     * Up to 1000 changes may wait; each transaction saves up to 500 rows, or whatever
+     * arrived within 200 ms. Everything still waiting is saved when the app exits.
+     *
+     * @return The queue every DAO submits its changes to
+     *
+     *         Example: DatabaseManager.getWriteQueue().flush();
+     */
+    public static synchronized WriteBehindQueue getWriteQueue() {
+        if (writeQueue == null) {
+            writeQueue = new WriteBehindQueue(1000, 500, 200);
+            Runtime.getRuntime().addShutdownHook(new Thread(writeQueue::close, "db-writer-shutdown"));
+        }
+        return writeQueue;
     }
 
     /**
      * Initializes database tables
-     * Creates tables if they don't exist
+     * Runs only the schema steps this database hasn't had yet (see SchemaMigrations),
+     * so once the database is up to date, starting the app changes nothing
      * 
-     * We create two tables:
+     * The tables:
      * 1. portfolio_items - stores your stock holdings
      * 2. transactions - stores buy/sell history
+     * 3. daily_bars - stores downloaded daily price history
+     * 4. price_ticks - stores every refreshed price
+     * 5. symbols - gives each stock a small number for the two history tables
      */
     private static void initializeTables() {
-        try {
-            // Get connection to database
-            Connection conn = getConnection();
-
-            // Statement - used to execute SQL commands
-            // Think of it like typing commands in a database terminal
-            Statement stmt = conn.createStatement();
-
-            // ===== CREATE PORTFOLIO_ITEMS TABLE =====
-            // This table stores your current stock holdings
-            String createPortfolioTable = "CREATE TABLE IF NOT EXISTS portfolio_items (" +
-                    "    id INTEGER PRIMARY KEY AUTOINCREMENT," + // Auto-incrementing ID (1, 2, 3...)
-                    "    symbol TEXT NOT NULL," + // Stock symbol (ex: "AAPL")
-                    "    name TEXT NOT NULL," + // Company name (ex: "Apple Inc.")
-                    "    quantity INTEGER NOT NULL," + // Number of shares (ex: 10)
-                    "    purchase_price REAL NOT NULL," + // Price you paid per share (ex: 150.00)
-                    "    current_price REAL NOT NULL," + // Current price per share (ex: 278.12)
-                    "    original_currency TEXT DEFAULT 'USD'," + // Store currency
-                    "    sector TEXT," + // NEW: Sector (Healthcare, IT, etc.)
-                    "    market_cap TEXT," + // NEW: Market Cap (Small, Mid, Large)
-                    "    risk_level TEXT," + // NEW: Risk Level (Low, Med, High)
-                    "    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" + // When you bought it
-                    ")";
-
-            // Execute the SQL command to create table
-            stmt.execute(createPortfolioTable);
-
-            // Ensure new columns exist if table was already created
-            try {
-                stmt.execute("ALTER TABLE portfolio_items ADD COLUMN original_currency TEXT DEFAULT 'USD'");
-            } catch (SQLException e) {
+        // Borrow the writer connection; try-with-resources gives it back even on errors
+        try (PooledConnection writer = pool.borrowWriter()) {
+            int applied = SchemaMigrations.migrate(writer.getConnection());
+            if (applied == 0) {
+                System.out.println("✅ Database schema up to date (version " + SchemaMigrations.latestVersion() + ")");
             }
-            try {
-                stmt.execute("ALTER TABLE portfolio_items ADD COLUMN sector TEXT");
-            } catch (SQLException e) {
-            }
-            try {
-                stmt.execute("ALTER TABLE portfolio_items ADD COLUMN market_cap TEXT");
-            } catch (SQLException e) {
-            }
-            try {
-                stmt.execute("ALTER TABLE portfolio_items ADD COLUMN risk_level TEXT");
-            } catch (SQLException e) {
-            }
-
-            System.out.println("✅ Portfolio table ready");
-
-            // ===== CREATE TRANSACTIONS TABLE =====
-            // This table stores your transaction history (buy/sell records)
-            String createTransactionsTable = "CREATE TABLE IF NOT EXISTS transactions (" +
-                    "    id INTEGER PRIMARY KEY AUTOINCREMENT," + // Auto-incrementing ID
-                    "    symbol TEXT NOT NULL," + // Stock symbol
-                    "    type TEXT NOT NULL," + // "BUY" or "SELL"
-                    "    quantity INTEGER NOT NULL," + // Number of shares
-                    "    price REAL NOT NULL," + // Price per share
-                    "    timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP" + // When transaction happened
-                    ")";
-
-            // Execute the SQL command to create table
-            stmt.execute(createTransactionsTable);
-            System.out.println("✅ Transactions table ready");
-
-            // Close statement (good practice to free resources)
-            stmt.close();
-
         } catch (SQLException e) {
-            // If table creation fails, print error
+            // If an upgrade step fails, print error - the failed step was rolled back
             System.err.println("❌ Error creating tables: " + e.getMessage());
             e.printStackTrace();
         }
@@ -147,15 +154,18 @@ public class DatabaseManager {
      * Example: DatabaseManager.closeConnection();
      */
     public static void closeConnection() {
-        try {
-            // If connection exists and is open, close it
-            if (connection != null && !connection.isClosed()) {
-                connection.close(); // Close the connection
+        synchronized (DatabaseManager.class) {
+            if (writeQueue != null) {
+                writeQueue.close(); // Save pending changes before the connection goes away
+            }
+        }
+        synchronized (DatabaseManager.class) {
+            // If the pool exists and is open, close every connection
+            if (pool != null && !pool.isClosed()) {
+                System.out.println("📊 Connection pool: " + pool.getStats());
+                pool.close();
                 System.out.println("✅ Database connection closed");
             }
-        } catch (SQLException e) {
-            // If closing fails, print error
-            System.err.println("❌ Error closing connection: " + e.getMessage());
         }
     }
 
@@ -167,15 +177,13 @@ public class DatabaseManager {
      */
     public static void clearAllData() {
         try {
-            Connection conn = getConnection();
-            Statement stmt = conn.createStatement();
-
-            // Delete all rows from both tables
-            stmt.execute("DELETE FROM portfolio_items"); // Clear portfolio
-            stmt.execute("DELETE FROM transactions"); // Clear transactions
+            // Delete all rows from both tables - through the write queue, after
+            // any changes still waiting there
+            getWriteQueue().submitAndWait(new WriteBehindQueue.Write("clear all data")
+                    .add("DELETE FROM portfolio_items") // Clear portfolio
+                    .add("DELETE FROM transactions")); // Clear transactions
 
             System.out.println("✅ All data cleared from database");
-            stmt.close();
 
         } catch (SQLException e) {
             System.err.println("❌ Error clearing data: " + e.getMessage());
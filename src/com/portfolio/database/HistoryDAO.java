@@ -0,0 +1,251 @@
+package com.portfolio.database; // Database package
+
+import com.portfolio.model.PriceSeries; // Import PriceSeries (many prices as plain arrays)
+import com.portfolio.model.StockPrice; // Import StockPrice class
+import java.sql.*; // Import SQL classes
+import java.time.Instant; // Import Instant for the time of a price refresh
+import java.time.LocalDate; // Import LocalDate for trading days
+import java.util.ArrayList; // Import ArrayList
+import java.util.Arrays; // Import Arrays to grow the series arrays
+import java.util.List; // Import List interface
+import java.util.Map; // Import Map interface
+
+/**
+ * HistoryDAO - Data Access Object for price history
+ * Stores one row per stock per trading day in the daily_bars table,
+ * so charts don't have to download years of prices every time the app starts,
+ * and every refreshed price in price_ticks, so there is a record of prices
+ * between the daily bars.
+ *
+ * Both tables are compact: the stock is a number from the symbols table, the
+ * time is a number (day or second since 1970), and prices are whole numbers of
+ * 1/10,000 (ex: $237.33 is stored as 2373300). Rows are kept sorted by stock and
+ * time, so "AAPL from 2019 to today" reads one block of the file.
+ *
+ * Think of it like a scrapbook of old newspaper stock pages - you only
+ * need to buy today's paper to stay up to date
+ */
+public class HistoryDAO {
+    private static final double PRICE_SCALE = 10_000; // Stored price = price x 10,000
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    // The symbol's number, looked up inside the query (uses the UNIQUE index on symbols.symbol)
+    private static final String SYMBOL_ID = "(SELECT id FROM symbols WHERE symbol = ?)";
+
+    /**
+     * Loads all saved daily bars for a stock, oldest first
+     *
+     * @param symbol The stock symbol (ex: "AAPL")
+     * @return List of daily bars (empty if nothing is saved yet)
+     * @throws SQLException if database operation fails
+     *
+     *                      Example: List<StockPrice> bars = dao.loadBars("AAPL");
+     */
+    public List<StockPrice> loadBars(String symbol) throws SQLException {
+        return loadBars(symbol, LocalDate.MIN, LocalDate.MAX);
+    }
+
+    /**
+     * Loads the saved daily bars of a stock between two days (both included), oldest first
+     *
+     * @param symbol The stock symbol (ex: "AAPL")
+     * @param from   First day to include
+     * @param to     Last day to include
+     * @return List of daily bars (empty if none are saved for those days)
+     * @throws SQLException if database operation fails
+     *
+     *                      Example: dao.loadBars("AAPL", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31));
+     */
+    public List<StockPrice> loadBars(String symbol, LocalDate from, LocalDate to) throws SQLException {
+        List<StockPrice> bars = new ArrayList<>();
+
+        String sql = "SELECT day, open, high, low, close, volume FROM daily_bars "
+                + "WHERE symbol_id = " + SYMBOL_ID + " AND day BETWEEN ? AND ? ORDER BY day";
+
+        try (PooledConnection conn = DatabaseManager.read()) {
+            PreparedStatement pstmt = conn.prepare(sql); // Cached - prepared once per connection
+            pstmt.setString(1, symbol.toUpperCase());
+            pstmt.setLong(2, from.toEpochDay());
+            pstmt.setLong(3, to.toEpochDay());
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    bars.add(new StockPrice(
+                            LocalDate.ofEpochDay(rs.getLong("day")),
+                            fromScaled(rs.getLong("open")),
+                            fromScaled(rs.getLong("high")),
+                            fromScaled(rs.getLong("low")),
+                            fromScaled(rs.getLong("close")),
+                            rs.getLong("volume")));
+                }
+            }
+        }
+
+        return bars;
+    }
+
+    /**
+     * Loads just the closing prices of a stock between two days (both included)
+     * Lighter than loadBars for returns and drawdowns over many years
+     *
+     * @param symbol The stock symbol (ex: "AAPL")
+     * @param from   First day to include
+     * @param to     Last day to include
+     * @return The closes, oldest first (each time is the start of the day, UTC)
+     * @throws SQLException if database operation fails
+     *
+     *                      Example: dao.loadCloses("AAPL", LocalDate.of(2015, 1, 1), LocalDate.now()).getMaxDrawdown()
+     */
+    public PriceSeries loadCloses(String symbol, LocalDate from, LocalDate to) throws SQLException {
+        String sql = "SELECT day * " + SECONDS_PER_DAY + ", close FROM daily_bars "
+                + "WHERE symbol_id = " + SYMBOL_ID + " AND day BETWEEN ? AND ? ORDER BY day";
+        return loadSeries(symbol, sql, from.toEpochDay(), to.toEpochDay());
+    }
+
+    /**
+     * Loads the refreshed prices of a stock between two moments (both included)
+     *
+     * @param symbol The stock symbol (ex: "AAPL")
+     * @param from   First moment to include
+     * @param to     Last moment to include
+     * @return The prices, oldest first
+     * @throws SQLException if database operation fails
+     *
+     *                      Example: dao.loadTicks("AAPL", Instant.now().minus(Duration.ofDays(7)), Instant.now())
+     */
+    public PriceSeries loadTicks(String symbol, Instant from, Instant to) throws SQLException {
+        String sql = "SELECT epoch, price FROM price_ticks "
+                + "WHERE symbol_id = " + SYMBOL_ID + " AND epoch BETWEEN ? AND ? ORDER BY epoch";
+        return loadSeries(symbol, sql, from.getEpochSecond(), to.getEpochSecond());
+    }
+
+    // Runs a (time, scaled price) query straight into two arrays - no object per row
+    private PriceSeries loadSeries(String symbol, String sql, long from, long to) throws SQLException {
+        long[] times = new long[256];
+        double[] prices = new double[256];
+        int count = 0;
+
+        // Ticks may still be waiting in the write queue
+        DatabaseManager.getWriteQueue().flush();
+
+        try (PooledConnection conn = DatabaseManager.read()) {
+            PreparedStatement pstmt = conn.prepare(sql);
+            pstmt.setString(1, symbol.toUpperCase());
+            pstmt.setLong(2, from);
+            pstmt.setLong(3, to);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (count == times.length) {
+                        times = Arrays.copyOf(times, count * 2); // Full - double the room
+                        prices = Arrays.copyOf(prices, count * 2);
+                    }
+                    times[count] = rs.getLong(1);
+                    prices[count] = fromScaled(rs.getLong(2));
+                    count++;
+                }
+            }
+        }
+
+        return new PriceSeries(symbol.toUpperCase(), Arrays.copyOf(times, count), Arrays.copyOf(prices, count));
+    }
+
+    /**
+     * Finds the most recent trading day we have saved for a stock
+     *
+     * @param symbol The stock symbol (ex: "AAPL")
+     * @return The latest saved day, or null if nothing is saved yet
+     * @throws SQLException if database operation fails
+     *
+     *                      Example: LocalDate last = dao.getLastBarDate("AAPL"); // 2024-11-29
+     */
+    public LocalDate getLastBarDate(String symbol) throws SQLException {
+        String sql = "SELECT MAX(day) FROM daily_bars WHERE symbol_id = " + SYMBOL_ID;
+
+        try (PooledConnection conn = DatabaseManager.read()) {
+            PreparedStatement pstmt = conn.prepare(sql);
+            pstmt.setString(1, symbol.toUpperCase());
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                long last = rs.getLong(1);
+                return rs.wasNull() ? null : LocalDate.ofEpochDay(last); // MAX of no rows is NULL
+            }
+        }
+    }
+
+    /**
+     * Saves daily bars for a stock in one transaction
+     * A bar for a day that is already saved replaces the old one
+     *
+     * @param symbol The stock symbol (ex: "AAPL")
+     * @param bars   The bars to save
+     * @throws SQLException if database operation fails (nothing is saved then)
+     *
+     *                      Example: dao.saveBars("AAPL", newBars);
+     */
+    public void saveBars(String symbol, List<StockPrice> bars) throws SQLException {
+        if (bars.isEmpty()) {
+            return; // Nothing to save
+        }
+
+        String sql = "INSERT OR REPLACE INTO daily_bars (symbol_id, day, open, high, low, close, volume) "
+                + "VALUES (" + SYMBOL_ID + ", ?, ?, ?, ?, ?, ?)";
+
+        // One Write, so the bars are saved in one transaction by the database writer thread
+        // (which keeps them in order with every other change); wait so errors reach the caller
+        WriteBehindQueue.Write write = new WriteBehindQueue.Write("daily bars of " + symbol)
+                .add("INSERT OR IGNORE INTO symbols (symbol) VALUES (?)", symbol.toUpperCase());
+        for (StockPrice bar : bars) {
+            write.add(sql,
+                    symbol.toUpperCase(),
+                    bar.getDate().toEpochDay(), // Stored as days since 1970 (2024-11-29 -> 20056)
+                    toScaled(bar.getOpen()),
+                    toScaled(bar.getHigh()),
+                    toScaled(bar.getLow()),
+                    toScaled(bar.getClose()),
+                    bar.getVolume());
+        }
+
+        DatabaseManager.getWriteQueue().submitAndWait(write);
+        System.out.println("✅ Saved " + bars.size() + " daily bars for " + symbol);
+    }
+
+    /**
+     * Records the prices from one refresh (queued - saved with the next batch)
+     * Saving the same stock twice in the same second keeps the last price
+     *
+     * @param prices Symbol -> new price (ex: {"AAPL"=237.33})
+     * @param time   When the prices were fetched
+     * @throws SQLException if the write queue is closed
+     *
+     *                      Example: dao.saveTicks(newPrices, Instant.now());
+     */
+    public void saveTicks(Map<String, Double> prices, Instant time) throws SQLException {
+        if (prices.isEmpty()) {
+            return;
+        }
+
+        WriteBehindQueue.Write write = new WriteBehindQueue.Write(prices.size() + " price ticks");
+        for (String symbol : prices.keySet()) {
+            write.add("INSERT OR IGNORE INTO symbols (symbol) VALUES (?)", symbol.toUpperCase());
+        }
+        for (Map.Entry<String, Double> entry : prices.entrySet()) {
+            write.add("INSERT OR REPLACE INTO price_ticks (symbol_id, epoch, price) VALUES (" + SYMBOL_ID + ", ?, ?)",
+                    entry.getKey().toUpperCase(), time.getEpochSecond(), toScaled(entry.getValue()));
+        }
+        DatabaseManager.getWriteQueue().submit(write);
+    }
+
+    // Price -> stored whole number (ex: 237.33 -> 2373300)
+    static long toScaled(double price) {
+        return Math.round(price * PRICE_SCALE);
+    }
+
+    // Stored whole number -> price (ex: 2373300 -> 237.33)
+    static double fromScaled(long scaled) {
+        return scaled / PRICE_SCALE;
+    }
+}
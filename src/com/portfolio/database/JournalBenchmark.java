@@ -0,0 +1,91 @@
+package com.portfolio.database; // Database package
+
+import com.portfolio.model.Transaction; // Import Transaction class
+import java.io.File; // Import File to start from empty files
+import java.nio.file.Files; // Import Files to clear the journal folder
+import java.nio.file.Path; // Import Path for the journal folder
+import java.util.Comparator; // Import Comparator to delete folder contents first
+
+/**
+ * JournalBenchmark - Compares saving trades to the TradeJournal with saving them to SQLite
+ * Writes the same transactions three ways and prints trades per second:
+ *   1. TradeJournal (memory-mapped file)
+ *   2. PortfolioDAO with the write-behind queue (batched SQLite inserts)
+ *   3. PortfolioDAO(false) - waits for every insert, like autocommit
+ * Then times replaying the whole journal, which is the worst case for startup.
+ *
+ * Run it with:
+ *   java -cp ".;lib/*" com.portfolio.database.JournalBenchmark [count]
+ * Example: ... JournalBenchmark 200000
+ */
+public class JournalBenchmark {
+
+    private static final String[] SYMBOLS = { "AAPL", "MSFT", "GOOGL", "NVDA", "TSLA", "JPM", "XOM", "KO" };
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        Path folder = Path.of("benchmark-journal");
+        String dbFile = "benchmark-journal.db";
+
+        // Start from empty files, and point DatabaseManager at its own database before it is first used
+        if (Files.exists(folder)) {
+            try (var paths = Files.walk(folder)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+        for (String suffix : new String[] { "", "-wal", "-shm" }) {
+            new File(dbFile + suffix).delete();
+        }
+        System.setProperty("portfolio.db", dbFile);
+
+        // ===== 1. TRADE JOURNAL =====
+        TradeJournal journal = TradeJournal.open(folder);
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            journal.appendBuy(trade(i), "Benchmark Co");
+        }
+        journal.force(); // Count the time to get it onto the disk too
+        report("TradeJournal append + force", start, count);
+        journal.close();
+
+        // ===== 2. SQLITE, BATCHED =====
+        PortfolioDAO batched = new PortfolioDAO();
+        DatabaseManager.getConnection(); // Create the tables now, so the timing is only the writes
+        start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            batched.saveTransaction(trade(i));
+        }
+        DatabaseManager.getWriteQueue().flush();
+        report("PortfolioDAO write-behind (batched)", start, count);
+
+        // ===== 3. SQLITE, ONE AT A TIME ===== (slow, so a tenth of the trades)
+        int single = Math.max(1, count / 10);
+        PortfolioDAO waiting = new PortfolioDAO(false);
+        start = System.nanoTime();
+        for (int i = 0; i < single; i++) {
+            waiting.saveTransaction(trade(i));
+        }
+        report("PortfolioDAO waiting on each insert", start, single);
+
+        // ===== REPLAY THE WHOLE JOURNAL (startup with no checkpoint) =====
+        journal = TradeJournal.open(folder);
+        long[] replayed = { 0 };
+        start = System.nanoTime();
+        journal.replay(0, entry -> replayed[0]++);
+        report("TradeJournal replay from the start", start, (int) replayed[0]);
+        journal.close();
+
+        DatabaseManager.closeConnection();
+    }
+
+    // A made-up trade (ex: BUY 7 NVDA @ 103.5)
+    private static Transaction trade(int i) {
+        return new Transaction(SYMBOLS[i % SYMBOLS.length], "BUY", 1 + i % 50, 100 + (i % 1000) / 10.0);
+    }
+
+    private static void report(String what, long startNanos, int rows) {
+        double millis = (System.nanoTime() - startNanos) / 1e6;
+        System.out.println(String.format("⏱️ %-40s %10.1f ms  (%,d trades, %,.0f trades/s)",
+                what, millis, rows, rows / Math.max(millis / 1000, 1e-9)));
+    }
+}
@@ -0,0 +1,119 @@
+package com.portfolio.database; // Database package
+
+import java.sql.*; // Import SQL classes
+import java.util.LinkedHashMap; // Import LinkedHashMap - keeps the least used statement first
+import java.util.Map; // Import Map interface
+
+/**
+ * PooledConnection - A database connection borrowed from the ConnectionPool
+ * Remembers the statements it has prepared, so the same SQL is only prepared
+ * once per connection (preparing means SQLite parses and plans the query).
+ *
+ * Always borrow it with try-with-resources - close() gives it back to the pool,
+ * even if an exception is thrown:
+ *
+ *   try (PooledConnection conn = DatabaseManager.read()) {
+ *       PreparedStatement pstmt = conn.prepare("SELECT * FROM portfolio_items WHERE symbol = ?");
+ *       pstmt.setString(1, "AAPL");
+ *       try (ResultSet rs = pstmt.executeQuery()) { ... }
+ *   }
+ *
+ * Don't close the statements you get from prepare() - they belong to the cache.
+ * Do close your ResultSets.
+ */
+public final class PooledConnection implements AutoCloseable {
+    private static final int MAX_CACHED_STATEMENTS = 64; // Per connection
+
+    private final Connection connection;
+    private final ConnectionPool pool;
+    private final boolean writer; // true for the one connection that may change data
+
+    // SQL -> prepared statement, least recently used first; the oldest is closed when full
+    private final Map<String, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+            if (size() <= MAX_CACHED_STATEMENTS) {
+                return false;
+            }
+            closeQuietly(eldest.getValue());
+            return true;
+        }
+    };
+
+    PooledConnection(Connection connection, ConnectionPool pool, boolean writer) {
+        this.connection = connection;
+        this.pool = pool;
+        this.writer = writer;
+    }
+
+    /**
+     * Returns a prepared statement for the SQL, from the cache if it was prepared before
+     * The statement comes back with no parameters and no batched rows
+     *
+     * @param sql The SQL with ? placeholders
+     * @return A ready-to-fill statement (don't close it)
+     * @throws SQLException if the SQL can't be prepared
+     *
+     *                      Example: conn.prepare("SELECT * FROM transactions WHERE symbol = ?")
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        return cached(sql, sql, false);
+    }
+
+    // Same as prepare, but getGeneratedKeys() returns the id of an inserted row
+    public PreparedStatement prepareReturningKeys(String sql) throws SQLException {
+        return cached("keys:" + sql, sql, true);
+    }
+
+    private PreparedStatement cached(String key, String sql, boolean returnKeys) throws SQLException {
+        PreparedStatement pstmt = statements.get(key);
+        if (pstmt != null && !pstmt.isClosed()) {
+            pool.recordStatement(true);
+            pstmt.clearParameters(); // Forget the last caller's values
+            pstmt.clearBatch();
+            return pstmt;
+        }
+
+        pool.recordStatement(false);
+        pstmt = returnKeys ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                : connection.prepareStatement(sql);
+        statements.put(key, pstmt);
+        return pstmt;
+    }
+
+    // The plain JDBC connection - for transactions (setAutoCommit/commit/rollback)
+    public Connection getConnection() {
+        return connection;
+    }
+
+    public boolean isWriter() {
+        return writer;
+    }
+
+    // Gives the connection back to the pool (it stays open for the next borrower)
+    @Override
+    public void close() {
+        pool.release(this);
+    }
+
+    // Really closes the connection and its statements - only the pool calls this
+    void closeForGood() {
+        for (PreparedStatement pstmt : statements.values()) {
+            closeQuietly(pstmt);
+        }
+        statements.clear();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("❌ Error closing connection: " + e.getMessage());
+        }
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // Already closed or broken - nothing more to do
+        }
+    }
+}
@@ -2,8 +2,17 @@ package com.portfolio.database; // Database package
 
 import com.portfolio.model.*; // Import model classes
 import java.sql.*; // Import SQL classes
+import java.time.LocalDateTime; // Import LocalDateTime for transaction times
+import java.time.ZoneId; // Import ZoneId to convert between local time and UTC
+import java.time.ZoneOffset; // Import ZoneOffset for UTC
+import java.time.format.DateTimeFormatter; // Import DateTimeFormatter to write timestamps
+import java.time.format.DateTimeFormatterBuilder; // Import DateTimeFormatterBuilder to read them back
+import java.time.format.DateTimeParseException; // Thrown for a timestamp we can't read
+import java.time.temporal.ChronoField; // Import ChronoField for the optional fraction of a second
 import java.util.ArrayList; // Import ArrayList
+import java.util.LinkedHashMap; // Import LinkedHashMap to keep currencies in order
 import java.util.List; // Import List interface
+import java.util.Map; // Import Map interface
 
 /**
  * PortfolioDAO - Data Access Object for Portfolio operations
@@ -15,13 +24,58 @@ import java.util.List; // Import List interface
  * - Update stock prices
  * - Delete stocks
  * 
+ * Changes are not written one by one: they go to the shared WriteBehindQueue,
+ * which saves everything that piles up in one transaction (one disk sync).
+ * 
  * Think of DAO like a librarian who manages books (data) in a library
  * (database)
  */
-public class PortfolioDAO {
+public class PortfolioDAO implements TransactionHistory {
+
+    // Transaction times are stored as UTC text, the same way SQLite's CURRENT_TIMESTAMP
+    // writes them ("2024-01-15 05:00:00"), plus milliseconds when there are any
+    // ("2024-01-15 05:00:00.123"). Text in this shape sorts in time order, so the
+    // timestamp index answers "newest first" and "between two dates" directly.
+    private static final DateTimeFormatter SECONDS = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter MILLIS = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final DateTimeFormatter STORED = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd[ ]['T']HH:mm:ss")
+            .optionalStart().appendFraction(ChronoField.NANO_OF_SECOND, 0, 9, true).optionalEnd()
+            .toFormatter();
+
+    // true: changes are queued and saved in batches by the database writer thread
+    // (see WriteBehindQueue), and methods return right away.
+    // false: every method waits until its change is saved and throws if it failed.
+    private final boolean writeBehind;
+
+    // The last transaction id handed out (-1 until read from the database, see nextTransactionId)
+    private static long lastTransactionId = -1;
+
+    // Constructor - changes are saved in the background, in batches
+    // Example: new PortfolioDAO()
+    public PortfolioDAO() {
+        this(true);
+    }
+
+    // Constructor - choose whether callers wait for each change to be saved
+    // Example: new PortfolioDAO(false) for a tool that must know each save worked
+    public PortfolioDAO(boolean writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    // Hands a change to the write queue - waits for it only when writeBehind is off
+    private void write(WriteBehindQueue.Write write) throws SQLException {
+        if (writeBehind) {
+            DatabaseManager.getWriteQueue().submit(write);
+        } else {
+            DatabaseManager.getWriteQueue().submitAndWait(write);
+        }
+    }
 
     /**
      * Saves a portfolio item to the database
+     * Waits until the row is saved, because the new lot's id is needed right away
+     * (later sales find the lot by its id)
      * 
      * @param item The portfolio item to save
      * @throws SQLException if database operation fails
@@ -35,35 +89,22 @@ public class PortfolioDAO {
         String sql = "INSERT INTO portfolio_items (symbol, name, quantity, purchase_price, current_price, original_currency, sector, market_cap, risk_level) "
                 + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
-        // Get database connection
-        Connection conn = DatabaseManager.getConnection();
-
-        // PreparedStatement - safer than regular Statement (prevents SQL injection)
-        // Think of it like a form with blank fields to fill in
-        PreparedStatement pstmt = conn.prepareStatement(sql);
-
-        // Fill in the placeholders (? marks)
-        // Index starts at 1 (not 0!)
-        pstmt.setString(1, item.getStock().getSymbol()); // Fill 1st ? with symbol
-        pstmt.setString(2, item.getStock().getName()); // Fill 2nd ? with name
-        pstmt.setInt(3, item.getQuantity()); // Fill 3rd ? with quantity
-        pstmt.setDouble(4, item.getPurchasePrice()); // Fill 4th ? with purchase price
-        pstmt.setDouble(5, item.getStock().getCurrentPrice());
-        pstmt.setString(6, item.getOriginalCurrency());
-        pstmt.setString(7, item.getStock().getSector());
-        pstmt.setString(8, item.getStock().getMarketCap());
-        pstmt.setString(9, item.getStock().getRiskLevel());
-
-        // Execute the INSERT statement
-        // executeUpdate() returns number of rows affected (should be 1)
-        int rowsAffected = pstmt.executeUpdate();
-
-        if (rowsAffected > 0) {
-            System.out.println("✅ Saved to database: " + item.getStock().getSymbol());
-        }
-
-        // Close statement to free resources
-        pstmt.close();
+        // Fill in the placeholders (? marks) in order, and remember which row
+        // this lot went into, so later updates touch only this lot
+        WriteBehindQueue.Write write = new WriteBehindQueue.Write("lot of " + item.getStock().getSymbol())
+                .addInsert(sql, item::setId,
+                        item.getStock().getSymbol(), // 1st ? - symbol
+                        item.getStock().getName(), // 2nd ? - name
+                        item.getQuantity(), // 3rd ? - quantity
+                        item.getPurchasePrice(), // 4th ? - purchase price
+                        item.getStock().getCurrentPrice(),
+                        item.getOriginalCurrency(),
+                        item.getStock().getSector(),
+                        item.getStock().getMarketCap(),
+                        item.getStock().getRiskLevel());
+
+        DatabaseManager.getWriteQueue().submitAndWait(write);
+        System.out.println("✅ Saved to database: " + item.getStock().getSymbol());
     }
 
     /**
@@ -81,55 +122,52 @@ public class PortfolioDAO {
 
         // SQL SELECT statement - retrieves data from table
         // * means "all columns"
-        String sql = "SELECT * FROM portfolio_items";
+        String sql = "SELECT * FROM portfolio_items ORDER BY id"; // Oldest lot first
 
-        // Get database connection
-        Connection conn = DatabaseManager.getConnection();
+        // Wait for queued changes, so we read our own writes
+        DatabaseManager.getWriteQueue().flush();
 
-        // Create statement
-        Statement stmt = conn.createStatement();
-
-        // Execute query and get results
+        // Borrow a read-only connection; try-with-resources gives it back (and
+        // closes the results) even if something goes wrong halfway
         // ResultSet - like a cursor that points to rows of data
         // Think of it like reading rows in an Excel spreadsheet
-        ResultSet rs = stmt.executeQuery(sql);
-
-        // Loop through all rows in the result
-        // rs.next() moves to next row, returns false when no more rows
-        while (rs.next()) {
-            // Extract data from current row
-            // Column names match table definition
-            String symbol = rs.getString("symbol"); // Get symbol column
-            String name = rs.getString("name"); // Get name column
-            int quantity = rs.getInt("quantity"); // Get quantity column
-            double purchasePrice = rs.getDouble("purchase_price"); // Get purchase_price column
-            double currentPrice = rs.getDouble("current_price"); // Get current_price column
-
-            // Handle null currency gracefully (for older DB versions before this update)
-            String currency = rs.getString("original_currency");
-            if (currency == null)
-                currency = "USD";
-
-            // Create Stock object from database data
-            Stock stock = new Stock(symbol, name);
-            stock.setCurrentPrice(currentPrice);
-            stock.setSector(rs.getString("sector"));
-            stock.setMarketCap(rs.getString("market_cap"));
-            stock.setRiskLevel(rs.getString("risk_level"));
-
-            // Create PortfolioItem object with currency
-            PortfolioItem item = new PortfolioItem(stock, quantity, purchasePrice, currency);
-
-            // Add to list
-            items.add(item);
+        try (PooledConnection conn = DatabaseManager.read();
+                ResultSet rs = conn.prepare(sql).executeQuery()) {
+
+            // Loop through all rows in the result
+            // rs.next() moves to next row, returns false when no more rows
+            while (rs.next()) {
+                // Extract data from current row
+                // Column names match table definition
+                String symbol = rs.getString("symbol"); // Get symbol column
+                String name = rs.getString("name"); // Get name column
+                int quantity = rs.getInt("quantity"); // Get quantity column
+                double purchasePrice = rs.getDouble("purchase_price"); // Get purchase_price column
+                double currentPrice = rs.getDouble("current_price"); // Get current_price column
+
+                // Handle null currency gracefully (for older DB versions before this update)
+                String currency = rs.getString("original_currency");
+                if (currency == null)
+                    currency = "USD";
+
+                // Create Stock object from database data
+                Stock stock = new Stock(symbol, name);
+                stock.setCurrentPrice(currentPrice);
+                stock.setSector(rs.getString("sector"));
+                stock.setMarketCap(rs.getString("market_cap"));
+                stock.setRiskLevel(rs.getString("risk_level"));
+
+                // Create PortfolioItem object with currency
+                PortfolioItem item = new PortfolioItem(stock, quantity, purchasePrice, currency);
+                item.setId(rs.getLong("id"));
+
+                // Add to list
+                items.add(item);
+            }
         }
 
         System.out.println("✅ Loaded " + items.size() + " items from database");
 
-        // Close resources
-        rs.close();
-        stmt.close();
-
         return items; // Return the list
     }
 
@@ -147,21 +185,31 @@ public class PortfolioDAO {
         // SET changes the value, WHERE specifies which rows to update
         String sql = "UPDATE portfolio_items SET current_price = ? WHERE symbol = ?";
 
-        Connection conn = DatabaseManager.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(sql);
+        write(new WriteBehindQueue.Write("price of " + symbol).add(sql, newPrice, symbol));
+    }
 
-        // Fill in placeholders
-        pstmt.setDouble(1, newPrice); // New price
-        pstmt.setString(2, symbol); // Which stock to update
+    /**
+     * Updates the current price of many stocks in one database transaction
+     * All rows are sent as a single JDBC batch, so a refresh of 300 symbols
+     * costs one commit instead of 300
+     *
+     * @param newPrices Map of stock symbol to new current price
+     * @throws SQLException if database operation fails (nothing is saved then)
+     *
+     *                      Example: dao.updateStockPrices(Map.of("AAPL", 278.12, "TSLA", 250.0));
+     */
+    public void updateStockPrices(java.util.Map<String, Double> newPrices) throws SQLException {
+        if (newPrices.isEmpty()) {
+            return; // Nothing to save
+        }
 
-        // Execute update
-        int rowsAffected = pstmt.executeUpdate();
+        String sql = "UPDATE portfolio_items SET current_price = ? WHERE symbol = ?";
 
-        if (rowsAffected > 0) {
-            System.out.println("✅ Updated price in database: " + symbol + " = $" + newPrice);
+        WriteBehindQueue.Write write = new WriteBehindQueue.Write(newPrices.size() + " prices");
+        for (java.util.Map.Entry<String, Double> entry : newPrices.entrySet()) {
+            write.add(sql, entry.getValue(), entry.getKey()); // New price, which stock
         }
-
-        pstmt.close();
+        write(write);
     }
 
     /**
@@ -176,18 +224,7 @@ public class PortfolioDAO {
         // SQL DELETE statement - removes rows from table
         String sql = "DELETE FROM portfolio_items WHERE symbol = ?";
 
-        Connection conn = DatabaseManager.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(sql);
-
-        pstmt.setString(1, symbol); // Which stock to delete
-
-        int rowsAffected = pstmt.executeUpdate();
-
-        if (rowsAffected > 0) {
-            System.out.println("✅ Deleted from database: " + symbol);
-        }
-
-        pstmt.close();
+        write(new WriteBehindQueue.Write("delete of " + symbol).add(sql, symbol));
     }
 
     /**
@@ -202,23 +239,90 @@ public class PortfolioDAO {
     public void updatePortfolioItemQuantity(String symbol, int newQuantity) throws SQLException {
         String sql = "UPDATE portfolio_items SET quantity = ? WHERE symbol = ?";
 
-        Connection conn = DatabaseManager.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(sql);
+        write(new WriteBehindQueue.Write("quantity of " + symbol).add(sql, newQuantity, symbol));
+    }
 
-        pstmt.setInt(1, newQuantity); // New quantity
-        pstmt.setString(2, symbol); // Which stock to update
+    /**
+     * Deletes one lot (one purchase) of a stock from the database
+     * Other lots of the same symbol are left alone
+     *
+     * @param id The database id of the lot (PortfolioItem.getId())
+     * @throws SQLException if database operation fails
+     *
+     *                      Example: dao.deletePortfolioItem(item.getId());
+     */
+    public void deletePortfolioItem(long id) throws SQLException {
+        String sql = "DELETE FROM portfolio_items WHERE id = ?";
 
-        int rowsAffected = pstmt.executeUpdate();
+        write(new WriteBehindQueue.Write("delete of lot " + id).add(sql, id));
+    }
 
-        if (rowsAffected > 0) {
-            System.out.println("✅ Updated quantity in database: " + symbol + " = " + newQuantity);
+    /**
+     * Updates the quantity of one lot (one purchase) of a stock
+     *
+     * @param id          The database id of the lot (PortfolioItem.getId())
+     * @param newQuantity The new quantity
+     * @throws SQLException if database operation fails
+     *
+     *                      Example: dao.updatePortfolioItemQuantity(item.getId(), 5);
+     */
+    public void updatePortfolioItemQuantity(long id, int newQuantity) throws SQLException {
+        String sql = "UPDATE portfolio_items SET quantity = ? WHERE id = ?";
+
+        write(new WriteBehindQueue.Write("quantity of lot " + id).add(sql, newQuantity, id));
+    }
+
+    /**
+     * Saves what a sale did to the lots of one stock, in one transaction
+     * Lots sold completely are deleted, lots partly sold get their new quantity
+     * (a lot's purchase price never changes)
+     *
+     * @param removedIds Database ids of the lots to delete
+     * @param changed    Lots whose quantity changed
+     * @throws SQLException if database operation fails (nothing is saved then)
+     *
+     *                      Example: dao.saveLotChanges(relief.getRemovedIds(), relief.getChanged());
+     */
+    public void saveLotChanges(List<Long> removedIds, List<PortfolioItem> changed) throws SQLException {
+        if (removedIds.isEmpty() && changed.isEmpty()) {
+            return; // Nothing to save
         }
 
-        pstmt.close();
+        // One Write, so all rows of the sale land in the same transaction
+        WriteBehindQueue.Write write = new WriteBehindQueue.Write("lot changes");
+        for (long id : removedIds) {
+            write.add("DELETE FROM portfolio_items WHERE id = ?", id);
+        }
+        for (PortfolioItem lot : changed) {
+            write.add("UPDATE portfolio_items SET quantity = ? WHERE id = ?", lot.getQuantity(), lot.getId());
+        }
+        write(write);
+    }
+
+    /**
+     * Hands out the id for the next transaction
+     * The first call reads the highest id the table ever used (sqlite_sequence remembers
+     * ids of deleted rows too); after that it just counts up. Shared by every PortfolioDAO,
+     * because they all write to the same database
+     *
+     * @return The new id (ex: 1251 when the last saved transaction was 1250)
+     * @throws SQLException if the highest id can't be read
+     */
+    private static synchronized long nextTransactionId() throws SQLException {
+        if (lastTransactionId < 0) {
+            String sql = "SELECT MAX(COALESCE((SELECT seq FROM sqlite_sequence WHERE name = 'transactions'), 0), "
+                    + "COALESCE((SELECT MAX(id) FROM transactions), 0))";
+            try (PooledConnection conn = DatabaseManager.read();
+                    ResultSet rs = conn.prepare(sql).executeQuery()) {
+                lastTransactionId = rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+        return ++lastTransactionId;
     }
 
     /**
      * Saves a transaction to the database
+     * The transaction gets its id right away; the row itself may be saved a moment later
      * 
      * @param transaction The transaction to save
      * @throws SQLException if database operation fails
@@ -226,24 +330,28 @@ public class PortfolioDAO {
      *                      Example: dao.saveTransaction(buyTransaction);
      */
     public void saveTransaction(Transaction transaction) throws SQLException {
-        String sql = "INSERT INTO transactions (symbol, type, quantity, price) VALUES (?, ?, ?, ?)";
-
-        Connection conn = DatabaseManager.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(sql);
-
-        pstmt.setString(1, transaction.getSymbol());
-        pstmt.setString(2, transaction.getType());
-        pstmt.setInt(3, transaction.getQuantity());
-        pstmt.setDouble(4, transaction.getPrice());
-
-        pstmt.executeUpdate();
-        System.out.println("✅ Transaction saved: " + transaction.getType() + " " + transaction.getSymbol());
-
-        pstmt.close();
+        String sql = "INSERT INTO transactions (id, symbol, type, quantity, price, cost_basis, currency, timestamp) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+        // The id is handed out here, on the caller's thread, before the row is queued - so the
+        // transaction has its final id (the same one it has after a reload) before anyone sees it
+        transaction.setId(nextTransactionId());
+        write(new WriteBehindQueue.Write(transaction.getType() + " " + transaction.getSymbol())
+                .add(sql,
+                        transaction.getId(),
+                        transaction.getSymbol(),
+                        transaction.getType(),
+                        transaction.getQuantity(),
+                        transaction.getPrice(),
+                        transaction.isCostBasisKnown() ? transaction.getCostBasis() : null,
+                        transaction.getCurrency(),
+                        toStoredTime(transaction.getTimestamp())));
     }
 
     /**
      * Loads all transactions from the database
+     * Reads the whole history into memory - for long histories use
+     * loadTransactionsPage instead
      * 
      * @return List of all transactions
      * @throws SQLException if database operation fails
@@ -251,31 +359,232 @@ public class PortfolioDAO {
      *                      Example: List<Transaction> history =
      *                      dao.loadAllTransactions();
      */
+    @Override
     public List<Transaction> loadAllTransactions() throws SQLException {
         List<Transaction> transactions = new ArrayList<>();
 
-        String sql = "SELECT * FROM transactions ORDER BY timestamp DESC"; // ORDER BY sorts by date, newest first
-
-        Connection conn = DatabaseManager.getConnection();
-        Statement stmt = conn.createStatement();
-        ResultSet rs = stmt.executeQuery(sql);
+        // ORDER BY sorts by date, newest first (id breaks ties within the same second)
+        String sql = "SELECT * FROM transactions ORDER BY timestamp DESC, id DESC";
 
-        while (rs.next()) {
-            String symbol = rs.getString("symbol");
-            String type = rs.getString("type");
-            int quantity = rs.getInt("quantity");
-            double price = rs.getDouble("price");
+        // Wait for queued changes, so we read our own writes
+        DatabaseManager.getWriteQueue().flush();
 
-            // Create transaction object
-            Transaction transaction = new Transaction(symbol, type, quantity, price);
-            transactions.add(transaction);
+        try (PooledConnection conn = DatabaseManager.read();
+                ResultSet rs = conn.prepare(sql).executeQuery()) {
+            while (rs.next()) {
+                transactions.add(readTransaction(rs));
+            }
         }
 
         System.out.println("✅ Loaded " + transactions.size() + " transactions from database");
 
-        rs.close();
-        stmt.close();
+        return transactions;
+    }
 
+    /**
+     * Loads one page of transactions, newest first
+     * Starts right after the given page, so nothing is skipped or shown twice even
+     * if new transactions are saved in between (they are newer, so they land before
+     * the first page, not in the middle).
+     * 
+     * @param after The page before this one, or null for the newest transactions
+     * @param limit Most transactions to return (ex: 100)
+     * @return The page - ask it hasMore() to know if there are older ones
+     * @throws SQLException if database operation fails
+     * 
+     *                      Example: TransactionPage next =
+     *                      dao.loadTransactionsPage(previous, 100);
+     */
+    @Override
+    public TransactionPage loadTransactionsPage(TransactionPage after, int limit) throws SQLException {
+        // One extra row tells us whether another page exists
+        String first = "SELECT * FROM transactions ORDER BY timestamp DESC, id DESC LIMIT ?";
+        // (timestamp, id) < (?, ?) compares both at once, like words in a dictionary - SQLite
+        // walks idx_transactions_time backwards from that spot (the index already ends with the id)
+        String next = "SELECT * FROM transactions WHERE (timestamp, id) < (?, ?) "
+                + "ORDER BY timestamp DESC, id DESC LIMIT ?";
+
+        if (after != null && !after.hasMore()) {
+            return new TransactionPage(new ArrayList<>(), after.getLastTimestamp(), after.getLastId(), false);
+        }
+
+        DatabaseManager.getWriteQueue().flush(); // Read our own writes
+
+        List<Transaction> transactions = new ArrayList<>();
+        String lastTimestamp = after != null ? after.getLastTimestamp() : null;
+        long lastId = after != null ? after.getLastId() : 0;
+        boolean hasMore = false;
+
+        try (PooledConnection conn = DatabaseManager.read()) {
+            PreparedStatement pstmt;
+            if (after == null) {
+                pstmt = conn.prepare(first);
+                pstmt.setInt(1, limit + 1);
+            } else {
+                pstmt = conn.prepare(next);
+                pstmt.setString(1, after.getLastTimestamp());
+                pstmt.setLong(2, after.getLastId());
+                pstmt.setInt(3, limit + 1);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (transactions.size() == limit) {
+                        hasMore = true; // The extra row - not part of this page
+                        break;
+                    }
+                    transactions.add(readTransaction(rs));
+                    lastTimestamp = rs.getString("timestamp");
+                    lastId = rs.getLong("id");
+                }
+            }
+        }
+        return new TransactionPage(transactions, lastTimestamp, lastId, hasMore);
+    }
+
+    /**
+     * Counts the saved transactions
+     * 
+     * @return How many transactions the database has
+     * @throws SQLException if database operation fails
+     */
+    @Override
+    public int countTransactions() throws SQLException {
+        DatabaseManager.getWriteQueue().flush(); // Count our own writes too
+
+        try (PooledConnection conn = DatabaseManager.read();
+                ResultSet rs = conn.prepare("SELECT COUNT(*) FROM transactions").executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Adds up the realized profit/loss of every sale, per currency
+     * The database does the sum, so the history never has to be loaded.
+     * Sales saved before cost basis was recorded (cost_basis NULL) are left out -
+     * counting them would book the whole sale price as profit.
+     * 
+     * @return Currency -> realized profit/loss in that currency (ex: {"USD"=350.0})
+     * @throws SQLException if database operation fails
+     */
+    public Map<String, Double> loadRealizedProfitLoss() throws SQLException {
+        Map<String, Double> realized = new LinkedHashMap<>();
+        String sql = "SELECT currency, SUM((price - cost_basis) * quantity) AS realized "
+                + "FROM transactions WHERE type = 'SELL' AND cost_basis IS NOT NULL GROUP BY currency";
+
+        DatabaseManager.getWriteQueue().flush();
+
+        try (PooledConnection conn = DatabaseManager.read();
+                ResultSet rs = conn.prepare(sql).executeQuery()) {
+            while (rs.next()) {
+                String currency = rs.getString("currency");
+                realized.put(currency != null ? currency : "USD", rs.getDouble("realized"));
+            }
+        }
+        return realized;
+    }
+
+    /**
+     * Loads the transactions from one moment up to (not including) another, oldest first
+     * Reads only that slice of idx_transactions_time, however long the history is
+     * 
+     * @param from First moment to include (your local time)
+     * @param to   Moment to stop at, not included (your local time)
+     * @return The transactions in that window, oldest first
+     * @throws SQLException if database operation fails
+     * 
+     *                      Example: List<Transaction> january = dao.loadTransactionsBetween(
+     *                      LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0));
+     */
+    @Override
+    public List<Transaction> loadTransactionsBetween(LocalDateTime from, LocalDateTime to) throws SQLException {
+        return loadTransactionsInRange(
+                "SELECT * FROM transactions WHERE timestamp >= ? AND timestamp < ? ORDER BY timestamp, id",
+                toStoredTime(from), toStoredTime(to));
+    }
+
+    /**
+     * Loads the transactions from one moment until now, oldest first
+     * 
+     * @param from First moment to include (your local time)
+     * @return The transactions since then, oldest first
+     * @throws SQLException if database operation fails
+     * 
+     *                      Example: dao.loadTransactionsSince(LocalDateTime.of(2024, 1, 1, 0, 0))
+     */
+    @Override
+    public List<Transaction> loadTransactionsSince(LocalDateTime from) throws SQLException {
+        return loadTransactionsInRange(
+                "SELECT * FROM transactions WHERE timestamp >= ? ORDER BY timestamp, id",
+                toStoredTime(from));
+    }
+
+    /**
+     * Loads the transactions of the last few days, oldest first
+     * 
+     * @param days How many days back (ex: 30 for the last month)
+     * @return The transactions since this time "days" days ago, oldest first
+     * @throws SQLException if database operation fails
+     * 
+     *                      Example: dao.loadTransactionsForLastDays(30)
+     */
+    public List<Transaction> loadTransactionsForLastDays(int days) throws SQLException {
+        return loadTransactionsSince(LocalDateTime.now().minusDays(days));
+    }
+
+    private List<Transaction> loadTransactionsInRange(String sql, String... bounds) throws SQLException {
+        List<Transaction> transactions = new ArrayList<>();
+
+        DatabaseManager.getWriteQueue().flush(); // Read our own writes
+
+        try (PooledConnection conn = DatabaseManager.read()) {
+            PreparedStatement pstmt = conn.prepare(sql);
+            for (int i = 0; i < bounds.length; i++) {
+                pstmt.setString(i + 1, bounds[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    transactions.add(readTransaction(rs));
+                }
+            }
+        }
         return transactions;
     }
+
+    // Local time -> stored UTC text
+    // Example: 2024-01-15 10:30 in India -> "2024-01-15 05:00:00"
+    static String toStoredTime(LocalDateTime time) {
+        LocalDateTime utc = time.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC)
+                .toLocalDateTime();
+        return utc.getNano() / 1_000_000 == 0 ? SECONDS.format(utc) : MILLIS.format(utc);
+    }
+
+    // Stored UTC text -> local time (the other way round from toStoredTime)
+    static LocalDateTime fromStoredTime(String stored) throws SQLException {
+        if (stored == null) {
+            throw new SQLException("Transaction has no timestamp");
+        }
+        try {
+            return LocalDateTime.parse(stored.trim(), STORED).atZone(ZoneOffset.UTC)
+                    .withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } catch (DateTimeParseException e) {
+            throw new SQLException("Unreadable transaction timestamp: " + stored, e);
+        }
+    }
+
+    // Builds a Transaction from the current row, with its id and the time it was saved
+    private static Transaction readTransaction(ResultSet rs) throws SQLException {
+        String symbol = rs.getString("symbol");
+        String type = rs.getString("type");
+        int quantity = rs.getInt("quantity");
+        double price = rs.getDouble("price");
+        LocalDateTime timestamp = fromStoredTime(rs.getString("timestamp"));
+
+        // Create transaction object
+        Transaction transaction = new Transaction(symbol, type, quantity, price, timestamp);
+        transaction.setId(rs.getLong("id"));
+        double costBasis = rs.getDouble("cost_basis");
+        transaction.setCostBasis(rs.wasNull() ? Double.NaN : costBasis); // NULL = old sale, cost unknown
+        transaction.setCurrency(rs.getString("currency"));
+        return transaction;
+    }
 }
@@ -0,0 +1,238 @@
+package com.portfolio.database; // Database package
+
+import java.sql.*; // Import SQL classes
+import java.util.ArrayList; // Import ArrayList
+import java.util.List; // Import List interface
+
+/**
+ * SchemaMigrations - Brings the database tables up to date, one numbered step at a time
+ * The schema_version table remembers which steps already ran. At startup only the
+ * steps with a higher number run, each in its own transaction (all or nothing).
+ * Once a database is up to date, startup only reads one number - no CREATE or ALTER.
+ *
+ * To change the schema, add a new step at the end of MIGRATIONS with the next number.
+ * Never edit or renumber a step that has shipped - databases out there already ran it.
+ *
+ * Example:
+ *   new Migration(7, "Add notes to transactions",
+ *           addColumn("transactions", "notes", "TEXT"))
+ */
+public final class SchemaMigrations {
+
+    /**
+     * Every schema change, oldest first
+     * Steps 1-5 rebuild what the app used to create with CREATE IF NOT EXISTS and
+     * ALTER TABLE on every start. addColumn() checks first, because databases from
+     * before schema_version may already have some of those columns.
+     */
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Create portfolio_items and transactions",
+                    sql("CREATE TABLE IF NOT EXISTS portfolio_items (" +
+                            "    id INTEGER PRIMARY KEY AUTOINCREMENT," + // Auto-incrementing ID (1, 2, 3...)
+                            "    symbol TEXT NOT NULL," + // Stock symbol (ex: "AAPL")
+                            "    name TEXT NOT NULL," + // Company name (ex: "Apple Inc.")
+                            "    quantity INTEGER NOT NULL," + // Number of shares (ex: 10)
+                            "    purchase_price REAL NOT NULL," + // Price you paid per share (ex: 150.00)
+                            "    current_price REAL NOT NULL," + // Current price per share (ex: 278.12)
+                            "    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" + // When you bought it
+                            ")"),
+                    sql("CREATE TABLE IF NOT EXISTS transactions (" +
+                            "    id INTEGER PRIMARY KEY AUTOINCREMENT," + // Auto-incrementing ID
+                            "    symbol TEXT NOT NULL," + // Stock symbol
+                            "    type TEXT NOT NULL," + // "BUY" or "SELL"
+                            "    quantity INTEGER NOT NULL," + // Number of shares
+                            "    price REAL NOT NULL," + // Price per share
+                            "    timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP" + // When transaction happened
+                            ")")),
+
+            new Migration(2, "Add currency, sector, market cap and risk level to portfolio_items",
+                    addColumn("portfolio_items", "original_currency", "TEXT DEFAULT 'USD'"),
+                    addColumn("portfolio_items", "sector", "TEXT"), // Healthcare, IT, etc.
+                    addColumn("portfolio_items", "market_cap", "TEXT"), // Small, Mid, Large
+                    addColumn("portfolio_items", "risk_level", "TEXT")), // Low, Med, High
+
+            new Migration(3, "Create daily_bars for downloaded price history",
+                    sql("CREATE TABLE IF NOT EXISTS daily_bars (" +
+                            "    symbol TEXT NOT NULL," + // Stock symbol (upper case)
+                            "    trade_date TEXT NOT NULL," + // Trading day as "2024-11-29"
+                            "    open REAL NOT NULL," +
+                            "    high REAL NOT NULL," +
+                            "    low REAL NOT NULL," +
+                            "    close REAL NOT NULL," +
+                            "    volume INTEGER NOT NULL," +
+                            "    PRIMARY KEY (symbol, trade_date)" + // One bar per stock per day
+                            ")")),
+
+            // No defaults: rows from before this step stay NULL = unknown. A default of 0 would make
+            // every old sale count its whole price as profit, and 'USD' was wrong for INR trades
+            new Migration(4, "Add cost basis and currency to transactions",
+                    addColumn("transactions", "cost_basis", "REAL"), // SELL only: cost per share sold
+                    addColumn("transactions", "currency", "TEXT")), // Currency of the price
+
+            new Migration(5, "Index symbol and timestamp",
+                    // Lots of one stock, oldest first (price updates, sales)
+                    sql("CREATE INDEX IF NOT EXISTS idx_portfolio_items_symbol ON portfolio_items (symbol, id)"),
+                    // History newest first (the transactions table on screen)
+                    sql("CREATE INDEX IF NOT EXISTS idx_transactions_time ON transactions (timestamp)"),
+                    // History of one stock by date
+                    sql("CREATE INDEX IF NOT EXISTS idx_transactions_symbol_time ON transactions (symbol, timestamp)")),
+
+            new Migration(6, "Compact price history: symbols, price_ticks and integer daily_bars",
+                    // Each symbol's text is stored once; history rows use its small number instead
+                    sql("CREATE TABLE IF NOT EXISTS symbols (" +
+                            "    id INTEGER PRIMARY KEY," + // 1, 2, 3...
+                            "    symbol TEXT NOT NULL UNIQUE" + // "AAPL"
+                            ")"),
+                    // One row per price refresh. Prices are whole numbers of 1/10,000 (ex: 237.33 -> 2373300),
+                    // which SQLite stores in 3-4 bytes instead of 8. WITHOUT ROWID keeps the rows inside
+                    // the primary key's tree, sorted by stock then time, so a date range is one short scan
+                    sql("CREATE TABLE IF NOT EXISTS price_ticks (" +
+                            "    symbol_id INTEGER NOT NULL," + // symbols.id
+                            "    epoch INTEGER NOT NULL," + // Seconds since 1970-01-01 UTC
+                            "    price INTEGER NOT NULL," + // Price x 10,000
+                            "    PRIMARY KEY (symbol_id, epoch)" +
+                            ") WITHOUT ROWID"),
+                    // daily_bars gets the same treatment: copy the bars over, then swap the tables
+                    sql("INSERT OR IGNORE INTO symbols (symbol) SELECT DISTINCT symbol FROM daily_bars"),
+                    sql("CREATE TABLE daily_bars_compact (" +
+                            "    symbol_id INTEGER NOT NULL," + // symbols.id
+                            "    day INTEGER NOT NULL," + // Days since 1970-01-01 (ex: 2024-11-29 -> 20056)
+                            "    open INTEGER NOT NULL," + // Prices x 10,000
+                            "    high INTEGER NOT NULL," +
+                            "    low INTEGER NOT NULL," +
+                            "    close INTEGER NOT NULL," +
+                            "    volume INTEGER NOT NULL," +
+                            "    PRIMARY KEY (symbol_id, day)" + // One bar per stock per day
+                            ") WITHOUT ROWID"),
+                    sql("INSERT INTO daily_bars_compact (symbol_id, day, open, high, low, close, volume) " +
+                            "SELECT s.id, CAST(julianday(b.trade_date) - 2440587.5 AS INTEGER), " + // Julian day of 1970-01-01
+                            "CAST(ROUND(b.open * 10000) AS INTEGER), CAST(ROUND(b.high * 10000) AS INTEGER), " +
+                            "CAST(ROUND(b.low * 10000) AS INTEGER), CAST(ROUND(b.close * 10000) AS INTEGER), b.volume " +
+                            "FROM daily_bars b JOIN symbols s ON s.symbol = b.symbol"),
+                    sql("DROP TABLE daily_bars"),
+                    sql("ALTER TABLE daily_bars_compact RENAME TO daily_bars")));
+
+    private SchemaMigrations() {
+        // Only static helpers
+    }
+
+    /**
+     * Runs every step the database hasn't had yet
+     *
+     * @param conn The writer connection
+     * @return How many steps ran (0 when the database was already up to date)
+     * @throws SQLException if a step fails - that step is rolled back and later ones don't run
+     */
+    static int migrate(Connection conn) throws SQLException {
+        int current = currentVersion(conn);
+        int applied = 0;
+
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version <= current) {
+                continue; // Already done
+            }
+
+            boolean oldAutoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false); // One transaction per step
+            try {
+                for (Step step : migration.steps) {
+                    step.apply(conn);
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+                    pstmt.setInt(1, migration.version);
+                    pstmt.setString(2, migration.description);
+                    pstmt.executeUpdate();
+                }
+                conn.commit();
+                applied++;
+                System.out.println("✅ Database upgraded to version " + migration.version + ": "
+                        + migration.description);
+            } catch (SQLException e) {
+                conn.rollback(); // Undo this step only - earlier steps stay done
+                throw new SQLException("Database upgrade to version " + migration.version + " ("
+                        + migration.description + ") failed: " + e.getMessage(), e);
+            } finally {
+                conn.setAutoCommit(oldAutoCommit);
+            }
+        }
+        return applied;
+    }
+
+    // The newest step this database has had (0 for a brand new database)
+    // Creates schema_version the very first time - the only DDL outside the numbered steps
+    private static int currentVersion(Connection conn) throws SQLException {
+        boolean exists;
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'schema_version'");
+                ResultSet rs = pstmt.executeQuery()) {
+            exists = rs.next();
+        }
+
+        if (!exists) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE schema_version (" +
+                        "    version INTEGER PRIMARY KEY," + // Step number
+                        "    description TEXT NOT NULL," + // What the step did
+                        "    applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" + // When it ran here
+                        ")");
+            }
+            return 0;
+        }
+
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0; // MAX of no rows is NULL -> 0
+        }
+    }
+
+    // Newest step number the app knows about
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    // A step that runs one SQL statement
+    private static Step sql(String sql) {
+        return conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(sql);
+            }
+        };
+    }
+
+    // A step that adds a column, unless the table already has it
+    // Example: addColumn("transactions", "notes", "TEXT")
+    private static Step addColumn(String table, String column, String definition) {
+        return conn -> {
+            try (Statement stmt = conn.createStatement();
+                    ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+                while (rs.next()) {
+                    if (column.equalsIgnoreCase(rs.getString("name"))) {
+                        return; // Added by an older version of the app
+                    }
+                }
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+            }
+        };
+    }
+
+    // One piece of a migration
+    private interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    // One numbered schema change
+    private static final class Migration {
+        final int version;
+        final String description;
+        final List<Step> steps;
+
+        Migration(int version, String description, Step... steps) {
+            this.version = version;
+            this.description = description;
+            this.steps = new ArrayList<>(List.of(steps));
+        }
+    }
+}
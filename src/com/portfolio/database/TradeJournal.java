@@ -0,0 +1,590 @@
+package com.portfolio.database; // Database package
+
+import com.portfolio.model.PortfolioItem; // Import PortfolioItem class (one lot)
+import com.portfolio.model.Stock; // Import Stock class
+import com.portfolio.model.Transaction; // Import Transaction class
+import java.io.BufferedInputStream; // Buffered reads for the checkpoint file
+import java.io.BufferedOutputStream; // Buffered writes for the checkpoint file
+import java.io.DataInputStream; // Reads numbers and text from the checkpoint file
+import java.io.DataOutputStream; // Writes numbers and text to the checkpoint file
+import java.io.IOException; // Thrown when a file can't be read or written
+import java.nio.ByteBuffer; // One record while it is being built or read
+import java.nio.MappedByteBuffer; // The journal file, mapped into memory
+import java.nio.channels.FileChannel; // Opens and maps the journal file
+import java.nio.charset.StandardCharsets; // Symbols and names are stored as UTF-8
+import java.nio.file.Files; // Creates folders, moves the checkpoint into place
+import java.nio.file.Path; // File locations
+import java.nio.file.StandardCopyOption; // Replace the old checkpoint in one step
+import java.nio.file.StandardOpenOption; // How the journal file is opened
+import java.sql.SQLException; // TransactionHistory reports read problems this way
+import java.time.Instant; // Converts stored milliseconds back to a time
+import java.time.LocalDateTime; // Transaction times
+import java.time.ZoneId; // Transaction times are local, the journal keeps UTC milliseconds
+import java.util.ArrayList; // Import ArrayList
+import java.util.Arrays; // Import Arrays to grow the chunk list
+import java.util.Collections; // Import Collections for read-only lists
+import java.util.LinkedHashMap; // Import LinkedHashMap to keep currencies in order
+import java.util.List; // Import List interface
+import java.util.Map; // Import Map interface
+import java.util.function.Consumer; // Receives each record during replay
+import java.util.zip.CRC32; // Checksum that spots a half-written record
+
+/**
+ * TradeJournal - Saves buys and sells to an append-only file instead of SQLite
+ * Meant for paper-trading runs that trade thousands of times a second. Each trade is
+ * one 128-byte record written straight into a memory-mapped file: no SQL, no
+ * transaction, no disk sync per trade. The operating system writes the pages out
+ * in the background.
+ *
+ * Every so often the service saves a checkpoint: all lots and realized profit/loss,
+ * plus how many records it covers. Starting up reads the checkpoint and replays
+ * only the records after it, so startup time doesn't grow with the history.
+ *
+ * Files in the journal folder:
+ *   trades.journal      - the records, in 8 MB chunks (record n is at n * 128)
+ *   portfolio.checkpoint - the latest checkpoint, replaced in one step (never half-written)
+ *
+ * A record that was being written when the app crashed fails its checksum and is
+ * dropped. Trades survive the app crashing right away; they survive the computer
+ * crashing once force() has run (done at every checkpoint and on close).
+ *
+ * Example:
+ *   TradeJournal journal = TradeJournal.open(Path.of("paper-run"));
+ *   new PortfolioService(priceService, journal); // Trades now go to the journal
+ */
+public final class TradeJournal implements TransactionHistory {
+    public static final int RECORD_SIZE = 128; // Bytes per trade
+    private static final int RECORDS_PER_CHUNK = 65_536; // 8 MB mapped at a time
+    private static final long CHUNK_BYTES = (long) RECORD_SIZE * RECORDS_PER_CHUNK;
+    private static final int CHECKPOINT_MAGIC = 0x504A4350; // "PJCP"
+    private static final int CHECKPOINT_VERSION = 1;
+
+    // Record types (first byte; 0 means "never written")
+    private static final byte BUY = 1;
+    private static final byte SELL = 2;
+
+    // Where each field sits inside a record
+    private static final int TYPE = 0; // byte: BUY or SELL
+    private static final int METHOD = 1; // byte: SELL only - lot relief method (LotReliefMethod ordinal)
+    private static final int QUANTITY = 4; // int
+    private static final int SEQUENCE = 8; // long: 1, 2, 3... - the transaction id (and a BUY's lot id)
+    private static final int TIME = 16; // long: epoch milliseconds
+    private static final int PRICE = 24; // double
+    private static final int COST_BASIS = 32; // double: SELL only
+    private static final int LOT_ID = 40; // long: SELL only - the lot picked for SPECIFIC_LOT
+    private static final int CURRENCY = 48; // 1 length byte + up to 3 bytes (ex: "USD")
+    private static final int CHECKSUM = 52; // int: CRC32 of the record with this field as 0
+    private static final int SYMBOL = 56; // 1 length byte + up to 23 bytes
+    private static final int SYMBOL_BYTES = 23;
+    private static final int NAME = 80; // BUY only: 1 length byte + up to 47 bytes of the company name
+    private static final int NAME_BYTES = 47;
+
+    private final Path folder;
+    private final Path checkpointFile;
+    private final FileChannel channel;
+    private volatile MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+    private volatile long count; // Records written (readers only look at records below this)
+    private long checkpointCount; // Records covered by the latest checkpoint
+    private volatile boolean closed = false;
+    private final ByteBuffer scratch = ByteBuffer.allocate(RECORD_SIZE); // Reused by append (under "this")
+    private final CRC32 crc = new CRC32();
+
+    private TradeJournal(Path folder, FileChannel channel) {
+        this.folder = folder;
+        this.checkpointFile = folder.resolve("portfolio.checkpoint");
+        this.channel = channel;
+    }
+
+    /**
+     * Opens the journal in a folder, creating it if needed
+     * Finds the end of the journal by checking records after the latest checkpoint
+     *
+     * @param folder Where the journal files live (ex: Path.of("paper-run"))
+     * @return The open journal
+     * @throws IOException if the files can't be opened
+     */
+    public static TradeJournal open(Path folder) throws IOException {
+        Files.createDirectories(folder);
+        FileChannel channel = FileChannel.open(folder.resolve("trades.journal"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        TradeJournal journal = new TradeJournal(folder, channel);
+
+        Checkpoint checkpoint = journal.readCheckpoint();
+        long start = checkpoint != null ? checkpoint.getRecordCount() : 0;
+        journal.checkpointCount = start;
+
+        // Walk forward from the checkpoint to the first record that isn't there (or is torn)
+        long end = start;
+        long mapped = (channel.size() / CHUNK_BYTES) * RECORDS_PER_CHUNK;
+        while (end < mapped && journal.readRecord(end, null)) {
+            end++;
+        }
+        journal.count = end;
+        System.out.println("✅ Trade journal " + folder + ": " + end + " trades, "
+                + (end - start) + " after the checkpoint");
+        return journal;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public Path getFolder() {
+        return folder;
+    }
+
+    // Records written so far
+    public long size() {
+        return count;
+    }
+
+    // Records written since the latest checkpoint (the ones startup would replay)
+    public synchronized long getRecordsSinceCheckpoint() {
+        return count - checkpointCount;
+    }
+
+    /**
+     * Appends a buy
+     *
+     * @param transaction The BUY transaction
+     * @param name        Company name, kept so a replayed lot has it (cut to 47 bytes)
+     * @return The new record's number - use it as the transaction id and the lot id
+     * @throws IOException if the journal file can't grow
+     */
+    public long appendBuy(Transaction transaction, String name) throws IOException {
+        return append(BUY, transaction, name, 0, 0);
+    }
+
+    /**
+     * Appends a sell, with how the lots were chosen so replay makes the same choice
+     *
+     * @param transaction  The SELL transaction (with its cost basis)
+     * @param reliefMethod Ordinal of the LotReliefMethod used
+     * @param lotId        The lot picked for SPECIFIC_LOT (0 otherwise)
+     * @return The new record's number - use it as the transaction id
+     * @throws IOException if the journal file can't grow
+     */
+    public long appendSell(Transaction transaction, int reliefMethod, long lotId) throws IOException {
+        return append(SELL, transaction, null, reliefMethod, lotId);
+    }
+
+    private synchronized long append(byte type, Transaction transaction, String name, int method, long lotId)
+            throws IOException {
+        if (closed) {
+            throw new IOException("Trade journal is closed");
+        }
+        long index = count;
+        long sequence = index + 1;
+
+        ByteBuffer record = scratch;
+        Arrays.fill(record.array(), (byte) 0);
+        record.put(TYPE, type);
+        record.put(METHOD, (byte) method);
+        record.putInt(QUANTITY, transaction.getQuantity());
+        record.putLong(SEQUENCE, sequence);
+        record.putLong(TIME, transaction.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        record.putDouble(PRICE, transaction.getPrice());
+        record.putDouble(COST_BASIS, transaction.getCostBasis());
+        record.putLong(LOT_ID, lotId);
+        if (!putText(record, CURRENCY, 3, transaction.getCurrency(), false)) {
+            throw new IllegalArgumentException("Currency too long for the journal: " + transaction.getCurrency());
+        }
+        if (!putText(record, SYMBOL, SYMBOL_BYTES, transaction.getSymbol(), false)) {
+            throw new IllegalArgumentException("Symbol too long for the journal: " + transaction.getSymbol());
+        }
+        if (name != null) {
+            putText(record, NAME, NAME_BYTES, name, true);
+        }
+        crc.reset();
+        crc.update(record.array(), 0, RECORD_SIZE);
+        record.putInt(CHECKSUM, (int) crc.getValue());
+
+        chunkFor(index, true).put(offsetOf(index), record.array());
+        count = index + 1; // Readers see the record only now that it's complete
+        return sequence;
+    }
+
+    // Writes text as a length byte and UTF-8 bytes; with "cut" too-long text is shortened,
+    // otherwise it returns false
+    private static boolean putText(ByteBuffer record, int at, int maxBytes, String text, boolean cut) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maxBytes) {
+            if (!cut) {
+                return false;
+            }
+            while (bytes.length > maxBytes) { // Drop whole characters until it fits
+                text = text.substring(0, text.length() - 1);
+                bytes = text.getBytes(StandardCharsets.UTF_8);
+            }
+        }
+        record.put(at, (byte) bytes.length);
+        record.put(at + 1, bytes);
+        return true;
+    }
+
+    private static String getText(ByteBuffer record, int at) {
+        int length = record.get(at) & 0xFF;
+        byte[] bytes = new byte[length];
+        record.get(at + 1, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int offsetOf(long index) {
+        return (int) (index % RECORDS_PER_CHUNK) * RECORD_SIZE;
+    }
+
+    // The mapped chunk holding record "index"; maps more of the file when "grow" is set
+    private MappedByteBuffer chunkFor(long index, boolean grow) throws IOException {
+        int chunk = (int) (index / RECORDS_PER_CHUNK);
+        MappedByteBuffer[] mapped = chunks;
+        if (chunk < mapped.length) {
+            return mapped[chunk];
+        }
+        if (!grow && (long) chunk * CHUNK_BYTES >= channel.size()) {
+            return null; // Past the end of the file
+        }
+        synchronized (channel) {
+            mapped = chunks;
+            if (chunk >= mapped.length) {
+                MappedByteBuffer[] more = Arrays.copyOf(mapped, chunk + 1);
+                for (int i = mapped.length; i <= chunk; i++) {
+                    // Mapping past the end makes the file longer (the new part reads as zeros)
+                    more[i] = channel.map(FileChannel.MapMode.READ_WRITE, i * CHUNK_BYTES, CHUNK_BYTES);
+                }
+                chunks = more;
+                mapped = more;
+            }
+            return mapped[chunk];
+        }
+    }
+
+    // Reads record "index" into "into" (when given); false if it's empty or fails its checksum
+    private boolean readRecord(long index, ByteBuffer into) throws IOException {
+        MappedByteBuffer chunk = chunkFor(index, false);
+        if (chunk == null) {
+            return false;
+        }
+        ByteBuffer record = into != null ? into : ByteBuffer.allocate(RECORD_SIZE);
+        chunk.get(offsetOf(index), record.array());
+
+        byte type = record.get(TYPE);
+        if (type != BUY && type != SELL) {
+            return false; // Never written - the end of the journal
+        }
+        int stored = record.getInt(CHECKSUM);
+        record.putInt(CHECKSUM, 0);
+        CRC32 check = new CRC32();
+        check.update(record.array(), 0, RECORD_SIZE);
+        record.putInt(CHECKSUM, stored);
+        if ((int) check.getValue() != stored || record.getLong(SEQUENCE) != index + 1) {
+            System.err.println("⚠️ Trade journal record " + (index + 1) + " is damaged (half-written?) - "
+                    + "ignoring it and everything after it");
+            return false;
+        }
+        return true;
+    }
+
+    // Record "index" as a Transaction (id = sequence number, the time it was traded)
+    private Entry entryAt(long index) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        if (!readRecord(index, record)) {
+            throw new IOException("Trade journal record " + (index + 1) + " can't be read");
+        }
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(record.getLong(TIME)),
+                ZoneId.systemDefault());
+        boolean buy = record.get(TYPE) == BUY;
+        Transaction transaction = new Transaction(getText(record, SYMBOL), buy ? "BUY" : "SELL",
+                record.getInt(QUANTITY), record.getDouble(PRICE), time);
+        transaction.setId(record.getLong(SEQUENCE));
+        transaction.setCostBasis(record.getDouble(COST_BASIS));
+        transaction.setCurrency(getText(record, CURRENCY));
+        return new Entry(transaction, buy ? getText(record, NAME) : null, record.get(METHOD),
+                record.getLong(LOT_ID));
+    }
+
+    /**
+     * Hands every record from "from" to the end to "consumer", oldest first
+     * Startup uses it with the checkpoint's record count to catch up
+     *
+     * @param from     First record to replay (0 = the whole journal)
+     * @param consumer Receives each trade
+     * @throws IOException if a record can't be read
+     */
+    public void replay(long from, Consumer<Entry> consumer) throws IOException {
+        long end = count;
+        for (long i = from; i < end; i++) {
+            consumer.accept(entryAt(i));
+        }
+    }
+
+    // ===== CHECKPOINTS =====
+
+    /**
+     * Saves a checkpoint covering every record written so far
+     * Call it while no trade can be appended (the service holds its write lock), so the
+     * lots and realized totals match the record count exactly
+     *
+     * @param lots     Every lot right now
+     * @param realized Realized profit/loss per currency right now (ex: {"USD"=350.0})
+     * @throws IOException if the checkpoint can't be written (the old one stays)
+     */
+    public synchronized void saveCheckpoint(List<PortfolioItem> lots, Map<String, Double> realized)
+            throws IOException {
+        if (closed) {
+            throw new IOException("Trade journal is closed");
+        }
+        force(); // The records the checkpoint covers must be on disk before it is
+
+        Path temp = folder.resolve("portfolio.checkpoint.tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(CHECKPOINT_MAGIC);
+            out.writeInt(CHECKPOINT_VERSION);
+            out.writeLong(count);
+
+            out.writeInt(realized.size());
+            for (Map.Entry<String, Double> entry : realized.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeDouble(entry.getValue());
+            }
+
+            out.writeInt(lots.size());
+            for (PortfolioItem lot : lots) {
+                Stock stock = lot.getStock();
+                out.writeLong(lot.getId());
+                out.writeUTF(stock.getSymbol());
+                out.writeUTF(stock.getName());
+                out.writeInt(lot.getQuantity());
+                out.writeDouble(lot.getPurchasePrice());
+                out.writeUTF(lot.getOriginalCurrency());
+                out.writeDouble(stock.getCurrentPrice());
+                out.writeUTF(nullToEmpty(stock.getSector()));
+                out.writeUTF(nullToEmpty(stock.getMarketCap()));
+                out.writeUTF(nullToEmpty(stock.getRiskLevel()));
+            }
+        }
+        // Swap it in all at once - a crash leaves either the old checkpoint or the new one
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        checkpointCount = count;
+    }
+
+    /**
+     * Reads the latest checkpoint
+     *
+     * @return The checkpoint, or null if none was saved yet
+     * @throws IOException if the file exists but can't be read
+     */
+    public Checkpoint readCheckpoint() throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(checkpointFile)))) {
+            if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_VERSION) {
+                throw new IOException("Not a portfolio checkpoint: " + checkpointFile);
+            }
+            long records = in.readLong();
+
+            Map<String, Double> realized = new LinkedHashMap<>();
+            int currencies = in.readInt();
+            for (int i = 0; i < currencies; i++) {
+                realized.put(in.readUTF(), in.readDouble());
+            }
+
+            List<PortfolioItem> lots = new ArrayList<>();
+            int lotCount = in.readInt();
+            for (int i = 0; i < lotCount; i++) {
+                long id = in.readLong();
+                Stock stock = new Stock(in.readUTF(), in.readUTF());
+                int quantity = in.readInt();
+                double purchasePrice = in.readDouble();
+                String currency = in.readUTF();
+                stock.setCurrentPrice(in.readDouble());
+                stock.setSector(emptyToNull(in.readUTF()));
+                stock.setMarketCap(emptyToNull(in.readUTF()));
+                stock.setRiskLevel(emptyToNull(in.readUTF()));
+
+                PortfolioItem lot = new PortfolioItem(stock, quantity, purchasePrice, currency);
+                lot.setId(id);
+                lots.add(lot);
+            }
+            return new Checkpoint(records, lots, realized);
+        }
+    }
+
+    private static String nullToEmpty(String text) {
+        return text != null ? text : "";
+    }
+
+    private static String emptyToNull(String text) {
+        return text.isEmpty() ? null : text;
+    }
+
+    // Makes sure every record written so far is on disk (not just in memory)
+    public synchronized void force() {
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+    }
+
+    // Writes everything out and closes the file (a second call does nothing)
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("❌ Error closing trade journal: " + e.getMessage());
+        }
+    }
+
+    // ===== READING THE HISTORY (TransactionHistory) =====
+
+    @Override
+    public List<Transaction> loadAllTransactions() throws SQLException {
+        List<Transaction> transactions = new ArrayList<>();
+        for (long i = count - 1; i >= 0; i--) {
+            transactions.add(read(i));
+        }
+        return transactions;
+    }
+
+    // Records are numbered, so a page is just "the next records down" - no searching
+    @Override
+    public TransactionPage loadTransactionsPage(TransactionPage after, int limit) throws SQLException {
+        long next = after == null ? count - 1 : after.getLastId() - 2; // Id n is record n - 1
+        List<Transaction> transactions = new ArrayList<>();
+        long last = after != null ? after.getLastId() : 0;
+        while (next >= 0 && transactions.size() < limit) {
+            Transaction transaction = read(next);
+            transactions.add(transaction);
+            last = transaction.getId();
+            next--;
+        }
+        return new TransactionPage(transactions, null, last, next >= 0);
+    }
+
+    @Override
+    public int countTransactions() {
+        return (int) Math.min(count, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Transaction> loadTransactionsBetween(LocalDateTime from, LocalDateTime to) throws SQLException {
+        return loadInRange(toMillis(from), to != null ? toMillis(to) : Long.MAX_VALUE);
+    }
+
+    @Override
+    public List<Transaction> loadTransactionsSince(LocalDateTime from) throws SQLException {
+        return loadInRange(toMillis(from), Long.MAX_VALUE);
+    }
+
+    // Records are appended in time order, so the range is found by binary search on the
+    // 8-byte time of each record - O(log n) lookups - and only the matches are read whole
+    // Example: a month out of 1,000,000 trades checks about 40 times, not 1,000,000
+    private List<Transaction> loadInRange(long fromMillis, long toMillis) throws SQLException {
+        List<Transaction> transactions = new ArrayList<>();
+        try {
+            long end = count;
+            long first = firstAtOrAfter(fromMillis, end);
+            long stop = firstAtOrAfter(toMillis, end);
+            for (long i = first; i < stop; i++) {
+                transactions.add(entryAt(i).getTransaction());
+            }
+        } catch (IOException e) {
+            throw new SQLException("Could not read trade journal: " + e.getMessage(), e);
+        }
+        return transactions;
+    }
+
+    // The first of the first "end" records whose time is at or after "millis" ("end" when none is)
+    private long firstAtOrAfter(long millis, long end) throws IOException {
+        long low = 0;
+        long high = end;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (chunkFor(middle, false).getLong(offsetOf(middle) + TIME) < millis) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private Transaction read(long index) throws SQLException {
+        try {
+            return entryAt(index).getTransaction();
+        } catch (IOException e) {
+            throw new SQLException("Could not read trade journal: " + e.getMessage(), e);
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * One trade read back from the journal
+     */
+    public static final class Entry {
+        private final Transaction transaction;
+        private final String name; // BUY only - company name
+        private final int reliefMethod; // SELL only - LotReliefMethod ordinal
+        private final long lotId; // SELL only - the lot picked for SPECIFIC_LOT
+
+        Entry(Transaction transaction, String name, int reliefMethod, long lotId) {
+            this.transaction = transaction;
+            this.name = name;
+            this.reliefMethod = reliefMethod;
+            this.lotId = lotId;
+        }
+
+        public Transaction getTransaction() {
+            return transaction;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getReliefMethod() {
+            return reliefMethod;
+        }
+
+        public long getLotId() {
+            return lotId;
+        }
+    }
+
+    /**
+     * Everything startup needs before replaying: the lots and realized totals
+     * as they were after the first "recordCount" trades
+     */
+    public static final class Checkpoint {
+        private final long recordCount;
+        private final List<PortfolioItem> lots;
+        private final Map<String, Double> realized;
+
+        Checkpoint(long recordCount, List<PortfolioItem> lots, Map<String, Double> realized) {
+            this.recordCount = recordCount;
+            this.lots = Collections.unmodifiableList(lots);
+            this.realized = Collections.unmodifiableMap(realized);
+        }
+
+        public long getRecordCount() {
+            return recordCount;
+        }
+
+        public List<PortfolioItem> getLots() {
+            return lots;
+        }
+
+        public Map<String, Double> getRealized() {
+            return realized;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.portfolio.database; // Database package
+
+import com.portfolio.model.Transaction; // Import Transaction class
+import java.sql.SQLException; // Thrown when the history can't be read
+import java.time.LocalDateTime; // Import LocalDateTime for time windows
+import java.util.List; // Import List interface
+
+/**
+ * TransactionHistory - Somewhere the buy/sell history can be read from
+ * PortfolioDAO reads it from SQLite, TradeJournal from its journal file, so the
+ * transactions screen and reports work the same in both modes.
+ *
+ * Example:
+ *   TransactionHistory history = journal != null ? journal : dao;
+ *   TransactionPage newest = history.loadTransactionsPage(null, 100);
+ */
+public interface TransactionHistory {
+
+    // Every transaction, newest first
+    List<Transaction> loadAllTransactions() throws SQLException;
+
+    // One page, newest first - pass null for the newest page, then the page you got
+    TransactionPage loadTransactionsPage(TransactionPage after, int limit) throws SQLException;
+
+    // How many transactions there are
+    int countTransactions() throws SQLException;
+
+    // From "from" up to (not including) "to", oldest first
+    List<Transaction> loadTransactionsBetween(LocalDateTime from, LocalDateTime to) throws SQLException;
+
+    // From "from" until now, oldest first
+    List<Transaction> loadTransactionsSince(LocalDateTime from) throws SQLException;
+}
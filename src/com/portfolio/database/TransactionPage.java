@@ -0,0 +1,54 @@
+package com.portfolio.database; // Database package
+
+import com.portfolio.model.Transaction; // Import Transaction class
+import java.util.Collections; // Import Collections for a read-only list
+import java.util.List; // Import List interface
+
+/**
+ * TransactionPage - One page of the transaction history, newest first
+ * Also remembers where it stopped (the timestamp and id of its last row), so the
+ * next page starts right after it. This is keyset pagination: the database jumps
+ * straight to the spot with the timestamp index instead of skipping rows like
+ * OFFSET does, so page 5,000 is as quick as page 1.
+ *
+ * Example:
+ *   TransactionPage page = dao.loadTransactionsPage(null, 100); // Newest 100
+ *   while (page.hasMore()) {
+ *       page = dao.loadTransactionsPage(page, 100); // The 100 before those
+ *   }
+ */
+public final class TransactionPage {
+    private final List<Transaction> transactions;
+    private final String lastTimestamp; // Timestamp of the last row, exactly as stored
+    private final long lastId; // Id of the last row - breaks ties between rows saved in the same second
+    private final boolean hasMore; // true when older transactions exist
+
+    TransactionPage(List<Transaction> transactions, String lastTimestamp, long lastId, boolean hasMore) {
+        this.transactions = Collections.unmodifiableList(transactions);
+        this.lastTimestamp = lastTimestamp;
+        this.lastId = lastId;
+        this.hasMore = hasMore;
+    }
+
+    // The transactions on this page, newest first
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    public int size() {
+        return transactions.size();
+    }
+
+    // true if there is at least one older transaction after this page
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    String getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    long getLastId() {
+        return lastId;
+    }
+}
@@ -0,0 +1,377 @@
+package com.portfolio.database; // Database package
+
+import java.sql.*; // Import SQL classes
+import java.util.ArrayList; // Import ArrayList
+import java.util.List; // Import List interface
+import java.util.concurrent.ArrayBlockingQueue; // Import ArrayBlockingQueue - the bounded waiting line
+import java.util.concurrent.BlockingQueue; // Import BlockingQueue interface
+import java.util.concurrent.CountDownLatch; // Lets a caller wait until its write is saved
+import java.util.concurrent.TimeUnit; // Import TimeUnit for waits
+import java.util.function.LongConsumer; // Receives the id of an inserted row
+
+/**
+ * WriteBehindQueue - Collects database changes and saves them in batches
+ * DAOs hand their INSERT/UPDATE/DELETE rows to this queue and return right away.
+ * One background thread ("db-writer") picks them up and saves everything that
+ * arrived in one transaction, either when maxBatchRows rows are waiting or
+ * maxDelayMillis after the first one arrived, whichever comes first.
+ *
+ * A price refresh of 300 symbols then costs one commit (one disk sync) instead of 300.
+ *
+ * - Bounded: at most "capacity" changes wait. When the queue is full, callers wait
+ *   until the writer catches up (backpressure) instead of using more and more memory.
+ * - In order: changes are saved in the order they were submitted. Rows in a row with
+ *   the same SQL are sent as one JDBC batch.
+ * - All or nothing per change: the rows of one Write (ex: all lots touched by one sale)
+ *   are always saved in the same transaction.
+ * - Flushed on shutdown: DatabaseManager registers close() as a JVM shutdown hook.
+ *
+ * Example:
+ *   queue.submit(new WriteBehindQueue.Write("price AAPL")
+ *           .add("UPDATE portfolio_items SET current_price = ? WHERE symbol = ?", 278.12, "AAPL"));
+ *   queue.flush(); // Wait until everything submitted so far is saved
+ */
+public class WriteBehindQueue {
+
+    private final BlockingQueue<Write> queue; // Changes waiting to be saved
+    private final int maxBatchRows; // Save as soon as this many rows are waiting
+    private final long maxDelayMillis; // ...or this long after the first one arrived
+    private final Object writeLock = new Object(); // Only one batch is written at a time
+    private final Thread writer;
+    private volatile boolean closed = false;
+    private volatile long lastFullWarning = 0; // When we last said the queue was full
+
+    /**
+     * Creates the queue and starts its writer thread
+     *
+     * @param capacity       How many changes may wait before submit() blocks (ex: 1000)
+     * @param maxBatchRows   Rows saved per transaction at most (ex: 500)
+     * @param maxDelayMillis How long a change may wait for others to join it (ex: 200)
+     */
+    public WriteBehindQueue(int capacity, int maxBatchRows, long maxDelayMillis) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchRows = maxBatchRows;
+        this.maxDelayMillis = maxDelayMillis;
+        this.writer = new Thread(this::run, "db-writer");
+        this.writer.setDaemon(true); // Don't keep the app alive - the shutdown hook flushes
+        this.writer.start();
+    }
+
+    /**
+     * Queues a change and returns right away
+     * Waits only when the queue is full (backpressure). If the change later fails,
+     * the error is printed - use submitAndWait when the caller needs to know.
+     *
+     * @param write The rows to save
+     */
+    public void submit(Write write) {
+        if (closed) {
+            writeNow(write); // Shutting down - no writer thread any more
+            return;
+        }
+        if (!queue.offer(write)) {
+            long now = System.currentTimeMillis();
+            if (now - lastFullWarning > 10_000) { // Say it once, not for every waiting change
+                lastFullWarning = now;
+                System.err.println("⚠️ Database writes are behind - waiting for the writer to catch up");
+            }
+            try {
+                queue.put(write);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                writeNow(write); // Don't lose the change
+            }
+        }
+        if (closed) {
+            writeLeftovers(); // close() finished while we were adding - save it ourselves
+        }
+    }
+
+    /**
+     * Queues a change and waits until it is saved
+     * It still shares a transaction with whatever else is waiting, but doesn't wait for more.
+     *
+     * @param write The rows to save
+     * @throws SQLException if the change could not be saved
+     */
+    public void submitAndWait(Write write) throws SQLException {
+        write.done = new CountDownLatch(1);
+        submit(write);
+        try {
+            write.done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for " + write.name + " to be saved", e);
+        }
+        if (write.error != null) {
+            throw write.error;
+        }
+    }
+
+    /**
+     * Waits until every change submitted before this call is saved
+     * Call it before reading, so a load sees your own writes
+     *
+     * Example: queue.flush(); List<PortfolioItem> items = ...
+     */
+    public void flush() {
+        try {
+            submitAndWait(new Write("flush")); // Saved after everything ahead of it
+        } catch (SQLException e) {
+            // An empty write can't fail; an interrupt just ends the wait early
+        }
+    }
+
+    /**
+     * Saves everything still waiting and stops the writer thread
+     * Changes submitted after this are saved right away on the caller's thread
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        // Let the writer save what's waiting, but don't hang the app's exit if it is stuck
+        Write marker = new Write("close");
+        marker.done = new CountDownLatch(1);
+        submit(marker);
+        try {
+            if (!marker.done.await(10, TimeUnit.SECONDS)) {
+                System.err.println("⚠️ Database writer is not responding - saving the rest directly");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closed = true;
+        writer.interrupt();
+        try {
+            writer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writeLeftovers(); // Anything that slipped in while closing
+        System.out.println("✅ Database write queue flushed");
+    }
+
+    // Saves whatever is still in the queue, on the caller's thread
+    private void writeLeftovers() {
+        List<Write> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            writeBatch(rest);
+        }
+    }
+
+    // Number of changes waiting to be saved
+    public int size() {
+        return queue.size();
+    }
+
+    // The writer thread: wait for a change, gather more until the batch is full or
+    // the delay has passed, then save them all in one transaction
+    private void run() {
+        while (!closed) {
+            Write first;
+            try {
+                first = queue.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                continue; // close() wakes us up; the loop checks "closed"
+            }
+            if (first == null) {
+                continue;
+            }
+
+            List<Write> batch = new ArrayList<>();
+            batch.add(first);
+            int rows = first.rows.size();
+            long deadline = System.currentTimeMillis() + maxDelayMillis;
+            boolean someoneWaiting = first.done != null;
+
+            while (rows < maxBatchRows && !someoneWaiting) {
+                long wait = deadline - System.currentTimeMillis();
+                Write next;
+                try {
+                    next = wait > 0 ? queue.poll(wait, TimeUnit.MILLISECONDS) : null;
+                } catch (InterruptedException e) {
+                    next = null; // Closing - save what we have
+                }
+                if (next == null) {
+                    break; // Delay is over
+                }
+                batch.add(next);
+                rows += next.rows.size();
+                someoneWaiting = next.done != null;
+            }
+            if (someoneWaiting) {
+                queue.drainTo(batch, Math.max(0, maxBatchRows - rows)); // Take what's already here, don't wait
+            }
+
+            writeBatch(batch);
+        }
+    }
+
+    // Saves one change on the caller's thread
+    private void writeNow(Write write) {
+        List<Write> single = new ArrayList<>();
+        single.add(write);
+        writeBatch(single);
+    }
+
+    // Saves several changes in one transaction
+    // If that fails, each change is tried again in its own transaction, so one bad
+    // row doesn't throw away everyone else's changes
+    private void writeBatch(List<Write> batch) {
+        synchronized (writeLock) {
+            int rows = 0;
+            for (Write write : batch) {
+                rows += write.rows.size();
+            }
+            try {
+                if (rows > 0) { // Only flush markers - nothing to write
+                    writeInTransaction(batch);
+                    System.out.println("✅ Saved " + rows + " database rows (" + batch.size()
+                            + " changes) in one transaction");
+                }
+                for (Write write : batch) {
+                    write.finish(null);
+                }
+            } catch (SQLException batchError) {
+                if (batch.size() == 1) {
+                    fail(batch.get(0), batchError);
+                    return;
+                }
+                for (Write write : batch) {
+                    try {
+                        writeInTransaction(List.of(write));
+                        write.finish(null);
+                    } catch (SQLException e) {
+                        fail(write, e);
+                    }
+                }
+            }
+        }
+    }
+
+    private void fail(Write write, SQLException e) {
+        if (write.done == null) {
+            System.err.println("❌ Could not save " + write.name + " to database: " + e.getMessage());
+        }
+        write.finish(e);
+    }
+
+    // Runs every row in order inside one transaction
+    // Rows in a row with the same SQL go out as one JDBC batch
+    private void writeInTransaction(List<Write> batch) throws SQLException {
+        try (PooledConnection writer = DatabaseManager.write()) {
+            Connection conn = writer.getConnection();
+            boolean oldAutoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false); // Start one transaction for the whole batch
+
+            PreparedStatement pending = null; // Statement with rows added but not yet sent
+            String pendingSql = null;
+            try {
+                for (Write write : batch) {
+                    for (Row row : write.rows) {
+                        PreparedStatement pstmt;
+                        if (pending != null && row.onKey == null && row.sql.equals(pendingSql)) {
+                            pstmt = pending; // Same SQL as the row before - add to its batch
+                        } else {
+                            if (pending != null) {
+                                pending.executeBatch(); // SQL changed - send the rows before this one first
+                                pending = null;
+                            }
+                            // Each SQL is prepared once and then reused from the connection's cache
+                            pstmt = row.onKey != null ? writer.prepareReturningKeys(row.sql) : writer.prepare(row.sql);
+                        }
+
+                        for (int i = 0; i < row.params.length; i++) {
+                            pstmt.setObject(i + 1, row.params[i]);
+                        }
+
+                        if (row.onKey != null) {
+                            // The caller wants the new row's id, so this one runs on its own
+                            pstmt.executeUpdate();
+                            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                                if (keys.next()) {
+                                    row.onKey.accept(keys.getLong(1));
+                                }
+                            }
+                        } else {
+                            pstmt.addBatch();
+                            pending = pstmt;
+                            pendingSql = row.sql;
+                        }
+                    }
+                }
+                if (pending != null) {
+                    pending.executeBatch();
+                }
+                conn.commit(); // Save everything at once
+            } catch (SQLException e) {
+                conn.rollback(); // Undo partial batch
+                throw e;
+            } catch (RuntimeException e) {
+                // Never let a bad row kill the writer thread - report it like any other failure
+                conn.rollback();
+                throw new SQLException("Unexpected error while saving: " + e, e);
+            } finally {
+                conn.setAutoCommit(oldAutoCommit); // Restore normal mode
+            }
+        }
+    }
+
+    /**
+     * Write - One change to save: one or more SQL rows that belong together
+     *
+     * Example:
+     *   new Write("sale of AAPL")
+     *       .add("DELETE FROM portfolio_items WHERE id = ?", 12L)
+     *       .add("UPDATE portfolio_items SET quantity = ? WHERE id = ?", 5, 13L);
+     */
+    public static final class Write {
+        private final String name; // Shown in error messages (ex: "sale of AAPL")
+        private final List<Row> rows = new ArrayList<>();
+        private volatile CountDownLatch done; // Set when someone waits for this write
+        private volatile SQLException error; // Why it failed (null if saved)
+
+        public Write(String name) {
+            this.name = name;
+        }
+
+        // Adds one row - the ? marks are filled with params, in order
+        public Write add(String sql, Object... params) {
+            rows.add(new Row(sql, params, null));
+            return this;
+        }
+
+        // Adds one INSERT row and hands the new row's id to onKey once it is saved
+        // Example: write.addInsert(sql, item::setId, "AAPL", "Apple Inc.", 10, ...)
+        public Write addInsert(String sql, LongConsumer onKey, Object... params) {
+            rows.add(new Row(sql, params, onKey));
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return rows.isEmpty();
+        }
+
+        private void finish(SQLException failure) {
+            error = failure;
+            if (done != null) {
+                done.countDown();
+            }
+        }
+    }
+
+    // One SQL statement with its ? values
+    private static final class Row {
+        final String sql;
+        final Object[] params;
+        final LongConsumer onKey; // null unless the caller wants the generated id
+
+        Row(String sql, Object[] params, LongConsumer onKey) {
+            this.sql = sql;
+            this.params = params;
+            this.onKey = onKey;
+        }
+    }
+}
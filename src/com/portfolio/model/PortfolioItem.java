@@ -8,6 +8,7 @@ public class PortfolioItem {
     private int quantity; // How many shares you own (ex: 10 shares)
     private double purchasePrice; // Price you paid per share (ex: $150)
     private String originalCurrency; // E.g., "USD"
+    private long id; // Database row id of this lot (0 until it is saved)
 
     // Constructor - creates a new portfolio item
     // Example: new PortfolioItem(appleStock, 10, 150.0) means "I own 10 Apple
@@ -52,6 +53,16 @@ public class PortfolioItem {
         return originalCurrency;
     }
 
+    // Getter/Setter - the database row this lot is stored in
+    // Several lots of the same stock share a symbol, so the id is what tells them apart
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
     // Calculates total current value of this holding
     // Example: 10 shares × $278 current price = $2,780
     public double getTotalValue() {
@@ -0,0 +1,78 @@
+package com.portfolio.model; // This file belongs to the "model" folder
+
+import java.time.Instant; // Import Instant for the time of each price
+
+// This class holds a run of prices for one stock, oldest first, as two plain arrays
+// (no object per price), so years of history load and add up quickly
+// Example: closes of AAPL from 2020 to today -> times[i] is the day, prices[i] the close
+public class PriceSeries {
+    private final String symbol; // Stock symbol (ex: "AAPL")
+    private final long[] epochSeconds; // When each price was seen (seconds since 1970-01-01 UTC)
+    private final double[] prices; // The prices, same order as epochSeconds
+
+    // Constructor - the arrays are kept as they are (don't change them afterwards)
+    // Example: new PriceSeries("AAPL", new long[] { 1732838400L }, new double[] { 237.33 })
+    public PriceSeries(String symbol, long[] epochSeconds, double[] prices) {
+        if (epochSeconds.length != prices.length) {
+            throw new IllegalArgumentException("Need one time per price");
+        }
+        this.symbol = symbol;
+        this.epochSeconds = epochSeconds;
+        this.prices = prices;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    // How many prices there are
+    public int size() {
+        return prices.length;
+    }
+
+    public boolean isEmpty() {
+        return prices.length == 0;
+    }
+
+    // Time of the price at "index" (0 = oldest)
+    public Instant getTime(int index) {
+        return Instant.ofEpochSecond(epochSeconds[index]);
+    }
+
+    public long getEpochSecond(int index) {
+        return epochSeconds[index];
+    }
+
+    public double getPrice(int index) {
+        return prices[index];
+    }
+
+    // A copy of all prices, oldest first - ready for TechnicalIndicators
+    public double[] getPrices() {
+        return prices.clone();
+    }
+
+    // How much the price moved from the first to the last, as a fraction
+    // Example: 200 -> 250 returns 0.25 (a 25% gain); 0 if there are fewer than 2 prices
+    public double getReturn() {
+        if (prices.length < 2 || prices[0] == 0) {
+            return 0.0;
+        }
+        return prices[prices.length - 1] / prices[0] - 1;
+    }
+
+    // The biggest fall from a high to a later low, as a fraction (0 = never fell)
+    // Example: 100 -> 120 -> 90 -> 130 returns 0.25 (120 down to 90)
+    public double getMaxDrawdown() {
+        double peak = Double.NEGATIVE_INFINITY;
+        double worst = 0.0;
+        for (double price : prices) {
+            if (price > peak) {
+                peak = price; // New high
+            } else if (peak > 0) {
+                worst = Math.max(worst, (peak - price) / peak);
+            }
+        }
+        return worst;
+    }
+}
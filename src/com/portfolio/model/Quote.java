@@ -0,0 +1,132 @@
+package com.portfolio.model; // This file belongs to the "model" folder
+
+// This class represents one price quote for a stock at a moment in time
+// Example: AAPL was $278.12 (+1.23%) when we asked at 10:30:00
+// A Quote can be reused: a parser may fill the same object again and again
+public class Quote {
+    private String symbol; // Stock symbol (ex: "AAPL")
+    private double price; // Latest price (ex: 278.12)
+    private double changePercent; // Change since previous close (ex: 1.23 means +1.23%)
+    private double change; // Change since previous close in money (ex: 3.38)
+    private double open; // Opening price of the day
+    private double high; // Highest price of the day
+    private double low; // Lowest price of the day
+    private double previousClose; // Yesterday's closing price
+    private long volume; // Shares traded today
+    private long fetchedAtMillis; // When the quote was fetched (System.currentTimeMillis())
+
+    // Constructor - creates an empty quote, to be filled by a parser
+    public Quote() {
+    }
+
+    // Constructor - creates a new quote
+    // Example: new Quote("AAPL", 278.12, 1.23)
+    public Quote(String symbol, double price, double changePercent) {
+        this.symbol = symbol;
+        this.price = price;
+        this.changePercent = changePercent;
+        this.fetchedAtMillis = System.currentTimeMillis(); // Record when we got it
+    }
+
+    // Clears every field so the object can be filled again
+    public void reset() {
+        symbol = null;
+        price = changePercent = change = open = high = low = previousClose = 0;
+        volume = 0;
+        fetchedAtMillis = 0;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
+    public double getChangePercent() {
+        return changePercent;
+    }
+
+    public void setChangePercent(double changePercent) {
+        this.changePercent = changePercent;
+    }
+
+    public double getChange() {
+        return change;
+    }
+
+    public void setChange(double change) {
+        this.change = change;
+    }
+
+    public double getOpen() {
+        return open;
+    }
+
+    public void setOpen(double open) {
+        this.open = open;
+    }
+
+    public double getHigh() {
+        return high;
+    }
+
+    public void setHigh(double high) {
+        this.high = high;
+    }
+
+    public double getLow() {
+        return low;
+    }
+
+    public void setLow(double low) {
+        this.low = low;
+    }
+
+    public double getPreviousClose() {
+        return previousClose;
+    }
+
+    public void setPreviousClose(double previousClose) {
+        this.previousClose = previousClose;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    public void setVolume(long volume) {
+        this.volume = volume;
+    }
+
+    public long getFetchedAtMillis() {
+        return fetchedAtMillis;
+    }
+
+    public void setFetchedAtMillis(long fetchedAtMillis) {
+        this.fetchedAtMillis = fetchedAtMillis;
+    }
+
+    // Copies this quote's price and change onto a Stock
+    // Example: quote.applyTo(appleStock) sets Apple's price to 278.12 and change to +1.23%
+    public void applyTo(Stock stock) {
+        stock.setCurrentPrice(price);
+        stock.setChangePercent(changePercent);
+    }
+
+    // Override toString - formats the quote for display
+    // Example: "AAPL @ 278.12 (+1.23%)"
+    @Override
+    public String toString() {
+        return symbol + " @ " + price + " (" + String.format("%+.2f", changePercent) + "%)";
+    }
+}
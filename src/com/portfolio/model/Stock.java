@@ -18,6 +18,17 @@ public class Stock {
         this.name = name; // Store the name (ex: "Apple Inc.")
     }
 
+    // Copy constructor - a new Stock with the same details
+    // Example: new Stock(apple) to give it a new price without touching the old one
+    public Stock(Stock other) {
+        this(other.symbol, other.name);
+        this.currentPrice = other.currentPrice;
+        this.changePercent = other.changePercent;
+        this.sector = other.sector;
+        this.marketCap = other.marketCap;
+        this.riskLevel = other.riskLevel;
+    }
+
     // Getter method - returns the stock symbol
     // Example: stock.getSymbol() returns "AAPL"
     public String getSymbol() {
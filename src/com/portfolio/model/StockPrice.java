@@ -0,0 +1,57 @@
+package com.portfolio.model; // This file belongs to the "model" folder
+
+import java.time.LocalDate; // Import LocalDate for the trading day
+
+// This class represents one day of trading for a stock (one "bar" on a chart)
+// Example: On 2024-11-29 AAPL opened at $234.81, went as high as $237.81,
+// as low as $233.97, closed at $237.33 and 28 million shares were traded
+public class StockPrice {
+    private LocalDate date; // Trading day (ex: 2024-11-29)
+    private double open; // First price of the day
+    private double high; // Highest price of the day
+    private double low; // Lowest price of the day
+    private double close; // Last price of the day
+    private long volume; // Shares traded that day
+
+    // Constructor - creates a new daily bar
+    // Example: new StockPrice(LocalDate.of(2024, 11, 29), 234.81, 237.81, 233.97, 237.33, 28481377)
+    public StockPrice(LocalDate date, double open, double high, double low, double close, long volume) {
+        this.date = date;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public double getOpen() {
+        return open;
+    }
+
+    public double getHigh() {
+        return high;
+    }
+
+    public double getLow() {
+        return low;
+    }
+
+    public double getClose() {
+        return close;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    // Override toString - formats the bar for display
+    // Example: "2024-11-29 O:234.81 H:237.81 L:233.97 C:237.33 V:28481377"
+    @Override
+    public String toString() {
+        return date + " O:" + open + " H:" + high + " L:" + low + " C:" + close + " V:" + volume;
+    }
+}
@@ -1,16 +1,20 @@
 package com.portfolio.model; // This file belongs to the "model" folder
 
 import java.time.LocalDateTime;  // Import Java's date/time class to record when transactions happen
+import java.time.temporal.ChronoUnit; // Import ChronoUnit to trim the time to milliseconds
 
 // This class represents a buy or sell transaction
 // Example: "Bought 10 shares of Apple at $150 on Jan 15, 2024"
 public class Transaction {
     // Private variables - the transaction details
+    private long id;                    // Database ID (0 until loaded from the database)
     private String symbol;              // Stock symbol (ex: "AAPL")
     private String type;                // Transaction type: "BUY" or "SELL"
     private int quantity;               // How many shares (ex: 10)
     private double price;               // Price per share (ex: $150)
     private LocalDateTime timestamp;    // When this happened (ex: 2024-01-15 10:30:00)
+    private double costBasis;           // SELL only: what the sold shares cost per share (ex: $125)
+    private String currency = "USD";    // Currency of the price (same as the lot's)
 
     // Constructor - creates a new transaction record
     // Example: new Transaction("AAPL", "BUY", 10, 150.0) means "Bought 10 Apple shares at $150"
@@ -19,7 +23,25 @@ public class Transaction {
         this.type = type;               // Store type (ex: "BUY")
         this.quantity = quantity;       // Store quantity (ex: 10)
         this.price = price;             // Store price (ex: $150)
-        this.timestamp = LocalDateTime.now();  // Record current date/time automatically
+        // Record current date/time automatically (to the millisecond - what the database keeps)
+        this.timestamp = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    // Constructor - rebuilds a saved transaction with the date/time it really happened
+    // Example: new Transaction("AAPL", "BUY", 10, 150.0, LocalDateTime.of(2024, 1, 15, 10, 30))
+    public Transaction(String symbol, String type, int quantity, double price, LocalDateTime timestamp) {
+        this(symbol, type, quantity, price);
+        this.timestamp = timestamp;
+    }
+
+    // Getter/Setter - the row id in the transactions table
+    // Example: transaction.getId() returns 42
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
     }
 
     // Getter - returns the stock symbol
@@ -52,6 +74,36 @@ public class Transaction {
         return timestamp;  // Return the date/time
     }
 
+    // Getter/Setter - what the sold shares cost you per share (0 for a BUY)
+    // Example: sold 10 @ $160 that were bought @ $125 -> costBasis is 125.0
+    // NaN for sales saved before cost basis was recorded - nobody knows what they cost
+    public double getCostBasis() {
+        return costBasis;
+    }
+
+    // false for an old sale whose cost basis was never saved (its realized profit/loss is unknown)
+    public boolean isCostBasisKnown() {
+        return !Double.isNaN(costBasis);
+    }
+
+    public void setCostBasis(double costBasis) {
+        this.costBasis = costBasis;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency != null ? currency : "USD";
+    }
+
+    // Calculates the profit or loss this sale locked in (0 for a BUY, or a sale with unknown cost)
+    // Example: (Sold at $160 - Cost $125) x 10 shares = $350 realized profit
+    public double getRealizedProfitLoss() {
+        return "SELL".equals(type) && isCostBasisKnown() ? (price - costBasis) * quantity : 0.0;
+    }
+
     // Override toString - formats the transaction for display
     // Example: "BUY 10 AAPL @ $150.0 on 2024-01-15T10:30:00"
     @Override
@@ -1,10 +1,19 @@
 package com.portfolio.service; // This file belongs to the "service" folder
 
+import com.portfolio.model.Quote; // Import Quote class
 import com.portfolio.model.Stock; // Import Stock class
+import com.portfolio.model.StockPrice; // Import StockPrice class (one day of history)
+import org.json.JSONObject; // Import JSON object handling (for history responses)
+import java.io.InputStream; // The response body as a stream of bytes
 import java.net.URI; // Import URI class for web addresses
 import java.net.http.HttpClient; // Import HttpClient to make web requests
 import java.net.http.HttpRequest; // Import HttpRequest to build requests
 import java.net.http.HttpResponse; // Import HttpResponse to handle responses
+import java.time.LocalDate; // Import LocalDate for trading days
+import java.util.ArrayList; // Import ArrayList
+import java.util.List; // Import List interface
+import java.util.concurrent.CompletableFuture; // A result that arrives later
+import java.util.concurrent.CompletionException; // Wraps errors inside a CompletableFuture
 
 // This class gets real stock prices from Alpha Vantage website
 // It IMPLEMENTS StockPriceService, meaning it must have the methods from that interface
@@ -13,6 +22,9 @@ public class AlphaVantageService implements StockPriceService {
     private static final String API_KEY = "M60K5JGJIO11K5QS"; // Your personal API key to access Alpha Vantage
     private static final String BASE_URL = "https://www.alphavantage.co/query"; // The website address for API
 
+    // One quote parser per thread - parsers reuse their buffers, so they can't be shared
+    private static final ThreadLocal<GlobalQuoteParser> PARSER = ThreadLocal.withInitial(GlobalQuoteParser::new);
+
     private final HttpClient httpClient; // Tool to make web requests (like a web browser)
 
     // Constructor - runs when you create new AlphaVantageService()
@@ -24,32 +36,8 @@ public class AlphaVantageService implements StockPriceService {
     // Example: getCurrentPrice("AAPL") returns 278.12
     @Override
     public double getCurrentPrice(String symbol) throws Exception {
-        // Build the complete web address (URL) to request
-        // Example:
-        // "https://www.alphavantage.co/query?function=GLOBAL_QUOTE&symbol=AAPL&apikey=M60K5JGJIO11K5QS"
-        String url = String.format("%s?function=GLOBAL_QUOTE&symbol=%s&apikey=%s",
-                BASE_URL, symbol, API_KEY);
-
         System.out.println("📡 Fetching price for " + symbol + "..."); // Show user we're getting data
-
-        // Build the web request (like typing a URL in your browser)
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url)) // Set the web address
-                .GET() // Use GET method (just reading data, not sending)
-                .timeout(java.time.Duration.ofSeconds(10)) // Timeout after 10 seconds
-                .build(); // Finish building the request
-
-        // Send the request and get the response (like loading a webpage)
-        HttpResponse<String> response = httpClient.send(request,
-                HttpResponse.BodyHandlers.ofString()); // Get response as text
-
-        // Check if the request was successful (200 = OK)
-        if (response.statusCode() != 200) {
-            throw new Exception("API request failed with status: " + response.statusCode()); // Something went wrong
-        }
-
-        // Parse the response text to extract the price
-        return parsePriceFromResponse(response.body()); // Extract price from JSON text
+        return fetchQuote(symbol).getPrice();
     }
 
     // This method updates a stock object with the latest price
@@ -57,38 +45,71 @@ public class AlphaVantageService implements StockPriceService {
     // stock
     @Override
     public void updateStockPrice(Stock stock) throws Exception {
-        String jsonResponse = fetchFullQuote(stock.getSymbol());
-        double price = parsePriceFromResponse(jsonResponse);
-        double change = parseChangePercentFromResponse(jsonResponse);
+        Quote quote = fetchQuote(stock.getSymbol()); // One request, one parse for price and change
+        quote.applyTo(stock);
+        System.out.println("✅ Updated " + stock.getSymbol() + ": price=" + quote.getPrice() + ", change="
+                + quote.getChangePercent() + "%");
+    }
+
+    // This method gets a quote without blocking - the HTTP request runs on the
+    // HttpClient's own threads and the future completes when the answer arrives
+    // Example: getQuoteAsync("AAPL").thenAccept(quote -> show(quote))
+    @Override
+    public CompletableFuture<Quote> getQuoteAsync(String symbol) {
+        // Download as bytes (doesn't block a thread while waiting), then parse in one pass
+        return httpClient.sendAsync(buildQuoteRequest(symbol), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    try {
+                        if (response.statusCode() != 200)
+                            throw new Exception("API failed: " + response.statusCode());
+                        Quote quote = new Quote();
+                        PARSER.get().parse(response.body(), quote);
+                        return quote;
+                    } catch (Exception e) {
+                        throw new CompletionException(e); // Fail the future with the original error
+                    }
+                });
+    }
 
-        stock.setCurrentPrice(price);
-        stock.setChangePercent(change);
-        System.out.println("✅ Updated " + stock.getSymbol() + ": price=" + price + ", change=" + change + "%");
+    // Fetches one GLOBAL_QUOTE and parses it while it streams in
+    private Quote fetchQuote(String symbol) throws Exception {
+        HttpResponse<InputStream> response = httpClient.send(buildQuoteRequest(symbol),
+                HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) { // Always close the stream, even on errors
+            if (response.statusCode() != 200)
+                throw new Exception("API failed: " + response.statusCode());
+            Quote quote = new Quote();
+            PARSER.get().parse(body, quote);
+            return quote;
+        }
     }
 
-    private String fetchFullQuote(String symbol) throws Exception {
-        String url = String.format("%sfunction=GLOBAL_QUOTE&symbol=%s&apikey=%s",
+    // Builds the GLOBAL_QUOTE request for one symbol
+    private HttpRequest buildQuoteRequest(String symbol) {
+        String url = String.format("%s?function=GLOBAL_QUOTE&symbol=%s&apikey=%s",
                 BASE_URL, symbol, API_KEY);
 
-        HttpRequest request = HttpRequest.newBuilder()
+        return HttpRequest.newBuilder()
                 .uri(URI.create(url))
                 .GET()
                 .timeout(java.time.Duration.ofSeconds(10))
                 .build();
-
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        if (response.statusCode() != 200)
-            throw new Exception("API failed: " + response.statusCode());
-        return response.body();
     }
 
-    // This method gets historical price data for the last 6 months
+    // This method gets historical price data for the last 100 trading days
     // Returns a JSON string with dates and prices for charting
-    // Example: getHistoricalData("AAPL") returns price data for last 6 months
+    // Example: getHistoricalData("AAPL") returns price data for last ~5 months
     public String getHistoricalData(String symbol) throws Exception {
+        return getHistoricalData(symbol, false);
+    }
+
+    // Same as above, but full=true asks for the whole history (20+ years)
+    // instead of only the last 100 trading days
+    // Example: getHistoricalData("AAPL", true) returns every day since 1999
+    public String getHistoricalData(String symbol, boolean full) throws Exception {
         // Build URL for TIME_SERIES_DAILY function (gets daily prices)
-        String url = String.format("%s?function=TIME_SERIES_DAILY&symbol=%s&apikey=%s",
-                BASE_URL, symbol, API_KEY);
+        String url = String.format("%s?function=TIME_SERIES_DAILY&symbol=%s&outputsize=%s&apikey=%s",
+                BASE_URL, symbol, full ? "full" : "compact", API_KEY);
 
         System.out.println("📊 Fetching historical data for " + symbol + "...");
 
@@ -96,7 +117,7 @@ public class AlphaVantageService implements StockPriceService {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(url))
                 .GET()
-                .timeout(java.time.Duration.ofSeconds(10))
+                .timeout(java.time.Duration.ofSeconds(full ? 30 : 10)) // Full history is a big download
                 .build();
 
         HttpResponse<String> response = httpClient.send(request,
@@ -109,56 +130,34 @@ public class AlphaVantageService implements StockPriceService {
         return response.body(); // Return the full JSON response
     }
 
-    // This private method extracts the price from the JSON response text
-    // Example: Input: '{"Global Quote": {"05. price": "278.12"}}' → Output: 278.12
-    private double parsePriceFromResponse(String jsonResponse) {
-        // Parse JSON response to extract the stock price
-        // Alpha Vantage returns data like: {"Global Quote": {"05. price": "150.25"}}
-
-        try {
-            // Look for the price field in the JSON text
-            String priceKey = "\"05. price\":"; // This is what we're searching for
-            int priceIndex = jsonResponse.indexOf(priceKey); // Find where it appears in the text
-
-            // If we can't find the price field, something went wrong
-            if (priceIndex == -1) {
-                System.err.println("⚠️ Could not find price in API response. Using mock price.");
-                // Show first 200 characters of response to help debug
-                System.err.println("Response: " + jsonResponse.substring(0, Math.min(200, jsonResponse.length())));
-                return 100.0 + (Math.random() * 100); // Return a random price between $100-$200
-            }
-
-            // Extract the price value from the JSON text
-            // Example: Find the quotes around "278.12" and extract just the number
-            int startQuote = jsonResponse.indexOf("\"", priceIndex + priceKey.length()); // Find opening quote
-            int endQuote = jsonResponse.indexOf("\"", startQuote + 1); // Find closing quote
-            String priceStr = jsonResponse.substring(startQuote + 1, endQuote); // Extract text between quotes
-
-            return Double.parseDouble(priceStr); // Convert text "278.12" to number 278.12
-
-        } catch (Exception e) {
-            // If anything goes wrong, show error and return mock price
-            System.err.println("⚠️ Error parsing price: " + e.getMessage());
-            return 100.0 + (Math.random() * 100); // Return random price as fallback
+    // Turns a TIME_SERIES_DAILY response into a list of daily bars, oldest first
+    // Example JSON: {"Time Series (Daily)": {"2024-11-29": {"1. open": "234.81", ...}}}
+    public static List<StockPrice> parseDailyBars(String jsonResponse) throws Exception {
+        JSONObject json = new JSONObject(jsonResponse);
+        if (json.has("Note") || json.has("Information")) {
+            throw new Exception("API rate limit reached. Please wait a moment and try again.");
+        }
+        if (json.has("Error Message")) {
+            throw new Exception("API Error: " + json.getString("Error Message"));
+        }
+
+        JSONObject series = json.optJSONObject("Time Series (Daily)");
+        if (series == null) {
+            throw new Exception("No daily prices in API response");
         }
-    }
 
-    private double parseChangePercentFromResponse(String jsonResponse) {
-        try {
-            String key = "\"10. change percent\":";
-            int index = jsonResponse.indexOf(key);
-            if (index == -1)
-                return 0.0;
-
-            int startQuote = jsonResponse.indexOf("\"", index + key.length());
-            int endQuote = jsonResponse.indexOf("\"", startQuote + 1);
-            String percentStr = jsonResponse.substring(startQuote + 1, endQuote);
-
-            // Remove % sign if present
-            percentStr = percentStr.replace("%", "");
-            return Double.parseDouble(percentStr);
-        } catch (Exception e) {
-            return 0.0;
+        List<StockPrice> bars = new ArrayList<>(series.length());
+        for (String day : series.keySet()) {
+            JSONObject bar = series.getJSONObject(day);
+            bars.add(new StockPrice(
+                    LocalDate.parse(day),
+                    bar.getDouble("1. open"),
+                    bar.getDouble("2. high"),
+                    bar.getDouble("3. low"),
+                    bar.getDouble("4. close"),
+                    bar.getLong("5. volume")));
         }
+        bars.sort((a, b) -> a.getDate().compareTo(b.getDate())); // JSON objects have no order
+        return bars;
     }
 }
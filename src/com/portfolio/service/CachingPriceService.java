@@ -0,0 +1,229 @@
+package com.portfolio.service; // This file belongs to the "service" folder
+
+import com.portfolio.model.Quote; // Import Quote class
+import com.portfolio.model.Stock; // Import Stock class
+import java.util.Collection; // Import Collection interface
+import java.util.LinkedHashMap; // Import LinkedHashMap - remembers access order for LRU eviction
+import java.util.Map; // Import Map interface
+import java.util.concurrent.CompletableFuture; // A result that arrives later
+import java.util.concurrent.CompletionException; // Wraps errors inside a CompletableFuture
+import java.util.concurrent.ConcurrentHashMap; // Thread-safe map for requests in progress
+import java.util.concurrent.ExecutionException; // Wraps errors thrown while fetching
+import java.util.concurrent.TimeUnit; // For time conversions
+import java.util.concurrent.atomic.AtomicLong; // Thread-safe counters
+
+/**
+ * CachingPriceService - Remembers recent quotes so the same symbol isn't fetched twice in a row
+ * Wraps another StockPriceService. A quote is reused until it is older than its TTL
+ * (time-to-live). If several threads ask for the same symbol while it is being fetched,
+ * they all wait for that one request instead of each sending their own.
+ *
+ * The cache holds at most maxEntries symbols; the least recently used one is dropped first.
+ *
+ * Example:
+ *   CachingPriceService prices = new CachingPriceService(new AlphaVantageService());
+ *   prices.getCurrentPrice("AAPL"); // Fetches from the API (miss)
+ *   prices.getCurrentPrice("AAPL"); // Answered from memory (hit)
+ */
+public class CachingPriceService implements StockPriceService {
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.SECONDS.toMillis(60);
+    public static final int DEFAULT_MAX_ENTRIES = 500;
+
+    private final StockPriceService delegate; // The real service that talks to the API
+    private final long defaultTtlMillis; // How long a quote stays fresh
+    private final Map<String, Long> ttlOverrides = new ConcurrentHashMap<>(); // Symbol -> custom TTL
+    private final Map<String, Quote> cache; // Symbol -> last quote, in LRU order (guarded by itself)
+    private final Map<String, CompletableFuture<Quote>> inFlight = new ConcurrentHashMap<>(); // Fetches in progress
+
+    // Metrics
+    private final AtomicLong hits = new AtomicLong(); // Answered from cache
+    private final AtomicLong misses = new AtomicLong(); // Had to fetch
+    private final AtomicLong coalesced = new AtomicLong(); // Joined someone else's fetch
+
+    // Constructor with default TTL and size
+    // Example: new CachingPriceService(new AlphaVantageService())
+    public CachingPriceService(StockPriceService delegate) {
+        this(delegate, DEFAULT_TTL_MILLIS, DEFAULT_MAX_ENTRIES);
+    }
+
+    // Constructor with custom TTL and size
+    // Example: new CachingPriceService(service, 30_000, 200) keeps 200 symbols for 30 seconds each
+    public CachingPriceService(StockPriceService delegate, long defaultTtlMillis, int maxEntries) {
+        this.delegate = delegate;
+        this.defaultTtlMillis = defaultTtlMillis;
+        // accessOrder=true makes iteration order "least recently used first"
+        this.cache = new LinkedHashMap<String, Quote>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Quote> eldest) {
+                return size() > maxEntries; // Drop the oldest entry once we're over the limit
+            }
+        };
+    }
+
+    @Override
+    public double getCurrentPrice(String symbol) throws Exception {
+        return getQuote(symbol).getPrice();
+    }
+
+    @Override
+    public void updateStockPrice(Stock stock) throws Exception {
+        getQuote(stock.getSymbol()).applyTo(stock);
+    }
+
+    @Override
+    public void setVisibleSymbols(Collection<String> symbols) {
+        delegate.setVisibleSymbols(symbols); // We don't queue, but the service behind us might
+    }
+
+    @Override
+    public void reserveRequest() throws Exception {
+        delegate.reserveRequest(); // We have no quota, but the service behind us might
+    }
+
+    /**
+     * Gets a quote from the cache, or fetches it if missing or too old
+     *
+     * @param symbol The stock symbol (ex: "AAPL")
+     * @return A quote no older than the symbol's TTL
+     * @throws Exception if the fetch fails
+     */
+    public Quote getQuote(String symbol) throws Exception {
+        return await(getQuoteAsync(symbol));
+    }
+
+    /**
+     * Non-blocking version of getQuote
+     * A fresh cached quote comes back as an already-completed future
+     */
+    @Override
+    public CompletableFuture<Quote> getQuoteAsync(String symbol) {
+        String key = symbol.toUpperCase();
+
+        Quote cached = getFresh(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        // Either start a fetch or join the one already running
+        CompletableFuture<Quote> mine = new CompletableFuture<>();
+        CompletableFuture<Quote> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            return running;
+        }
+
+        // Another thread may have finished a fetch between our cache check and now
+        cached = getFresh(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            inFlight.remove(key, mine);
+            mine.complete(cached);
+            return mine;
+        }
+
+        misses.incrementAndGet();
+        CompletableFuture<Quote> fetch;
+        try {
+            fetch = delegate.getQuoteAsync(symbol);
+        } catch (RuntimeException e) {
+            fetch = CompletableFuture.failedFuture(e);
+        }
+        fetch.whenComplete((quote, error) -> {
+            if (error == null) {
+                synchronized (cache) {
+                    cache.put(key, quote);
+                }
+            }
+            inFlight.remove(key, mine);
+            if (error == null) {
+                mine.complete(quote);
+            } else {
+                mine.completeExceptionally(error); // Waiting callers get the same error
+            }
+        });
+        return mine;
+    }
+
+    // Sets a custom TTL for one symbol (ex: shorter for a stock you're actively trading)
+    // Example: setTtl("TSLA", 10_000) keeps Tesla quotes for only 10 seconds
+    public void setTtl(String symbol, long ttlMillis) {
+        ttlOverrides.put(symbol.toUpperCase(), ttlMillis);
+    }
+
+    // Forgets the cached quote for one symbol, so the next call fetches fresh data
+    public void invalidate(String symbol) {
+        synchronized (cache) {
+            cache.remove(symbol.toUpperCase());
+        }
+    }
+
+    // Forgets every cached quote
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    // Getter - how many calls were answered from memory
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    // Getter - how many calls had to go to the API
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    // Getter - how many calls piggy-backed on a fetch that was already running
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    // Getter - share of calls that did NOT need their own API request (0.0 to 1.0)
+    public double getHitRate() {
+        long saved = hits.get() + coalesced.get();
+        long total = saved + misses.get();
+        return total == 0 ? 0 : (double) saved / total;
+    }
+
+    // Getter - how many symbols are cached right now
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private long getTtlMillis(String key) {
+        return ttlOverrides.getOrDefault(key, defaultTtlMillis);
+    }
+
+    // Returns the cached quote if it is still within its TTL, otherwise null
+    private Quote getFresh(String key) {
+        Quote cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+        }
+        if (cached != null && System.currentTimeMillis() - cached.getFetchedAtMillis() < getTtlMillis(key)) {
+            return cached;
+        }
+        return null;
+    }
+
+    // Waits for a fetch and rethrows its original error if it failed
+    private Quote await(CompletableFuture<Quote> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            // Unwrap both ExecutionException and any CompletionException inside it
+            Throwable cause = e.getCause();
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.portfolio.service; // This file belongs to the "service" folder
+
+import com.portfolio.model.Quote; // Import Quote class
+import java.io.InputStream; // The response body as a stream of bytes
+import java.nio.charset.StandardCharsets; // For turning the symbol bytes into a String
+
+/**
+ * GlobalQuoteParser - Reads an Alpha Vantage GLOBAL_QUOTE response in one pass
+ * Walks the JSON bytes once, from start to end, and copies every field it knows into a Quote.
+ * It never builds the body as a String, and numbers are read straight from the bytes,
+ * so parsing a quote allocates almost nothing (only the symbol String).
+ *
+ * Example response:
+ *   {"Global Quote": {"01. symbol": "AAPL", "02. open": "276.50", ... "05. price": "278.12",
+ *    "06. volume": "41230000", ... "10. change percent": "1.2300%"}}
+ *
+ * One parser keeps its buffers between calls, so it is NOT thread-safe - use one per thread.
+ *
+ * Example:
+ *   GlobalQuoteParser parser = new GlobalQuoteParser();
+ *   Quote quote = new Quote();
+ *   parser.parse(response.body(), quote); // body is an InputStream
+ */
+public class GlobalQuoteParser {
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18 };
+
+    private byte[] chunk = new byte[4096]; // Reusable read buffer for streams (grows if needed)
+
+    // What the response told us besides the quote
+    private boolean rateLimited;
+    private boolean errorMessage;
+    private boolean priceFound;
+
+    /**
+     * Parses a quote from a stream (ex: HttpResponse body from BodyHandlers.ofInputStream())
+     * The bytes are copied into a buffer that is reused for the next call
+     *
+     * @param body The response body
+     * @param into The quote to fill (it is reset first)
+     * @throws Exception if the API refused the request or sent no price
+     */
+    public void parse(InputStream body, Quote into) throws Exception {
+        int length = 0;
+        int read;
+        while ((read = body.read(chunk, length, chunk.length - length)) > 0) {
+            length += read;
+            if (length == chunk.length) {
+                chunk = java.util.Arrays.copyOf(chunk, chunk.length * 2); // Body bigger than usual
+            }
+        }
+        run(chunk, length, into);
+    }
+
+    /**
+     * Parses a quote from bytes that were already downloaded
+     *
+     * @param body The response body bytes
+     * @param into The quote to fill (it is reset first)
+     * @throws Exception if the API refused the request or sent no price
+     */
+    public void parse(byte[] body, Quote into) throws Exception {
+        run(body, body.length, into);
+    }
+
+    // Walks every "key": value pair once and keeps the ones we know
+    private void run(byte[] b, int n, Quote into) throws Exception {
+        into.reset();
+        rateLimited = false;
+        errorMessage = false;
+        priceFound = false;
+
+        int i = 0;
+        while (i < n) {
+            if (b[i++] != '"') {
+                continue; // Braces, commas, whitespace - nothing to do
+            }
+
+            // Key string
+            int keyStart = i;
+            i = skipString(b, i, n);
+            int keyEnd = i++;
+
+            i = skipWhitespace(b, i, n);
+            if (i >= n || b[i] != ':') {
+                continue; // It was a string inside an array, not a key
+            }
+            i = skipWhitespace(b, i + 1, n);
+            if (i >= n) {
+                break;
+            }
+
+            // Value
+            int valueStart;
+            int valueEnd;
+            byte c = b[i];
+            if (c == '"') {
+                valueStart = i + 1;
+                valueEnd = skipString(b, valueStart, n);
+                i = valueEnd + 1;
+            } else if (c == '{' || c == '[') {
+                i++;
+                continue; // Nested object (ex: "Global Quote": {...}) - keep walking into it
+            } else {
+                // Bare number, true/false/null
+                valueStart = i;
+                while (i < n && b[i] != ',' && b[i] != '}' && b[i] != ']' && !isWhitespace(b[i])) {
+                    i++;
+                }
+                valueEnd = i;
+            }
+            onField(b, keyStart, keyEnd, valueStart, valueEnd, into);
+        }
+
+        if (rateLimited) {
+            throw new Exception("API rate limit reached. Please wait a moment and try again.");
+        }
+        if (errorMessage) {
+            throw new Exception("API returned an error (invalid symbol?)");
+        }
+        if (!priceFound) {
+            throw new Exception("Could not find price in API response");
+        }
+        into.setFetchedAtMillis(System.currentTimeMillis());
+    }
+
+    // Copies one field into the quote
+    // GLOBAL_QUOTE keys start with a two digit number ("05. price"), so we switch on that
+    private void onField(byte[] b, int k, int keyEnd, int v, int valueEnd, Quote into) {
+        int keyLength = keyEnd - k;
+        if (keyLength == 4 && b[k] == 'N' && b[k + 1] == 'o' && b[k + 2] == 't' && b[k + 3] == 'e') {
+            rateLimited = true; // {"Note": "Thank you for using Alpha Vantage! ..."}
+            return;
+        }
+        if (keyLength == 11 && b[k] == 'I' && b[k + 1] == 'n' && b[k + 2] == 'f' && b[k + 10] == 'n') {
+            rateLimited = true; // {"Information": "...rate limit..."}
+            return;
+        }
+        if (keyLength == 13 && b[k] == 'E' && b[k + 1] == 'r' && b[k + 5] == ' ') {
+            errorMessage = true; // {"Error Message": "Invalid API call..."}
+            return;
+        }
+        if (keyLength < 3 || !isDigit(b[k]) || !isDigit(b[k + 1]) || b[k + 2] != '.') {
+            return; // Not a numbered quote field
+        }
+
+        switch ((b[k] - '0') * 10 + (b[k + 1] - '0')) {
+            case 1:
+                into.setSymbol(new String(b, v, valueEnd - v, StandardCharsets.US_ASCII));
+                break;
+            case 2:
+                into.setOpen(parseDouble(b, v, valueEnd));
+                break;
+            case 3:
+                into.setHigh(parseDouble(b, v, valueEnd));
+                break;
+            case 4:
+                into.setLow(parseDouble(b, v, valueEnd));
+                break;
+            case 5:
+                if (valueEnd > v) {
+                    into.setPrice(parseDouble(b, v, valueEnd));
+                    priceFound = true;
+                }
+                break;
+            case 6:
+                into.setVolume((long) parseDouble(b, v, valueEnd));
+                break;
+            case 8:
+                into.setPreviousClose(parseDouble(b, v, valueEnd));
+                break;
+            case 9:
+                into.setChange(parseDouble(b, v, valueEnd));
+                break;
+            case 10:
+                into.setChangePercent(parseDouble(b, v, valueEnd)); // Stops at the "%" sign
+                break;
+            default:
+                break; // 07. latest trading day - not needed
+        }
+    }
+
+    // Returns the index of the closing quote of a string that starts at i
+    private static int skipString(byte[] b, int i, int n) {
+        while (i < n && b[i] != '"') {
+            i += b[i] == '\\' ? 2 : 1; // Skip escaped characters like \"
+        }
+        return Math.min(i, n);
+    }
+
+    private static int skipWhitespace(byte[] b, int i, int n) {
+        while (i < n && isWhitespace(b[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Reads a decimal number like "-12.3450" straight from bytes, without making a String
+     * Stops at the first character that isn't part of the number (ex: the "%" in "1.23%")
+     * Numbers with too many digits or an exponent fall back to Double.parseDouble
+     */
+    static double parseDouble(byte[] text, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (text[i] == '-' || text[i] == '+')) {
+            negative = text[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int decimals = 0;
+        boolean seenDot = false;
+        for (; i < end; i++) {
+            byte b = text[i];
+            if (isDigit(b)) {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    digits++;
+                    if (seenDot) {
+                        decimals++;
+                    }
+                } else if (!seenDot) {
+                    return slowParse(text, start, end); // Too big for a long - let Java handle it
+                }
+                // Extra decimals beyond 18 digits are below double precision anyway
+            } else if (b == '.' && !seenDot) {
+                seenDot = true;
+            } else if (b == 'e' || b == 'E') {
+                return slowParse(text, start, end);
+            } else {
+                break; // "%" or anything else ends the number
+            }
+        }
+        if (digits == 0) {
+            return 0.0;
+        }
+
+        if (mantissa >= (1L << 53)) {
+            return slowParse(text, start, end); // Not exact as a double - let Java round it
+        }
+        // Both numbers are exact doubles, so one division gives a correctly rounded result
+        double result = mantissa / POWERS_OF_TEN[decimals];
+        return negative ? -result : result;
+    }
+
+    private static double slowParse(byte[] text, int start, int end) {
+        int stop = start;
+        while (stop < end && text[stop] != '%') {
+            stop++;
+        }
+        return Double.parseDouble(new String(text, start, stop - start, StandardCharsets.US_ASCII));
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWhitespace(byte c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+}
@@ -101,12 +101,12 @@ public class GroqAIService {
             // Basic hardcoded logic for common intents
             if (lowerIntent.contains("sell all") || lowerIntent.contains("clear portfolio")) {
                 StringBuilder result = new StringBuilder("✅ Selling all stocks:\n");
-                List<PortfolioItem> items = new ArrayList<>(portfolioService.getPortfolioItems());
-                if (items.isEmpty())
+                List<String> symbols = new ArrayList<>(portfolioService.getSymbols()); // Each stock once, even with several lots
+                if (symbols.isEmpty())
                     return "❌ Portfolio is already empty.";
-                for (PortfolioItem item : items) {
-                    portfolioService.sellAllStock(item.getStock().getSymbol());
-                    result.append("• Sold all of ").append(item.getStock().getSymbol()).append("\n");
+                for (String symbol : symbols) {
+                    portfolioService.sellAllStock(symbol);
+                    result.append("• Sold all of ").append(symbol).append("\n");
                 }
                 return result.toString();
             }
@@ -133,13 +133,23 @@ public class GroqAIService {
                 String symbol = extractField(aiResp, "symbol");
                 int qty = Integer.parseInt(extractField(aiResp, "quantity"));
                 double price = Double.parseDouble(extractField(aiResp, "price"));
-                portfolioService.buyStock(symbol, symbol, qty, price);
+                if (!portfolioService.buyStock(symbol, symbol, qty, price)) {
+                    return String.format("❌ Could not buy %d %s - the trade was not recorded", qty, symbol);
+                }
                 return String.format("✅ Bought %d %s @ %.2f", qty, symbol, price);
             } else if (aiResp.contains("\"sell\"")) {
                 String symbol = extractField(aiResp, "symbol");
                 int qty = Integer.parseInt(extractField(aiResp, "quantity"));
-                portfolioService.sellStock(symbol, qty);
-                return String.format("✅ Sold %d %s", qty, symbol);
+                double price = parsePrice(extractField(aiResp, "price")); // 0 when the AI gave none
+                // Book the sale at the price it was made at; without one, at the current price
+                boolean sold = price > 0 ? portfolioService.sellStock(symbol, qty, price)
+                        : portfolioService.sellStock(symbol, qty);
+                if (!sold) {
+                    return String.format("❌ Could not sell %d %s - check the symbol and how many shares you own",
+                            qty, symbol);
+                }
+                return price > 0 ? String.format("✅ Sold %d %s @ %.2f", qty, symbol, price)
+                        : String.format("✅ Sold %d %s", qty, symbol);
             } else if (aiResp.contains("show_portfolio")) {
                 return buildPortfolioContext();
             }
@@ -189,6 +199,15 @@ public class GroqAIService {
         return str.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
     }
 
+    // Reads a price field, 0 if it is missing or not a number (ex: "null")
+    private double parsePrice(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+
     private String extractField(String json, String field) {
         int idx = json.indexOf("\"" + field + "\"");
         if (idx == -1)
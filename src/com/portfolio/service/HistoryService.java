@@ -0,0 +1,198 @@
+package com.portfolio.service; // This file belongs to the "service" folder
+
+import com.portfolio.database.HistoryDAO; // Database access for daily bars
+import com.portfolio.model.PriceSeries; // Import PriceSeries (closes or ticks as plain arrays)
+import com.portfolio.model.StockPrice; // Import StockPrice class (one day of history)
+import java.time.DayOfWeek; // For skipping weekends
+import java.time.Instant; // Import Instant for price tick ranges
+import java.time.LocalDate; // Import LocalDate for trading days
+import java.util.ArrayList; // Import ArrayList
+import java.util.Collections; // Import Collections for read-only lists
+import java.util.List; // Import List interface
+import java.util.Map; // Import Map interface
+import java.util.concurrent.ConcurrentHashMap; // Thread-safe map for the in-memory copy
+
+/**
+ * HistoryService - Daily price history that survives restarts
+ * Keeps every downloaded daily bar in the database (daily_bars table). When you ask for a
+ * stock's history it returns what is saved, and only goes to the API if the newest saved bar
+ * is older than the last finished trading day. Even then it downloads just the recent days
+ * (the "compact" 100-day response) and adds the ones we don't have.
+ *
+ * Each symbol is asked about at most once per trading day: on a market holiday (or for a
+ * stock with no new bars) the download brings nothing new, and asking again on every chart
+ * open would only burn quota. Downloads spend requests from the same quota as the quotes.
+ *
+ * Example:
+ *   HistoryService history = new HistoryService(new AlphaVantageService(), portfolioService.getPriceService());
+ *   history.getDailyHistory("AAPL"); // First time: downloads and saves ~100 days
+ *   history.getDailyHistory("AAPL"); // Later the same day: no network at all
+ */
+public class HistoryService {
+    // The compact response covers 100 trading days - about 140 calendar days.
+    // If our newest bar is older than this, compact can't fill the gap and we need the full history
+    private static final int COMPACT_WINDOW_DAYS = 130;
+
+    private final AlphaVantageService api; // Downloads history from Alpha Vantage
+    private final HistoryDAO historyDAO; // Saves and loads history in the database
+    private final StockPriceService quota; // Each download spends one of its requests (null = no limit)
+    private final Map<String, List<StockPrice>> memory = new ConcurrentHashMap<>(); // Symbol -> bars this session
+    private final Map<String, LocalDate> checkedOn = new ConcurrentHashMap<>(); // Symbol -> trading day already asked about
+
+    // Constructor - creates a history service that downloads with the given API service, without a quota
+    // Example: new HistoryService(new AlphaVantageService())
+    public HistoryService(AlphaVantageService api) {
+        this(api, null);
+    }
+
+    // Constructor - downloads count against the quota of the given price service (ex: a RateLimitedPriceService)
+    // Example: new HistoryService(new AlphaVantageService(), portfolioService.getPriceService())
+    public HistoryService(AlphaVantageService api, StockPriceService quota) {
+        this.api = api;
+        this.historyDAO = new HistoryDAO();
+        this.quota = quota;
+    }
+
+    /**
+     * Returns whatever history we already have, without touching the network
+     * Good for drawing a chart immediately while fresh data loads in the background
+     *
+     * @param symbol The stock symbol (ex: "AAPL")
+     * @return Saved daily bars, oldest first (empty if none)
+     */
+    public List<StockPrice> getCachedHistory(String symbol) {
+        String key = symbol.toUpperCase();
+        List<StockPrice> bars = memory.get(key);
+        if (bars != null) {
+            return bars;
+        }
+
+        try {
+            bars = Collections.unmodifiableList(historyDAO.loadBars(key));
+            memory.put(key, bars);
+            return bars;
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not load saved history for " + key + ": " + e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Returns up-to-date daily history, downloading only the days we are missing
+     *
+     * @param symbol The stock symbol (ex: "AAPL")
+     * @return Daily bars, oldest first
+     * @throws Exception if nothing is saved and the download fails
+     */
+    public List<StockPrice> getDailyHistory(String symbol) throws Exception {
+        String key = symbol.toUpperCase();
+        List<StockPrice> cached = getCachedHistory(key);
+        LocalDate lastSaved = cached.isEmpty() ? null : cached.get(cached.size() - 1).getDate();
+        LocalDate tradingDay = lastCompletedTradingDay();
+
+        // Already have the last finished trading day - nothing to download
+        if (lastSaved != null && !lastSaved.isBefore(tradingDay)) {
+            return cached;
+        }
+        // Already asked today and got nothing newer (holiday, or no trades) - don't ask again
+        if (tradingDay.equals(checkedOn.get(key))) {
+            return cached;
+        }
+
+        // Small "compact" download unless we've been away too long for it to cover the gap
+        boolean full = lastSaved != null && lastSaved.isBefore(LocalDate.now().minusDays(COMPACT_WINDOW_DAYS));
+
+        List<StockPrice> downloaded;
+        try {
+            if (quota != null) {
+                quota.reserveRequest(); // Waits for a slot in the same per-minute/per-day budget as quotes
+            }
+            downloaded = AlphaVantageService.parseDailyBars(api.getHistoricalData(key, full));
+            checkedOn.put(key, tradingDay);
+        } catch (Exception e) {
+            if (cached.isEmpty()) {
+                throw e; // Nothing to fall back on
+            }
+            System.err.println("⚠️ Using saved history for " + key + ": " + e.getMessage());
+            return cached;
+        }
+
+        // Keep only the days after our newest saved bar
+        List<StockPrice> newer = new ArrayList<>();
+        for (StockPrice bar : downloaded) {
+            if (lastSaved == null || bar.getDate().isAfter(lastSaved)) {
+                newer.add(bar);
+            }
+        }
+
+        try {
+            historyDAO.saveBars(key, newer);
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not save history for " + key + ": " + e.getMessage());
+        }
+
+        List<StockPrice> merged = new ArrayList<>(cached.size() + newer.size());
+        merged.addAll(cached);
+        merged.addAll(newer);
+        List<StockPrice> result = Collections.unmodifiableList(merged);
+        memory.put(key, result);
+        return result;
+    }
+
+    /**
+     * Returns the saved closing prices between two days (both included), straight from
+     * the database - for long ranges (years) where a chart or a calculation needs only closes
+     *
+     * @param symbol The stock symbol (ex: "AAPL")
+     * @param from   First day
+     * @param to     Last day
+     * @return The closes, oldest first (empty if none are saved or the database can't be read)
+     */
+    public PriceSeries getCloses(String symbol, LocalDate from, LocalDate to) {
+        try {
+            return historyDAO.loadCloses(symbol, from, to);
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not load closes for " + symbol + ": " + e.getMessage());
+            return new PriceSeries(symbol.toUpperCase(), new long[0], new double[0]);
+        }
+    }
+
+    /**
+     * Returns every price recorded by portfolio refreshes between two moments
+     *
+     * @param symbol The stock symbol (ex: "AAPL")
+     * @param from   First moment
+     * @param to     Last moment
+     * @return The prices, oldest first (empty if none)
+     */
+    public PriceSeries getPriceTicks(String symbol, Instant from, Instant to) {
+        try {
+            return historyDAO.loadTicks(symbol, from, to);
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not load price ticks for " + symbol + ": " + e.getMessage());
+            return new PriceSeries(symbol.toUpperCase(), new long[0], new double[0]);
+        }
+    }
+
+    // Return between two days from the saved closes, as a fraction
+    // Example: getReturn("AAPL", LocalDate.of(2024, 1, 2), LocalDate.of(2024, 12, 31)) returns 0.30 for +30%
+    public double getReturn(String symbol, LocalDate from, LocalDate to) {
+        return getCloses(symbol, from, to).getReturn();
+    }
+
+    // Biggest high-to-low fall between two days from the saved closes, as a fraction
+    // Example: getMaxDrawdown("AAPL", LocalDate.of(2020, 1, 1), LocalDate.now()) returns 0.31 for -31%
+    public double getMaxDrawdown(String symbol, LocalDate from, LocalDate to) {
+        return getCloses(symbol, from, to).getMaxDrawdown();
+    }
+
+    // The most recent weekday before today - today's bar isn't final until the market closes
+    // Example: on Monday this returns the previous Friday
+    static LocalDate lastCompletedTradingDay() {
+        LocalDate day = LocalDate.now().minusDays(1);
+        while (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            day = day.minusDays(1);
+        }
+        return day;
+    }
+}
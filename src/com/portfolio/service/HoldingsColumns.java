@@ -0,0 +1,273 @@
+package com.portfolio.service; // This file belongs to the "service" folder
+
+import com.portfolio.model.PortfolioItem; // Import PortfolioItem class (one lot)
+import java.util.ArrayList; // Import ArrayList for the code -> text lists
+import java.util.Arrays; // Import Arrays to grow the columns
+import java.util.HashMap; // Import HashMap for text -> code lookups
+import java.util.LinkedHashMap; // Import LinkedHashMap to keep sectors in order
+import java.util.List; // Import List interface
+import java.util.Map; // Import Map interface
+
+/**
+ * HoldingsColumns - Every lot stored as numbers in parallel arrays, for very large portfolios
+ * Lot number i is quantity[i] shares bought at cost[i], now worth price[i] each. Symbol,
+ * sector and currency are stored as small int codes (each text is kept once, in a table),
+ * so adding up 50,000 lots is a plain loop over arrays instead of hopping through
+ * PortfolioItem -> Stock -> String objects.
+ *
+ * Each symbol also keeps the list of rows its lots are in, so a price tick or a sale
+ * only touches that stock's rows - never the other 50,000. Rows are not kept in any
+ * order: a removed row is filled with the last row.
+ *
+ * PortfolioService keeps one of these next to its snapshot when the portfolio is big
+ * (see PortfolioService.setColumnarHoldings) and updates it on every buy, sell and price
+ * change. Callers never see it - they get the same answers either way.
+ *
+ * Example:
+ *   HoldingsColumns columns = new HoldingsColumns(snapshot.getItems());
+ *   columns.setPrice("AAPL", 280.0); // Every Apple lot now $280
+ *   columns.getValueBySector(totals); // {"IT & Tech" -> 52,000.0, ...} in the base currency
+ *
+ * All methods are synchronized - price refreshes update the columns from background threads.
+ */
+public class HoldingsColumns {
+    private static final String NO_SECTOR = "Other"; // Shown for lots with no sector
+
+    private final Codes symbols = new Codes(); // "AAPL" <-> 0, "TSLA" <-> 1, ...
+    private final Codes sectors = new Codes(); // "IT & Tech" <-> 0, ...
+    private final Codes currencies = new Codes(); // "USD" <-> 0, "INR" <-> 1, ...
+
+    private int size; // How many lots are stored
+    private int[] symbol = new int[16];
+    private int[] sector = new int[16];
+    private int[] currency = new int[16];
+    private double[] quantity = new double[16];
+    private double[] cost = new double[16]; // Purchase price per share
+    private double[] price = new double[16]; // Current price per share
+    private int[] slot = new int[16]; // Where row i is listed in its symbol's Rows
+
+    private final List<Rows> rowsBySymbol = new ArrayList<>(); // Symbol code -> the rows of its lots
+
+    // Builds the columns from every lot
+    // Example: new HoldingsColumns(snapshot.getItems())
+    HoldingsColumns(List<PortfolioItem> lots) {
+        grow(lots.size());
+        for (PortfolioItem lot : lots) {
+            add(lot);
+        }
+    }
+
+    // Adds one lot at the end
+    synchronized void add(PortfolioItem lot) {
+        grow(size + 1);
+        int code = symbols.code(PortfolioSnapshot.normalize(lot.getStock().getSymbol()));
+        symbol[size] = code;
+        Rows rows = rowsOf(code);
+        slot[size] = rows.count;
+        rows.add(size);
+        fill(size, lot);
+        size++;
+    }
+
+    // Writes a lot's numbers into row i (its symbol stays the same)
+    private void fill(int i, PortfolioItem lot) {
+        String sectorName = lot.getStock().getSector();
+        sector[i] = sectors.code(sectorName == null || sectorName.isEmpty() ? NO_SECTOR : sectorName);
+        currency[i] = currencies.code(lot.getOriginalCurrency());
+        quantity[i] = lot.getQuantity();
+        cost[i] = lot.getPurchasePrice();
+        price[i] = lot.getStock().getCurrentPrice();
+    }
+
+    // Replaces every lot of a stock with the given ones (after a sale)
+    // Only that stock's rows are rewritten: the lots left go into its old rows, and rows
+    // it no longer needs are filled with the last row
+    // Example: replaceLots("AAPL", [Apple x5]) when 10 of 15 shares were sold
+    synchronized void replaceLots(String symbolName, List<PortfolioItem> lots) {
+        int code = symbols.find(PortfolioSnapshot.normalize(symbolName));
+        Rows rows = code >= 0 ? rowsBySymbol.get(code) : null;
+        int reused = rows != null ? Math.min(rows.count, lots.size()) : 0;
+        for (int n = 0; n < reused; n++) {
+            fill(rows.rows[n], lots.get(n));
+        }
+        while (rows != null && rows.count > reused) {
+            removeRow(rows.rows[--rows.count]);
+        }
+        for (int n = reused; n < lots.size(); n++) {
+            add(lots.get(n));
+        }
+    }
+
+    // Removes row i (already dropped from its symbol's Rows) by moving the last row into it
+    private void removeRow(int i) {
+        int last = size - 1;
+        if (i != last) {
+            symbol[i] = symbol[last];
+            sector[i] = sector[last];
+            currency[i] = currency[last];
+            quantity[i] = quantity[last];
+            cost[i] = cost[last];
+            price[i] = price[last];
+            slot[i] = slot[last];
+            rowsBySymbol.get(symbol[i]).rows[slot[i]] = i; // Its symbol now finds it at row i
+        }
+        size = last;
+    }
+
+    // A stock's price moved - every lot of it gets the new price
+    // Only that stock's rows are touched
+    // Example: setPrice("AAPL", 280.0)
+    synchronized void setPrice(String symbolName, double newPrice) {
+        int code = symbols.find(PortfolioSnapshot.normalize(symbolName));
+        if (code < 0) {
+            return;
+        }
+        Rows rows = rowsBySymbol.get(code);
+        for (int n = 0; n < rows.count; n++) {
+            price[rows.rows[n]] = newPrice;
+        }
+    }
+
+    // The rows of a symbol code, made the first time the code is used
+    private Rows rowsOf(int code) {
+        while (rowsBySymbol.size() <= code) {
+            rowsBySymbol.add(new Rows());
+        }
+        return rowsBySymbol.get(code);
+    }
+
+    // The exchange rate of every currency code, asked once per call (not once per lot)
+    private double[] ratesByCode(PortfolioTotals totals) {
+        double[] rates = new double[currencies.size()];
+        for (int c = 0; c < rates.length; c++) {
+            rates[c] = totals.rateFor(currencies.text(c));
+        }
+        return rates;
+    }
+
+    // Current value of every lot, in the base currency
+    public synchronized double getValue(PortfolioTotals totals) {
+        double[] rates = ratesByCode(totals);
+        double value = 0;
+        for (int i = 0; i < size; i++) {
+            value += quantity[i] * price[i] * rates[currency[i]];
+        }
+        return value;
+    }
+
+    // What you paid for every lot, in the base currency
+    public synchronized double getInvested(PortfolioTotals totals) {
+        double[] rates = ratesByCode(totals);
+        double invested = 0;
+        for (int i = 0; i < size; i++) {
+            invested += quantity[i] * cost[i] * rates[currency[i]];
+        }
+        return invested;
+    }
+
+    // Current value of one stock (all lots), in the base currency
+    // Example: getPositionValue("AAPL", totals) for 15 shares at $278 returns 4,170 (converted)
+    public synchronized double getPositionValue(String symbolName, PortfolioTotals totals) {
+        int code = symbols.find(PortfolioSnapshot.normalize(symbolName));
+        if (code < 0) {
+            return 0.0;
+        }
+        double[] rates = ratesByCode(totals);
+        Rows rows = rowsBySymbol.get(code);
+        double value = 0;
+        for (int n = 0; n < rows.count; n++) {
+            int i = rows.rows[n];
+            value += quantity[i] * price[i] * rates[currency[i]];
+        }
+        return value;
+    }
+
+    // Current value per sector, in the base currency
+    // One pass adds into an array indexed by sector code; only the result becomes a map
+    // Example: {"IT & Tech" -> 52,000.0, "Energy" -> 8,400.0}
+    public synchronized Map<String, Double> getValueBySector(PortfolioTotals totals) {
+        double[] rates = ratesByCode(totals);
+        double[] sums = new double[sectors.size()];
+        for (int i = 0; i < size; i++) {
+            sums[sector[i]] += quantity[i] * price[i] * rates[currency[i]];
+        }
+
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (int s = 0; s < sums.length; s++) {
+            if (sums[s] != 0) {
+                result.put(sectors.text(s), sums[s]);
+            }
+        }
+        return result;
+    }
+
+    // How many lots are stored
+    public synchronized int size() {
+        return size;
+    }
+
+    // Makes room for at least "needed" lots (doubles the arrays when full)
+    private void grow(int needed) {
+        if (needed <= symbol.length) {
+            return;
+        }
+        int capacity = Math.max(needed, symbol.length * 2);
+        symbol = Arrays.copyOf(symbol, capacity);
+        sector = Arrays.copyOf(sector, capacity);
+        currency = Arrays.copyOf(currency, capacity);
+        quantity = Arrays.copyOf(quantity, capacity);
+        cost = Arrays.copyOf(cost, capacity);
+        price = Arrays.copyOf(price, capacity);
+        slot = Arrays.copyOf(slot, capacity);
+    }
+
+    /**
+     * Rows - The row numbers of one symbol's lots, in a growable int array
+     */
+    private static final class Rows {
+        private int[] rows = new int[4];
+        private int count;
+
+        void add(int row) {
+            if (count == rows.length) {
+                rows = Arrays.copyOf(rows, count * 2);
+            }
+            rows[count++] = row;
+        }
+    }
+
+    /**
+     * Codes - Gives each distinct text a small number, starting at 0
+     * Example: code("USD") = 0, code("INR") = 1, code("USD") = 0 again; text(1) = "INR"
+     * Codes are never reused, so a code stays valid even after its last lot is sold.
+     */
+    private static final class Codes {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> texts = new ArrayList<>();
+
+        // Returns the code of a text, giving it a new one the first time
+        int code(String text) {
+            Integer code = codes.get(text);
+            if (code == null) {
+                code = texts.size();
+                codes.put(text, code);
+                texts.add(text);
+            }
+            return code;
+        }
+
+        // Returns the code of a text, or -1 if it was never seen
+        int find(String text) {
+            Integer code = codes.get(text);
+            return code != null ? code : -1;
+        }
+
+        String text(int code) {
+            return texts.get(code);
+        }
+
+        int size() {
+            return texts.size();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.portfolio.service; // This file belongs to the "service" folder
+
+import java.util.Random; // For the made-up price series
+
+/**
+ * IndicatorBenchmark - Times TechnicalIndicators on long price histories
+ * Builds two made-up random-walk series and runs every whole-series indicator on each:
+ *   1. 10 years of daily bars  (252 days x 10  =  2,520 bars)
+ *   2. 1 year of minute bars   (390 minutes x 252 days = 98,280 bars)
+ * Then compares the rolling SMA(20) with the old way of re-summing the last 20 values
+ * for every bar.
+ *
+ * Run it with:
+ *   java -cp ".;lib/*" com.portfolio.service.IndicatorBenchmark [rounds]
+ * Example: ... IndicatorBenchmark 200
+ */
+public class IndicatorBenchmark {
+
+    private static final int DAILY_BARS = 252 * 10;
+    private static final int MINUTE_BARS = 390 * 252;
+
+    private static double sink; // Keeps the JIT from throwing the results away
+
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        Bars daily = new Bars(DAILY_BARS, 1);
+        Bars minute = new Bars(MINUTE_BARS, 2);
+
+        // Warm up every indicator, so the JIT has compiled them before we time anything
+        for (int i = 0; i < 20; i++) {
+            runAll(minute);
+            sink += naiveSma(minute.close, 20)[MINUTE_BARS - 1];
+        }
+
+        System.out.println("📊 10 years of daily bars (" + DAILY_BARS + " bars, " + rounds * 10 + " rounds)");
+        runSeries(daily, rounds * 10);
+
+        System.out.println("📊 1 year of minute bars (" + MINUTE_BARS + " bars, " + rounds + " rounds)");
+        runSeries(minute, rounds);
+
+        // ===== ROLLING SMA vs RE-SUMMING =====
+        System.out.println("📊 SMA(20) on minute bars: rolling sum vs re-summing the window");
+        long start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            sink += TechnicalIndicators.sma(minute.close, 20)[MINUTE_BARS - 1];
+        }
+        report("Rolling SMA(20)", start, rounds, MINUTE_BARS);
+
+        start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            sink += naiveSma(minute.close, 20)[MINUTE_BARS - 1];
+        }
+        report("Re-summing SMA(20)", start, rounds, MINUTE_BARS);
+
+        System.out.println("(checksum " + (long) sink + ")");
+    }
+
+    // Times each indicator on its own, then all six together
+    private static void runSeries(Bars bars, int rounds) {
+        int n = bars.close.length;
+        long start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            sink += TechnicalIndicators.sma(bars.close, 20)[n - 1];
+        }
+        report("SMA(20)", start, rounds, n);
+
+        start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            sink += TechnicalIndicators.ema(bars.close, 20)[n - 1];
+        }
+        report("EMA(20)", start, rounds, n);
+
+        start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            sink += TechnicalIndicators.rsi(bars.close, 14)[n - 1];
+        }
+        report("RSI(14)", start, rounds, n);
+
+        start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            sink += TechnicalIndicators.macd(bars.close, 12, 26, 9).histogram[n - 1];
+        }
+        report("MACD(12, 26, 9)", start, rounds, n);
+
+        start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            sink += TechnicalIndicators.bollinger(bars.close, 20, 2.0).upper[n - 1];
+        }
+        report("Bollinger(20, 2.0)", start, rounds, n);
+
+        start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            sink += TechnicalIndicators.vwap(bars.high, bars.low, bars.close, bars.volume, 20)[n - 1];
+        }
+        report("VWAP(20)", start, rounds, n);
+
+        start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            runAll(bars);
+        }
+        report("All six", start, rounds, n);
+    }
+
+    private static void runAll(Bars bars) {
+        int last = bars.close.length - 1;
+        sink += TechnicalIndicators.sma(bars.close, 20)[last];
+        sink += TechnicalIndicators.ema(bars.close, 20)[last];
+        sink += TechnicalIndicators.rsi(bars.close, 14)[last];
+        sink += TechnicalIndicators.macd(bars.close, 12, 26, 9).histogram[last];
+        sink += TechnicalIndicators.bollinger(bars.close, 20, 2.0).upper[last];
+        sink += TechnicalIndicators.vwap(bars.high, bars.low, bars.close, bars.volume, 20)[last];
+    }
+
+    // The old way: add up the last "period" values again for every bar - O(n x period)
+    private static double[] naiveSma(double[] values, int period) {
+        double[] out = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            int from = Math.max(0, i - period + 1);
+            double sum = 0;
+            for (int j = from; j <= i; j++) {
+                sum += values[j];
+            }
+            out[i] = sum / (i - from + 1);
+        }
+        return out;
+    }
+
+    // Prints the time per full series and per bar
+    private static void report(String what, long startNanos, int rounds, int bars) {
+        double nanos = (System.nanoTime() - startNanos) / (double) rounds;
+        String perSeries = nanos >= 1_000_000 ? String.format("%.2f ms", nanos / 1_000_000)
+                : String.format("%.1f µs", nanos / 1_000);
+        System.out.println(String.format("⏱️ %-40s %10s/series  %6.1f ns/bar", what, perSeries, nanos / bars));
+    }
+
+    /**
+     * A made-up price history: a random walk starting at 100, with a high, a low and
+     * a volume for each bar. The same seed always gives the same series.
+     */
+    private static final class Bars {
+        final double[] high;
+        final double[] low;
+        final double[] close;
+        final double[] volume;
+
+        Bars(int n, long seed) {
+            Random random = new Random(seed);
+            high = new double[n];
+            low = new double[n];
+            close = new double[n];
+            volume = new double[n];
+            double price = 100.0;
+            for (int i = 0; i < n; i++) {
+                price = Math.max(1.0, price * (1 + random.nextGaussian() * 0.01));
+                double spread = price * random.nextDouble() * 0.01;
+                close[i] = price;
+                high[i] = price + spread;
+                low[i] = price - spread;
+                volume[i] = 1_000 + random.nextInt(100_000);
+            }
+        }
+    }
+}
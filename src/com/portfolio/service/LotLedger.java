@@ -0,0 +1,239 @@
+package com.portfolio.service; // This file belongs to the "service" folder
+
+import com.portfolio.model.PortfolioItem; // Import PortfolioItem class (one lot)
+import java.util.ArrayDeque; // Import ArrayDeque - lots of one stock, oldest at the front
+import java.util.ArrayList; // Import ArrayList
+import java.util.Collections; // Import Collections for read-only lists
+import java.util.LinkedHashMap; // Import LinkedHashMap to keep currencies in order
+import java.util.List; // Import List interface
+import java.util.Map; // Import Map interface
+import java.util.function.ToDoubleFunction; // Exchange rate lookup (currency -> base currency per unit)
+
+/**
+ * LotLedger - Works out which lots a sale takes shares from, and what those shares cost
+ * Only the lots of the stock being sold are touched (never the whole portfolio). They go
+ * into a deque, so FIFO takes from the front and LIFO from the back, one step per lot used.
+ *
+ * Lots are never changed: a lot that is partly sold is replaced by a smaller copy,
+ * so snapshots that still hold the old lot keep seeing the old quantity.
+ *
+ * One stock can have lots bought in different currencies (ex: a USD lot and an INR lot
+ * of AAPL). Costs are kept per currency and only converted when the sale asks for its
+ * cost per share in one currency.
+ *
+ * Example:
+ *   LotLedger.Relief relief = LotLedger.relieve(lots, 12, LotReliefMethod.FIFO, 0);
+ *   relief.getCostPerShare("USD", totals::rateFor); // What the 12 shares cost you on average
+ *   relief.getRemaining(); // The lots left after the sale
+ */
+public final class LotLedger {
+
+    private LotLedger() {
+        // Only static helpers
+    }
+
+    /**
+     * Takes "quantity" shares out of one stock's lots
+     *
+     * @param lots     Every lot of the stock, oldest first
+     * @param quantity How many shares are sold
+     * @param method   Which lots to take them from
+     * @param lotId    The lot to sell from when method is SPECIFIC_LOT (ignored otherwise)
+     * @return What was taken and what is left
+     * @throws IllegalArgumentException if the lots don't hold enough shares or the lot isn't found
+     */
+    public static Relief relieve(List<PortfolioItem> lots, int quantity, LotReliefMethod method, long lotId) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive, got " + quantity);
+        }
+
+        Relief relief = new Relief();
+        switch (method) {
+            case FIFO:
+                relieveFromEnd(new ArrayDeque<>(lots), quantity, true, relief);
+                break;
+            case LIFO:
+                relieveFromEnd(new ArrayDeque<>(lots), quantity, false, relief);
+                break;
+            case SPECIFIC_LOT:
+                relieveLot(lots, quantity, lotId, relief);
+                break;
+            case AVERAGE_COST:
+                relieveAverage(lots, quantity, relief);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown relief method " + method);
+        }
+        return relief;
+    }
+
+    // FIFO takes from the front of the deque, LIFO from the back
+    private static void relieveFromEnd(ArrayDeque<PortfolioItem> deque, int quantity, boolean fromFront,
+            Relief relief) {
+        int remaining = quantity;
+        while (remaining > 0) {
+            PortfolioItem lot = fromFront ? deque.pollFirst() : deque.pollLast();
+            if (lot == null) {
+                throw new IllegalArgumentException("Not enough shares - " + remaining + " more needed");
+            }
+
+            int taken = Math.min(remaining, lot.getQuantity());
+            relief.take(lot, taken);
+            remaining -= taken;
+
+            if (taken == lot.getQuantity()) {
+                relief.removedIds.add(lot.getId()); // Whole lot sold
+            } else {
+                // Part of the lot sold - a smaller copy goes back where it was
+                PortfolioItem rest = copy(lot, lot.getQuantity() - taken, lot.getPurchasePrice());
+                relief.changed.add(rest);
+                if (fromFront) {
+                    deque.offerFirst(rest);
+                } else {
+                    deque.offerLast(rest);
+                }
+            }
+        }
+        relief.remaining = Collections.unmodifiableList(new ArrayList<>(deque));
+    }
+
+    // Sells only from the lot with the given id
+    private static void relieveLot(List<PortfolioItem> lots, int quantity, long lotId, Relief relief) {
+        List<PortfolioItem> remaining = new ArrayList<>(lots.size());
+        boolean found = false;
+        for (PortfolioItem lot : lots) {
+            if (lot.getId() != lotId || found) {
+                remaining.add(lot);
+                continue;
+            }
+            found = true;
+            if (lot.getQuantity() < quantity) {
+                throw new IllegalArgumentException(
+                        "Lot " + lotId + " only has " + lot.getQuantity() + " shares, can't sell " + quantity);
+            }
+
+            relief.take(lot, quantity);
+            if (lot.getQuantity() == quantity) {
+                relief.removedIds.add(lot.getId());
+            } else {
+                PortfolioItem rest = copy(lot, lot.getQuantity() - quantity, lot.getPurchasePrice());
+                relief.changed.add(rest);
+                remaining.add(rest);
+            }
+        }
+        if (!found) {
+            throw new IllegalArgumentException("Lot " + lotId + " not found");
+        }
+        relief.remaining = Collections.unmodifiableList(remaining);
+    }
+
+    // Every share costs the average of all lots at the moment of the sale; the shares
+    // themselves are taken oldest first. Lot costs are left alone, so a later FIFO, LIFO
+    // or specific-lot sale still sees what each lot really cost.
+    private static void relieveAverage(List<PortfolioItem> lots, int quantity, Relief relief) {
+        Map<String, Portion> all = new LinkedHashMap<>(); // Every lot, per currency
+        int totalShares = 0;
+        for (PortfolioItem lot : lots) {
+            all.computeIfAbsent(lot.getOriginalCurrency(), c -> new Portion())
+                    .add(lot.getQuantity(), lot.getQuantity() * lot.getPurchasePrice());
+            totalShares += lot.getQuantity();
+        }
+        if (totalShares < quantity) {
+            throw new IllegalArgumentException("Not enough shares - have " + totalShares + ", selling " + quantity);
+        }
+
+        relieveFromEnd(new ArrayDeque<>(lots), quantity, true, relief); // Which lots shrink
+        relief.basis = all; // The sale's cost is the average over all of them
+    }
+
+    // A new lot with the same stock, currency and database row, but new quantity/cost
+    private static PortfolioItem copy(PortfolioItem lot, int quantity, double purchasePrice) {
+        PortfolioItem copy = new PortfolioItem(lot.getStock(), quantity, purchasePrice, lot.getOriginalCurrency());
+        copy.setId(lot.getId());
+        return copy;
+    }
+
+    /**
+     * Result of one sale: the lots left, which database rows to delete or update,
+     * and what the sold shares cost
+     */
+    public static final class Relief {
+        private List<PortfolioItem> remaining = Collections.emptyList(); // Lots left, oldest first
+        private final List<Long> removedIds = new ArrayList<>(); // Lots sold completely
+        private final List<PortfolioItem> changed = new ArrayList<>(); // Lots with a new quantity
+        private final Map<String, Portion> removed = new LinkedHashMap<>(); // Shares taken out, per lot currency
+        private Map<String, Portion> basis = removed; // What the sale's cost is averaged over (all lots with AVERAGE_COST)
+
+        // "shares" of this lot left it
+        private void take(PortfolioItem lot, int shares) {
+            removed.computeIfAbsent(lot.getOriginalCurrency(), c -> new Portion())
+                    .add(shares, shares * lot.getPurchasePrice());
+        }
+
+        public List<PortfolioItem> getRemaining() {
+            return remaining;
+        }
+
+        public List<Long> getRemovedIds() {
+            return removedIds;
+        }
+
+        public List<PortfolioItem> getChanged() {
+            return changed;
+        }
+
+        // Shares taken out of the lots and what they cost, per lot currency
+        // Example: {"USD" -> 10 shares / $1,500, "INR" -> 2 shares / ₹25,000}
+        public Map<String, Portion> getRemovedByCurrency() {
+            return Collections.unmodifiableMap(removed);
+        }
+
+        /**
+         * Cost per sold share, in the currency the sale is booked in
+         * Lots in other currencies are converted with the given rates; with one
+         * currency nothing is converted.
+         *
+         * @param currency The sale's currency (ex: "USD")
+         * @param rateFor  Base currency per 1 unit of a currency (ex: totals::rateFor)
+         * @return Ex: 125.0 when the sold shares cost $125 on average
+         */
+        public double getCostPerShare(String currency, ToDoubleFunction<String> rateFor) {
+            double cost = 0;
+            int shares = 0;
+            for (Map.Entry<String, Portion> entry : basis.entrySet()) {
+                Portion portion = entry.getValue();
+                double factor = entry.getKey().equals(currency) ? 1.0
+                        : rateFor.applyAsDouble(entry.getKey()) / rateFor.applyAsDouble(currency);
+                cost += portion.cost * factor;
+                shares += portion.shares;
+            }
+            return shares > 0 ? cost / shares : 0.0;
+        }
+    }
+
+    /**
+     * Some shares of one currency's lots and what they cost in that currency
+     */
+    public static final class Portion {
+        private int shares;
+        private double cost;
+
+        private void add(int moreShares, double moreCost) {
+            shares += moreShares;
+            cost += moreCost;
+        }
+
+        public int getShares() {
+            return shares;
+        }
+
+        public double getCost() {
+            return cost;
+        }
+
+        // Purchase price per share (ex: 150.0)
+        public double getCostPerShare() {
+            return shares > 0 ? cost / shares : 0.0;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.portfolio.service; // This file belongs to the "service" folder
+
+// Which lots a sale takes shares from - this decides the cost of the shares sold,
+// and so the realized profit/loss
+// Example: you bought 10 AAPL @ $100, then 10 @ $150, and now sell 10 @ $160
+//   FIFO         -> sells the $100 lot, realized +$600
+//   LIFO         -> sells the $150 lot, realized +$100
+//   SPECIFIC_LOT -> sells the lot you pick
+//   AVERAGE_COST -> sells at the average $125, realized +$350
+public enum LotReliefMethod {
+    FIFO, // First in, first out - oldest lot first
+    LIFO, // Last in, first out - newest lot first
+    SPECIFIC_LOT, // One lot chosen by its id
+    AVERAGE_COST // Every share costs the average price of all lots
+}
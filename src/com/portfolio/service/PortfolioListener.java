@@ -0,0 +1,48 @@
+package com.portfolio.service; // This file belongs to the "service" folder
+
+import com.portfolio.model.PortfolioItem; // Import PortfolioItem class
+import com.portfolio.model.Transaction; // Import Transaction class
+import java.util.List; // Import List interface
+import java.util.Map; // Import Map interface
+
+/**
+ * PortfolioListener - Gets told about each change to the portfolio as it happens
+ * Screens use it to update just the rows that changed instead of rebuilding everything.
+ *
+ * Called on the thread that made the change, while PortfolioService holds its write
+ * lock, so events arrive in the same order as the changes. Keep the work short - a
+ * Swing screen should just hand the event to SwingUtilities.invokeLater.
+ *
+ * Register with PortfolioService.addListener, which also returns the snapshot the
+ * first event follows from.
+ *
+ * Example:
+ *   PortfolioSnapshot start = service.addListener(new PortfolioListener() {
+ *       public void pricesChanged(Map<String, List<PortfolioItem>> lots) { ... }
+ *   });
+ */
+public interface PortfolioListener {
+
+    // A lot was bought - it is now the newest lot of its stock (ex: Apple x10 @ 150)
+    default void lotAdded(PortfolioItem lot) {
+    }
+
+    // Shares of "symbol" (upper case, ex: "AAPL") were sold - "remaining" are its lots left, oldest first
+    // An empty list means the stock was sold out
+    default void lotsChanged(String symbol, List<PortfolioItem> remaining) {
+    }
+
+    // A buy or a sell was recorded
+    default void transactionAdded(Transaction transaction) {
+    }
+
+    // A price refresh gave some symbols a new price
+    // "lots" maps each of them (upper case) to its lots now, oldest first - new copies
+    // holding the new price (the old lots are never changed)
+    default void pricesChanged(Map<String, List<PortfolioItem>> lots) {
+    }
+
+    // Amounts are now shown in another currency (ex: "USD")
+    default void baseCurrencyChanged(String currency) {
+    }
+}
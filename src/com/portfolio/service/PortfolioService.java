@@ -2,59 +2,295 @@ package com.portfolio.service; // This file belongs to the "service" folder
 
 import com.portfolio.model.Stock; // Import Stock class
 import com.portfolio.model.PortfolioItem; // Import PortfolioItem class
+import com.portfolio.model.Quote; // Import Quote class
 import com.portfolio.model.Transaction; // Import Transaction class
+import com.portfolio.database.TradeJournal; // Import TradeJournal - the paper-trading trade file
+import com.portfolio.database.TransactionHistory; // Import TransactionHistory - where history is read from
+import com.portfolio.database.TransactionPage; // Import TransactionPage - one page of history
+import java.io.IOException; // Thrown when the trade journal can't be written
+import java.nio.file.Path; // Import Path for the trade journal folder
+import java.sql.SQLException; // Thrown when the database can't be read
+import java.time.Instant; // Import Instant to time-stamp refreshed prices
+import java.time.LocalDateTime; // Import LocalDateTime for time windows
 import java.util.ArrayList; // Import ArrayList to store lists of items
+import java.util.LinkedHashMap; // Import LinkedHashMap to keep symbols in order
 import java.util.List; // Import List interface
+import java.util.Map; // Import Map interface
+import java.util.Set; // Import Set interface
+import java.util.concurrent.CancellationException; // Thrown when a fetch was cancelled
+import java.util.concurrent.CompletableFuture; // A result that arrives later
+import java.util.concurrent.CompletionException; // Wraps errors from a background fetch
+import java.util.concurrent.ExecutorService; // The thread that applies refreshed prices
+import java.util.concurrent.Executors; // Creates that thread
+import java.util.concurrent.CopyOnWriteArrayList; // Listener list that is safe to loop over while it changes
+import java.util.function.Consumer; // One listener call, passed to fire()
 
 // This class manages your entire portfolio - all your stocks and transactions
 // Think of it like a portfolio manager who tracks everything you own
 public class PortfolioService {
     // Private variables - the data this service manages
-    private List<PortfolioItem> portfolioItems; // List of all stocks you own (ex: [Apple x10, Tesla x5])
-    private List<Transaction> transactions; // List of all buy/sell transactions (history)
+    // All holdings and transactions live in one frozen snapshot (see PortfolioSnapshot).
+    // Readers just grab the current one - no locks. Every change (buy, sell, price update)
+    // goes through writeLock, builds a new snapshot and swaps it in all at once.
+    private volatile PortfolioSnapshot snapshot = new PortfolioSnapshot(new ArrayList<>(), new ArrayList<>());
+    private final Object writeLock = new Object(); // Only one change at a time
     private StockPriceService priceService; // The service that gets real stock prices
     private com.portfolio.database.PortfolioDAO portfolioDAO; // Database access object for saving/loading data
+    private final com.portfolio.database.HistoryDAO historyDAO = new com.portfolio.database.HistoryDAO(); // Price history
     private CurrencyService currencyService; // Service for live exchange rates
-    private String baseCurrency = "INR"; // Default display currency
+    private volatile String baseCurrency = "INR"; // Default display currency
+    private final PortfolioTotals totals; // Running invested/value totals, adjusted on every change
+    private volatile LotReliefMethod reliefMethod = LotReliefMethod.FIFO; // Which lots a sale uses
+
+    // Realized profit/loss of the sales saved before this start, per currency ("USD" -> 350.0).
+    // Summed by the database at startup, so the history itself is never loaded -
+    // the snapshot only holds the transactions made since then.
+    private Map<String, Double> savedRealized = new LinkedHashMap<>(); // Guarded by writeLock
+
+    // Big portfolios also keep every lot as plain number arrays (see HoldingsColumns) so
+    // valuation and sector totals are tight loops. null when switched off.
+    // Changed only under writeLock, together with the snapshot.
+    private volatile HoldingsColumns columns;
+    public static final int COLUMNAR_THRESHOLD = 10_000; // Switched on by itself from this many lots
+
+    // Paper-trading mode: buys and sells go to an append-only journal file instead of
+    // SQLite (see TradeJournal). null in the normal database mode.
+    private final TradeJournal journal;
+    public static final int JOURNAL_CHECKPOINT_EVERY = 10_000; // Trades between journal checkpoints
+
+    // The running totals are re-added from scratch every this many price refreshes (see verifyTotals)
+    public static final int VERIFY_TOTALS_EVERY = 20;
+    private int refreshesSinceVerify; // Changed only under writeLock
+
+    // Applies finished price refreshes (see updateAllPricesAsync). Its own thread, so the saving,
+    // history and listener work never runs on the Swing thread or an HTTP client thread
+    private static final ExecutorService PRICE_APPLIER = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "price-apply");
+        thread.setDaemon(true); // Don't keep the app alive just for this thread
+        return thread;
+    });
+
+    // Every stock ordered by today's change and by position value, moved on each buy, sell and
+    // price refresh, so top gainers/losers/movers and largest positions are O(K) reads (see StockRanking)
+    private final StockRanking<PortfolioItem> ranking = new StockRanking<>();
+
+    // Told about every buy, sell, price refresh and currency change (see PortfolioListener)
+    private final List<PortfolioListener> listeners = new CopyOnWriteArrayList<>();
 
     // Constructor - creates a new portfolio manager
+    // Starts in paper-trading journal mode if -Dportfolio.journal=<folder> is set
     // Example: new PortfolioService(alphaVantageService)
     public PortfolioService(StockPriceService priceService) {
-        this.portfolioItems = new ArrayList<>(); // Create empty list for portfolio items
-        this.transactions = new ArrayList<>(); // Create empty list for transactions
+        this(priceService, openJournalFromSettings());
+    }
+
+    // Constructor - keeps trades in a journal instead of the database (null = the database)
+    // Example: new PortfolioService(priceService, TradeJournal.open(Path.of("paper-run")))
+    public PortfolioService(StockPriceService priceService, TradeJournal journal) {
         this.priceService = priceService; // Store the price service to use later
         this.portfolioDAO = new com.portfolio.database.PortfolioDAO(); // Create database access object
         this.currencyService = new CurrencyService(); // Initialize currency service
+        this.totals = new PortfolioTotals(currencyService, baseCurrency);
+        this.journal = journal;
+
+        if (journal != null) {
+            // Load the latest checkpoint plus the trades after it
+            loadFromJournal();
+            Runtime.getRuntime().addShutdownHook(new Thread(this::closeJournal, "journal-shutdown"));
+        } else {
+            // Load existing data from database when service starts
+            loadFromDatabase();
+        }
+    }
 
-        // Load existing data from database when service starts
-        loadFromDatabase();
+    // Opens the journal folder named by -Dportfolio.journal, or returns null (database mode)
+    private static TradeJournal openJournalFromSettings() {
+        String folder = System.getProperty("portfolio.journal");
+        if (folder == null || folder.isBlank()) {
+            return null;
+        }
+        try {
+            return TradeJournal.open(Path.of(folder));
+        } catch (IOException e) {
+            System.err.println("❌ Could not open trade journal " + folder + " - using the database: "
+                    + e.getMessage());
+            return null;
+        }
     }
 
     // Loads all portfolio data from database
     // This runs automatically when the service starts
     // Example: Loads your saved stocks from database file
     private void loadFromDatabase() {
+        List<PortfolioItem> items;
+        Map<String, Double> realized;
         try {
             // Load portfolio items from database
-            portfolioItems = portfolioDAO.loadAllPortfolioItems();
-            System.out.println("✅ Loaded " + portfolioItems.size() + " stocks from database");
+            items = portfolioDAO.loadAllPortfolioItems();
+            System.out.println("✅ Loaded " + items.size() + " stocks from database");
 
-            // Load transaction history from database
-            transactions = portfolioDAO.loadAllTransactions();
-            System.out.println("✅ Loaded " + transactions.size() + " transactions from database");
+            // Only the realized profit/loss of past sales - the history is read page by page
+            // when someone looks at it (see getTransactionPage)
+            realized = portfolioDAO.loadRealizedProfitLoss();
 
         } catch (Exception e) {
             // If loading fails, start with empty lists
             System.err.println("⚠️ Could not load from database: " + e.getMessage());
-            portfolioItems = new ArrayList<>();
-            transactions = new ArrayList<>();
+            items = new ArrayList<>();
+            realized = new LinkedHashMap<>();
+        }
+
+        install(items, realized);
+    }
+
+    // Loads the portfolio in journal mode: the latest checkpoint, then every trade after it
+    // Example: checkpoint at trade 40,000 and 40,250 trades in the journal -> replays 250
+    private void loadFromJournal() {
+        Map<String, List<PortfolioItem>> lots = new LinkedHashMap<>(); // "AAPL" -> lots, oldest first
+        Map<String, Double> realized = new LinkedHashMap<>();
+        long start = System.currentTimeMillis();
+        try {
+            TradeJournal.Checkpoint checkpoint = journal.readCheckpoint();
+            long from = 0;
+            if (checkpoint != null) {
+                for (PortfolioItem lot : checkpoint.getLots()) {
+                    lots.computeIfAbsent(symbolKey(lot.getStock().getSymbol()), k -> new ArrayList<>()).add(lot);
+                }
+                realized.putAll(checkpoint.getRealized());
+                from = checkpoint.getRecordCount();
+            }
+            journal.replay(from, entry -> replayTrade(entry, lots, realized));
+            System.out.println("✅ Loaded trade journal: checkpoint + " + (journal.size() - from)
+                    + " trades replayed in " + (System.currentTimeMillis() - start) + " ms");
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not load trade journal: " + e.getMessage());
+            lots.clear();
+            realized.clear();
+        }
+
+        List<PortfolioItem> items = new ArrayList<>();
+        for (List<PortfolioItem> held : lots.values()) {
+            items.addAll(held);
+        }
+        install(items, realized);
+    }
+
+    // Applies one journal trade to the lots being rebuilt - the same way buyStock/sellStock did
+    private void replayTrade(TradeJournal.Entry entry, Map<String, List<PortfolioItem>> lots,
+            Map<String, Double> realized) {
+        Transaction transaction = entry.getTransaction();
+        List<PortfolioItem> held = lots.computeIfAbsent(symbolKey(transaction.getSymbol()), k -> new ArrayList<>());
+
+        if ("BUY".equals(transaction.getType())) {
+            // Sector etc. aren't in the journal - take them from a lot we already have, or the defaults
+            Stock known = held.isEmpty() ? null : held.get(held.size() - 1).getStock();
+            Stock stock = new Stock(transaction.getSymbol(), entry.getName());
+            stock.setCurrentPrice(transaction.getPrice());
+            stock.setSector(known != null ? known.getSector() : getSectorForSymbol(transaction.getSymbol()));
+            stock.setMarketCap(known != null ? known.getMarketCap() : "Mid Cap");
+            stock.setRiskLevel(known != null ? known.getRiskLevel() : "Medium");
+
+            PortfolioItem lot = new PortfolioItem(stock, transaction.getQuantity(), transaction.getPrice(),
+                    transaction.getCurrency());
+            lot.setId(transaction.getId()); // A bought lot's id is its journal number
+            held.add(lot);
+        } else {
+            // Same lots, same method -> the same lots are relieved as when it was sold
+            LotLedger.Relief relief = LotLedger.relieve(held, transaction.getQuantity(),
+                    LotReliefMethod.values()[entry.getReliefMethod()], entry.getLotId());
+            List<PortfolioItem> remaining = new ArrayList<>(relief.getRemaining());
+            held.clear();
+            held.addAll(remaining);
+            realized.merge(transaction.getCurrency(), transaction.getRealizedProfitLoss(), Double::sum);
+        }
+    }
+
+    // Symbols are matched without caring about case or spaces, like PortfolioSnapshot does
+    private static String symbolKey(String symbol) {
+        return symbol.trim().toUpperCase();
+    }
+
+    // Builds the totals and the first snapshot from the loaded lots
+    private void install(List<PortfolioItem> items, Map<String, Double> realized) {
+        synchronized (writeLock) {
+            for (PortfolioItem item : items) {
+                totals.add(item.getOriginalCurrency(), item.getQuantity(), item.getPurchasePrice(),
+                        item.getStock().getCurrentPrice());
+            }
+            for (Map.Entry<String, Double> entry : realized.entrySet()) {
+                totals.addRealized(entry.getKey(), entry.getValue());
+            }
+            savedRealized = realized;
+            snapshot = new PortfolioSnapshot(items, new ArrayList<>());
+            rankAll();
+            if (items.size() >= COLUMNAR_THRESHOLD) {
+                columns = new HoldingsColumns(items);
+                System.out.println("✅ Using columnar holdings for " + items.size() + " lots");
+            }
+        }
+    }
+
+    // Switches the columnar holdings store on or off
+    // Every public method gives the same answers either way; on is faster for tens of thousands of lots
+    // Example: service.setColumnarHoldings(true)
+    public void setColumnarHoldings(boolean enabled) {
+        synchronized (writeLock) {
+            if (!enabled) {
+                columns = null;
+            } else if (columns == null) {
+                columns = new HoldingsColumns(snapshot.getItems());
+            }
+        }
+    }
+
+    public boolean isColumnarHoldings() {
+        return columns != null;
+    }
+
+    /**
+     * Starts telling a listener about every change to the portfolio
+     * The listener gets every change made after the returned snapshot and none before it,
+     * so a screen can fill itself from the snapshot and then just apply the events.
+     *
+     * @param listener Called on the thread making each change (see PortfolioListener)
+     * @return The portfolio as it was when the listener was added
+     *
+     *         Example: PortfolioSnapshot start = service.addListener(tableUpdater);
+     */
+    public PortfolioSnapshot addListener(PortfolioListener listener) {
+        synchronized (writeLock) {
+            listeners.add(listener);
+            return snapshot;
+        }
+    }
+
+    public void removeListener(PortfolioListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Sends one event to every listener - a listener that fails doesn't stop the others or the trade
+    // Example: fire(l -> l.transactionAdded(transaction))
+    private void fire(Consumer<PortfolioListener> event) {
+        for (PortfolioListener listener : listeners) {
+            try {
+                event.accept(listener);
+            } catch (RuntimeException e) {
+                System.err.println("⚠️ Portfolio listener failed: " + e.getMessage());
+            }
         }
     }
 
+    // Returns the current frozen picture of the portfolio
+    // Use it when you read several things that must match (ex: items and totals for one table)
+    public PortfolioSnapshot getSnapshot() {
+        return snapshot;
+    }
+
     // Method to buy stock with full details
     // Example: buyStock("AAPL", "Apple Inc.", 10, 150.0) means "Buy 10 Apple shares
     // at $150 each"
-    public void buyStock(String symbol, String name, int quantity, double price, String currency, String sector,
+    // Returns false if the trade journal couldn't record the buy (nothing was bought then)
+    public boolean buyStock(String symbol, String name, int quantity, double price, String currency, String sector,
             String marketCap, String riskLevel) {
         Stock stock = new Stock(symbol, name);
         stock.setCurrentPrice(price);
@@ -66,108 +302,266 @@ public class PortfolioService {
         stock.setRiskLevel(riskLevel != null ? riskLevel : "Medium");
 
         PortfolioItem item = new PortfolioItem(stock, quantity, price, currency);
-        portfolioItems.add(item);
-
         Transaction transaction = new Transaction(symbol, "BUY", quantity, price);
-        transactions.add(transaction);
+        transaction.setCurrency(item.getOriginalCurrency());
+
+        synchronized (writeLock) {
+            if (journal != null) {
+                // The journal first: a buy it doesn't have would be gone after the next start
+                try {
+                    long id = journal.appendBuy(transaction, name); // The journal number is the lot's id
+                    item.setId(id);
+                    transaction.setId(id);
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("❌ Could not write the buy to the trade journal - not bought: "
+                            + e.getMessage());
+                    return false;
+                }
+            } else {
+                try {
+                    portfolioDAO.savePortfolioItem(item); // Gives the lot its database id
+                    portfolioDAO.saveTransaction(transaction);
+                } catch (Exception e) {
+                    System.err.println("❌ Error saving to database: " + e.getMessage());
+                }
+            }
 
-        try {
-            portfolioDAO.savePortfolioItem(item);
-            portfolioDAO.saveTransaction(transaction);
-        } catch (Exception e) {
-            System.err.println("❌ Error saving to database: " + e.getMessage());
+            totals.add(item.getOriginalCurrency(), quantity, price, price);
+            snapshot = snapshot.withLot(item, transaction); // Newest lot goes last
+            rank(symbol, snapshot.getLots(symbol));
+            HoldingsColumns store = columns;
+            if (store != null) {
+                store.add(item);
+            }
+            checkpointJournalIfDue();
+            fire(l -> l.lotAdded(item));
+            fire(l -> l.transactionAdded(transaction));
+            return true;
         }
     }
 
-    public void buyStock(String symbol, String name, int quantity, double price) {
-        buyStock(symbol, name, quantity, price, baseCurrency, null, null, null);
+    public boolean buyStock(String symbol, String name, int quantity, double price) {
+        return buyStock(symbol, name, quantity, price, baseCurrency, null, null, null);
     }
 
     // Simplified buy method - just needs symbol, quantity, and price
     // Example: buy("AAPL", 10, 150.0) means "Buy 10 AAPL shares at $150 each"
-    public void buy(String symbol, int quantity, double price) {
-        buyStock(symbol, symbol, quantity, price); // Call full method, using symbol as name too
+    public boolean buy(String symbol, int quantity, double price) {
+        return buyStock(symbol, symbol, quantity, price); // Call full method, using symbol as name too
     }
 
-    // Method to sell stock
+    // Method to sell stock at the current price, using the chosen relief method (FIFO by default)
     // Example: sellStock("AAPL", 5) means "Sell 5 Apple shares"
     public boolean sellStock(String symbol, int quantity) {
-        // Find the stock in portfolio
-        PortfolioItem itemToSell = null;
-        for (PortfolioItem item : portfolioItems) {
-            if (item.getStock().getSymbol().equalsIgnoreCase(symbol)) {
-                itemToSell = item;
-                break;
+        List<PortfolioItem> lots = getLots(symbol);
+        double currentPrice = lots.isEmpty() ? 0.0 : lots.get(0).getStock().getCurrentPrice();
+        return sellStock(symbol, quantity, currentPrice, reliefMethod, 0);
+    }
+
+    // Sell at the price you actually got (the fill price)
+    // Example: sellStock("AAPL", 5, 281.40) means "Sold 5 Apple shares at $281.40 each"
+    public boolean sellStock(String symbol, int quantity, double price) {
+        return sellStock(symbol, quantity, price, reliefMethod, 0);
+    }
+
+    /**
+     * Sells shares, choosing which lots they come from
+     * The sale is booked at the given price; the cost of the lots it came from decides
+     * the realized profit/loss (see LotReliefMethod)
+     *
+     * @param symbol   The stock symbol (ex: "AAPL")
+     * @param quantity How many shares to sell
+     * @param price    The price each share was sold at
+     * @param method   FIFO, LIFO, SPECIFIC_LOT or AVERAGE_COST
+     * @param lotId    With SPECIFIC_LOT, the id of the lot to sell from (PortfolioItem.getId())
+     * @return true if the shares were sold
+     *
+     *         Example: sellStock("AAPL", 10, 160.0, LotReliefMethod.LIFO, 0)
+     */
+    public boolean sellStock(String symbol, int quantity, double price, LotReliefMethod method, long lotId) {
+        synchronized (writeLock) {
+            // Find the stock in portfolio
+            PortfolioSnapshot current = snapshot;
+            List<PortfolioItem> lots = current.getLots(symbol);
+
+            if (lots.isEmpty()) {
+                System.err.println("❌ Stock " + symbol + " not found in portfolio");
+                return false;
             }
-        }
 
-        if (itemToSell == null) {
-            System.err.println("❌ Stock " + symbol + " not found in portfolio");
-            return false;
-        }
+            int owned = current.getQuantity(symbol); // Shares across all lots
+            if (quantity <= 0 || owned < quantity) {
+                System.err.println("❌ Not enough shares. You have " + owned + " but trying to sell " + quantity);
+                return false;
+            }
 
-        if (itemToSell.getQuantity() < quantity) {
-            System.err.println(
-                    "❌ Not enough shares. You have " + itemToSell.getQuantity() + " but trying to sell " + quantity);
-            return false;
-        }
+            // Work out which lots the shares come from - only this stock's lots are touched
+            LotLedger.Relief relief;
+            try {
+                relief = LotLedger.relieve(lots, quantity, method, lotId);
+            } catch (IllegalArgumentException e) {
+                System.err.println("❌ " + e.getMessage());
+                return false;
+            }
 
-        double currentPrice = itemToSell.getStock().getCurrentPrice();
+            // Record the transaction, with what the sold shares cost
+            // The sale is booked in the oldest lot's currency; lots bought in another
+            // currency have their cost converted into it
+            String currency = lots.get(0).getOriginalCurrency();
+            Transaction transaction = new Transaction(symbol, "SELL", quantity, price);
+            transaction.setCostBasis(relief.getCostPerShare(currency, totals::rateFor));
+            transaction.setCurrency(currency);
+
+            // Save the lot changes and the transaction - before the sale is published,
+            // so the transaction already has its id when readers and listeners see it
+            if (journal != null) {
+                // The journal first: a sale it doesn't have would never be replayed, so it isn't made.
+                // Replay re-runs the relief, so the method and lot are all the journal needs
+                try {
+                    transaction.setId(journal.appendSell(transaction, method.ordinal(), lotId));
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("❌ Could not write the sale to the trade journal - not sold: "
+                            + e.getMessage());
+                    return false;
+                }
+            } else {
+                try {
+                    portfolioDAO.saveLotChanges(relief.getRemovedIds(), relief.getChanged());
+                    portfolioDAO.saveTransaction(transaction);
+                } catch (Exception e) {
+                    System.err.println("❌ Error saving sale to database: " + e.getMessage());
+                }
+            }
 
-        // Record the transaction
-        Transaction transaction = new Transaction(symbol, "SELL", quantity, currentPrice);
-        transactions.add(transaction);
+            // The shares leave each currency's totals at what they cost in that currency
+            double marketPrice = lots.get(0).getStock().getCurrentPrice();
+            for (Map.Entry<String, LotLedger.Portion> part : relief.getRemovedByCurrency().entrySet()) {
+                LotLedger.Portion portion = part.getValue();
+                totals.add(part.getKey(), -portion.getShares(), portion.getCostPerShare(), marketPrice);
+            }
+            totals.addRealized(currency, transaction.getRealizedProfitLoss());
+            snapshot = current.withLots(symbol, relief.getRemaining(), transaction);
+            rank(symbol, relief.getRemaining());
+            HoldingsColumns store = columns;
+            if (store != null) {
+                store.replaceLots(symbol, relief.getRemaining());
+            }
 
-        // Update or remove the portfolio item
-        if (itemToSell.getQuantity() == quantity) {
-            // Selling all shares - remove from portfolio
-            portfolioItems.remove(itemToSell);
-            try {
-                portfolioDAO.deletePortfolioItem(symbol);
-                System.out.println("✅ Sold all " + quantity + " shares of " + symbol + " @ ₹" + currentPrice);
-            } catch (Exception e) {
-                System.err.println("❌ Error deleting from database: " + e.getMessage());
+            checkpointJournalIfDue();
+            String key = PortfolioSnapshot.normalize(symbol);
+            fire(l -> l.lotsChanged(key, relief.getRemaining()));
+            fire(l -> l.transactionAdded(transaction));
+
+            int newQuantity = owned - quantity;
+            if (newQuantity == 0) {
+                System.out.println("✅ Sold all " + quantity + " shares of " + symbol + " @ ₹" + price);
+            } else {
+                System.out.println("✅ Sold " + quantity + " shares of " + symbol + " @ ₹" + price + " ("
+                        + newQuantity + " remaining)");
             }
-        } else {
-            // Selling partial shares - update quantity
-            int newQuantity = itemToSell.getQuantity() - quantity;
-            itemToSell.setQuantity(newQuantity);
+            return true;
+        }
+    }
+
+    // true when trades go to a TradeJournal instead of the database
+    public boolean isJournalMode() {
+        return journal != null;
+    }
+
+    // Saves a journal checkpoint every JOURNAL_CHECKPOINT_EVERY trades, so startup never
+    // replays more than that. Called under writeLock right after a trade.
+    private void checkpointJournalIfDue() {
+        if (journal != null && journal.getRecordsSinceCheckpoint() >= JOURNAL_CHECKPOINT_EVERY) {
+            saveJournalCheckpoint();
+        }
+    }
+
+    // Saves a journal checkpoint now (does nothing in database mode)
+    // The trades it covers are folded into the realized totals and dropped from memory
+    public void saveJournalCheckpoint() {
+        if (journal == null) {
+            return;
+        }
+        synchronized (writeLock) {
+            Map<String, Double> realized = realizedByCurrency();
             try {
-                portfolioDAO.updatePortfolioItemQuantity(symbol, newQuantity);
-                System.out.println("✅ Sold " + quantity + " shares of " + symbol + " @ ₹" + currentPrice + " ("
-                        + newQuantity + " remaining)");
-            } catch (Exception e) {
-                System.err.println("❌ Error updating database: " + e.getMessage());
+                journal.saveCheckpoint(snapshot.getItems(), realized);
+                savedRealized = realized;
+                snapshot = snapshot.withoutTransactions();
+            } catch (IOException e) {
+                System.err.println("❌ Could not save journal checkpoint: " + e.getMessage());
             }
         }
+    }
 
-        // Save transaction
-        try {
-            portfolioDAO.saveTransaction(transaction);
-        } catch (Exception e) {
-            System.err.println("❌ Error saving transaction: " + e.getMessage());
+    // Saves a last checkpoint and closes the journal (runs by itself when the app exits)
+    public void closeJournal() {
+        if (journal != null && !journal.isClosed()) {
+            saveJournalCheckpoint();
+            journal.close();
+        }
+    }
+
+    // Realized profit/loss per currency: what was saved before plus every sale since
+    // Call under writeLock. Example: {"USD"=350.0, "INR"=-1200.0}
+    private Map<String, Double> realizedByCurrency() {
+        Map<String, Double> realized = new LinkedHashMap<>(savedRealized);
+        for (Transaction transaction : snapshot.getTransactions()) {
+            if ("SELL".equals(transaction.getType())) {
+                realized.merge(transaction.getCurrency(), transaction.getRealizedProfitLoss(), Double::sum);
+            }
         }
+        return realized;
+    }
+
+    // Where the history is read from: the journal in paper-trading mode, otherwise the database
+    private TransactionHistory history() {
+        return journal != null ? journal : portfolioDAO;
+    }
+
+    // Get/Set which lots a sale takes shares from when no method is given
+    public LotReliefMethod getReliefMethod() {
+        return reliefMethod;
+    }
 
-        return true;
+    public void setReliefMethod(LotReliefMethod reliefMethod) {
+        this.reliefMethod = reliefMethod;
     }
 
-    // Sell all shares of a stock
+    // Sell all shares of a stock (every lot)
     // Example: sellAllStock("GOOGL") means "Sell all Google shares"
     public boolean sellAllStock(String symbol) {
-        PortfolioItem item = null;
-        for (PortfolioItem pi : portfolioItems) {
-            if (pi.getStock().getSymbol().equalsIgnoreCase(symbol)) {
-                item = pi;
-                break;
+        synchronized (writeLock) {
+            int owned = getQuantity(symbol);
+            if (owned == 0) {
+                System.err.println("❌ Stock " + symbol + " not found in portfolio");
+                return false;
             }
-        }
 
-        if (item == null) {
-            System.err.println("❌ Stock " + symbol + " not found in portfolio");
-            return false;
+            return sellStock(symbol, owned);
         }
+    }
+
+    // Returns how many shares of a stock you own, across all lots
+    // Example: getQuantity("aapl") returns 15 if you bought 10 and later 5
+    public int getQuantity(String symbol) {
+        return snapshot.getQuantity(symbol);
+    }
+
+    // Returns every lot of a stock, oldest first (empty if you don't own it)
+    // Example: getLots("AAPL") returns [Apple x10, Apple x5]
+    public List<PortfolioItem> getLots(String symbol) {
+        return snapshot.getLots(symbol);
+    }
 
-        return sellStock(symbol, item.getQuantity());
+    // Returns true if you own at least one share of the stock
+    public boolean holds(String symbol) {
+        return snapshot.getQuantity(symbol) > 0;
+    }
+
+    // Returns the symbols you own, each once (ex: [AAPL, TSLA])
+    public Set<String> getSymbols() {
+        return snapshot.getSymbols();
     }
 
     // Get/Set base currency for conversions
@@ -176,65 +570,214 @@ public class PortfolioService {
     }
 
     public void setBaseCurrency(String currency) {
-        this.baseCurrency = currency;
+        synchronized (writeLock) {
+            this.baseCurrency = currency;
+            totals.setBaseCurrency(currency); // Only looks up one rate per currency you hold
+            rankAll(); // Position values are in the base currency
+            fire(l -> l.baseCurrencyChanged(currency));
+        }
     }
 
     public double convertToBase(double amount, String fromCurrency) {
         return currencyService.convert(amount, fromCurrency, baseCurrency);
     }
 
+    // Returns the running totals (per currency and in the base currency)
+    // Example: service.getTotals().getValue("USD") returns the value of your USD holdings in dollars
+    public PortfolioTotals getTotals() {
+        return totals;
+    }
+
     // Calculates total money you invested (what you paid)
+    // Read from the running totals - no loop over holdings
     // Example: Bought 10 AAPL @ $150 + 5 TSLA @ $200 = $1,500 + $1,000 = $2,500
     public double calculateTotalInvestment() {
-        double total = 0; // Start with $0
-        // Loop through each item in your portfolio
-        for (PortfolioItem item : portfolioItems) {
-            double investment = item.getPurchasePrice() * item.getQuantity();
-            // Convert to base currency
-            total += currencyService.convert(investment, item.getOriginalCurrency(), baseCurrency);
-        }
-        return total; // Return the total investment
+        return totals.getInvested();
     }
 
     // Calculates current total value of your portfolio (what it's worth now)
+    // Read from the running totals - no loop over holdings
     // Example: 10 AAPL @ $278 + 5 TSLA @ $200 = $2,780 + $1,000 = $3,780
     public double calculateCurrentValue() {
-        double total = 0; // Start with $0
-        // Loop through each item in your portfolio
-        for (PortfolioItem item : portfolioItems) {
-            double value = item.getTotalValue();
-            // Convert to base currency
-            total += currencyService.convert(value, item.getOriginalCurrency(), baseCurrency);
-        }
-        return total; // Return the total current value
+        return totals.getValue();
     }
 
     // Calculates your profit or loss (current value - what you paid)
     // Example: Current $3,780 - Invested $2,500 = $1,280 profit
     public double calculateProfitLoss() {
-        return calculateCurrentValue() - calculateTotalInvestment(); // Subtract investment from current value
+        return totals.getProfitLoss();
+    }
+
+    // Profit/loss already locked in by sales, in the base currency
+    // Example: Sold 10 AAPL @ $160 that cost $125 -> $350 realized
+    public double getRealizedProfitLoss() {
+        return totals.getRealizedProfitLoss();
+    }
+
+    // Profit/loss on what you still hold, in the base currency (same as calculateProfitLoss)
+    public double getUnrealizedProfitLoss() {
+        return totals.getProfitLoss();
+    }
+
+    // Adds up every holding from scratch and replaces the running totals with the result
+    // Runs every VERIFY_TOTALS_EVERY price refreshes, so any rounding drift never lasts long.
+    // Uses the exchange rates the totals already cached - setBaseCurrency is what looks them up again
+    // Example: verifyTotals() returns 0.0 when the running totals were exact
+    public double verifyTotals() {
+        double drift;
+        synchronized (writeLock) {
+            PortfolioTotals fresh = totals.emptyWithSameRates();
+            for (PortfolioItem item : snapshot.getItems()) {
+                fresh.add(item.getOriginalCurrency(), item.getQuantity(), item.getPurchasePrice(),
+                        item.getStock().getCurrentPrice());
+            }
+            for (Map.Entry<String, Double> entry : realizedByCurrency().entrySet()) {
+                fresh.addRealized(entry.getKey(), entry.getValue());
+            }
+            drift = totals.replaceWith(fresh);
+        }
+        if (drift > 0.01) {
+            System.err.println("⚠️ Portfolio totals were off by " + String.format("%.2f", drift) + " - corrected");
+        }
+        return drift;
     }
 
     // Updates all stock prices by fetching from the internet
+    // Blocks until the refresh is done - see updateAllPricesAsync for details
     // Example: Updates Apple from $150 to real price $278, Tesla from $200 to real
     // price $250
-    public void updateAllPrices() {
-        System.out.println("\n📊 Updating stock prices..."); // Show we're starting
-        // Loop through each stock in your portfolio
-        for (PortfolioItem item : portfolioItems) {
+    public PriceRefreshResult updateAllPrices() {
+        return updateAllPricesAsync().join();
+    }
+
+    // Starts a price refresh and returns right away
+    // Each symbol is fetched once (even if you hold several lots of it), all
+    // symbols are fetched at the same time without a thread per request, and all
+    // new prices are saved to the database in one batch when the last answer arrives
+    // Example: updateAllPricesAsync().thenAccept(result -> showSummary(result))
+    public CompletableFuture<PriceRefreshResult> updateAllPricesAsync() {
+        long start = System.currentTimeMillis();
+        PriceRefreshResult result = new PriceRefreshResult();
+
+        // Use the symbol index of the current snapshot so each symbol is fetched only once
+        // Example: {AAPL=[Apple x10, Apple x5], TSLA=[Tesla x5]}
+        Map<String, List<PortfolioItem>> lotsBySymbol = snapshot.getLotsBySymbol();
+        if (lotsBySymbol.isEmpty()) {
+            return CompletableFuture.completedFuture(result);
+        }
+
+        System.out.println("\n📊 Updating " + lotsBySymbol.size() + " stock prices..."); // Show we're starting
+
+        // Ask for every quote at once; the price service decides how fast they really go out
+        Map<String, CompletableFuture<Quote>> pending = new LinkedHashMap<>();
+        for (Map.Entry<String, List<PortfolioItem>> entry : lotsBySymbol.entrySet()) {
+            String symbol = entry.getValue().get(0).getStock().getSymbol();
+            CompletableFuture<Quote> quote;
             try {
-                priceService.updateStockPrice(item.getStock()); // Fetch and update real price
+                quote = priceService.getQuoteAsync(symbol);
+            } catch (RuntimeException e) {
+                quote = CompletableFuture.failedFuture(e);
+            }
+            pending.put(entry.getKey(), quote);
+        }
 
-                // Save updated price to database
-                portfolioDAO.updateStockPrice(item.getStock().getSymbol(), item.getStock().getCurrentPrice());
+        // handleAsync: if every quote came from the cache, plain handle() would run this on the
+        // caller (often the Swing thread), where the database queue may make it wait
+        return CompletableFuture.allOf(pending.values().toArray(new CompletableFuture<?>[0]))
+                .handleAsync((ignored, error) -> {
+                    synchronized (writeLock) {
+                        return applyQuotes(pending, result, start);
+                    }
+                }, PRICE_APPLIER);
+    }
 
-                System.out.println("Updated " + item.getStock().getSymbol() +
-                        ": $" + item.getStock().getCurrentPrice()); // Show new price
-            } catch (Exception e) {
-                // If update fails (ex: no internet), show error
-                System.err.println("Failed to update " + item.getStock().getSymbol());
+    // Gives every lot of each quoted symbol a new copy holding the new price, publishes them
+    // all in one new snapshot, then saves the prices in one batch
+    // Runs under writeLock, against the lots as they are now (a sale may have happened meanwhile).
+    // The old lots and their Stocks are never changed - readers of older snapshots still see them whole
+    private PriceRefreshResult applyQuotes(Map<String, CompletableFuture<Quote>> pending,
+            PriceRefreshResult result, long start) {
+        Map<String, Double> newPrices = new LinkedHashMap<>(); // Stored symbol -> new price
+        Map<String, List<PortfolioItem>> repriced = new LinkedHashMap<>(); // Symbol -> its new lots
+        for (Map.Entry<String, CompletableFuture<Quote>> entry : pending.entrySet()) {
+            String symbol = entry.getKey();
+            try {
+                Quote quote = entry.getValue().join();
+                List<PortfolioItem> lots = snapshot.getLots(symbol);
+                if (lots.isEmpty()) {
+                    continue; // Sold out while the quote was on its way
+                }
+                List<PortfolioItem> fresh = new ArrayList<>(lots.size());
+                for (PortfolioItem lot : lots) {
+                    PortfolioItem copy = withQuote(lot, quote);
+                    totals.priceChanged(lot.getOriginalCurrency(), lot.getQuantity(),
+                            lot.getStock().getCurrentPrice(), quote.getPrice());
+                    newPrices.put(lot.getStock().getSymbol(), quote.getPrice());
+                    fresh.add(copy);
+                }
+                repriced.put(symbol, fresh);
+                HoldingsColumns store = columns;
+                if (store != null) {
+                    store.setPrice(symbol, quote.getPrice());
+                }
+                result.recordSuccess(symbol, quote.getPrice());
+            } catch (CompletionException | CancellationException e) {
+                // If update fails (ex: no internet), remember why
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                result.recordFailure(symbol, String.valueOf(cause.getMessage()));
             }
         }
+        if (!repriced.isEmpty()) {
+            snapshot = snapshot.withRepricedLots(repriced); // Every new price appears at once
+            for (Map.Entry<String, List<PortfolioItem>> entry : repriced.entrySet()) {
+                rank(entry.getKey(), entry.getValue());
+            }
+        }
+
+        // Save all updated prices to database in one transaction
+        try {
+            if (journal == null) { // Journal mode keeps prices in its next checkpoint
+                portfolioDAO.updateStockPrices(newPrices);
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Error saving prices to database: " + e.getMessage());
+            for (String symbol : result.getUpdatedPrices().keySet().toArray(new String[0])) {
+                result.recordFailure(symbol, "Price fetched but not saved: " + e.getMessage());
+            }
+        }
+
+        // Keep every refreshed price in the price history too (current_price only has the latest)
+        try {
+            historyDAO.saveTicks(newPrices, Instant.now());
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not record price history: " + e.getMessage());
+        }
+
+        // Every so often, re-add the totals from scratch to catch any drift
+        if (++refreshesSinceVerify >= VERIFY_TOTALS_EVERY) {
+            refreshesSinceVerify = 0;
+            verifyTotals();
+        }
+
+        // One event for the whole refresh, with only the symbols that got a price
+        if (!repriced.isEmpty()) {
+            fire(l -> l.pricesChanged(repriced));
+        }
+
+        result.setElapsedMillis(System.currentTimeMillis() - start);
+        System.out.println("✅ " + result); // Show summary
+        return result;
+    }
+
+    // A copy of a lot (same id, shares and cost) whose Stock has the quote's price and change
+    // Example: withQuote(Apple x10 @ 150, AAPL @ 280.00 +1.2%) -> a new Apple x10 @ 150, now 280.00
+    private static PortfolioItem withQuote(PortfolioItem lot, Quote quote) {
+        Stock stock = new Stock(lot.getStock());
+        quote.applyTo(stock);
+        PortfolioItem copy = new PortfolioItem(stock, lot.getQuantity(), lot.getPurchasePrice(),
+                lot.getOriginalCurrency());
+        copy.setId(lot.getId());
+        return copy;
     }
 
     // Displays your entire portfolio in a nice format
@@ -247,7 +790,7 @@ public class PortfolioService {
         double totalGainLoss = 0; // Track total profit/loss
 
         // Loop through each item and display it
-        for (PortfolioItem item : portfolioItems) {
+        for (PortfolioItem item : snapshot.getItems()) {
             System.out.println(item); // Print item (ex: "AAPL x10 @ $150.0 (Current: $278.12)")
             System.out.println("   Value: $" + String.format("%.2f", item.getTotalValue())); // Show total value
             System.out.println("   Gain/Loss: $" + String.format("%.2f", item.getGainLoss())); // Show profit/loss
@@ -264,26 +807,90 @@ public class PortfolioService {
     }
 
     // Displays all your transaction history
-    // Shows every buy/sell you've made
+    // Shows every buy/sell you've made, newest first, reading 500 at a time
     public void displayTransactions() {
         System.out.println("\n📜 Transaction History:");
         System.out.println("======================");
-        // Loop through each transaction and print it
-        for (Transaction transaction : transactions) {
-            System.out.println(transaction); // Print transaction (ex: "BUY 10 AAPL @ $150.0 on 2024-01-15...")
+        try {
+            TransactionPage page = null;
+            do {
+                page = history().loadTransactionsPage(page, 500);
+                // Loop through each transaction and print it
+                for (Transaction transaction : page.getTransactions()) {
+                    System.out.println(transaction); // Print transaction (ex: "BUY 10 AAPL @ $150.0 on 2024-01-15...")
+                }
+            } while (page.hasMore());
+        } catch (SQLException e) {
+            System.err.println("❌ Could not load transactions: " + e.getMessage());
         }
     }
 
     // Getter - returns the list of portfolio items
     // Example: service.getPortfolioItems() returns [Apple x10, Tesla x5]
     public List<PortfolioItem> getPortfolioItems() {
-        return portfolioItems; // Return the list
+        return snapshot.getItems(); // Current snapshot - read-only, never changes under you
     }
 
-    // Getter - returns the list of transactions
+    // Getter - returns the list of transactions, newest first
+    // Reads the whole history from the database - screens should use getTransactionPage
     // Example: service.getTransactions() returns all buy/sell history
     public List<Transaction> getTransactions() {
-        return transactions; // Return the list
+        try {
+            return history().loadAllTransactions();
+        } catch (SQLException e) {
+            System.err.println("❌ Could not load transactions: " + e.getMessage());
+            return snapshot.getTransactions(); // At least the ones made since startup
+        }
+    }
+
+    // Returns one page of transactions, newest first
+    // Pass null for the newest page, then the page you got to continue after it
+    // Example: TransactionPage page = service.getTransactionPage(null, 100);
+    public TransactionPage getTransactionPage(TransactionPage after, int limit) throws SQLException {
+        return history().loadTransactionsPage(after, limit);
+    }
+
+    // How many transactions are saved (ex: 1250)
+    public int getTransactionCount() throws SQLException {
+        return history().countTransactions();
+    }
+
+    // Returns the transactions from "from" up to (not including) "to", oldest first
+    // Only that window is read from the database (timestamp index)
+    // Example: service.getTransactionsBetween(LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0))
+    public List<Transaction> getTransactionsBetween(LocalDateTime from, LocalDateTime to) {
+        try {
+            return history().loadTransactionsBetween(from, to);
+        } catch (SQLException e) {
+            System.err.println("❌ Could not load transactions: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    // Returns the transactions from "from" until now, oldest first
+    public List<Transaction> getTransactionsSince(LocalDateTime from) {
+        try {
+            return history().loadTransactionsSince(from);
+        } catch (SQLException e) {
+            System.err.println("❌ Could not load transactions: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    // Returns the transactions of the last few days, oldest first
+    // Example: service.getTransactionsForLastDays(30) returns last month's trades
+    public List<Transaction> getTransactionsForLastDays(int days) {
+        return getTransactionsSince(LocalDateTime.now().minusDays(days));
+    }
+
+    // Profit/loss locked in by sales inside a time window, in the base currency
+    // Example: service.getRealizedProfitLossBetween(startOfYear, now) -> this year's realized gains
+    public double getRealizedProfitLossBetween(LocalDateTime from, LocalDateTime to) {
+        double realized = 0;
+        for (Transaction transaction : getTransactionsBetween(from, to)) {
+            realized += transaction.getRealizedProfitLoss() * totals.rateFor(transaction.getCurrency());
+        }
+        return realized;
     }
 
     // Getter - returns the price service
@@ -309,15 +916,85 @@ public class PortfolioService {
         return "Miscellaneous";
     }
 
+    // Top gainers/losers/movers rank each stock once (lots of one stock share the same price)
+    // Read from the ranking kept up to date on every trade and price refresh - O(K), no walk
+    // Example: getTopGainers(5) returns the 5 stocks that went up the most today
     public java.util.List<PortfolioItem> getTopGainers(int limit) {
-        java.util.List<PortfolioItem> items = new java.util.ArrayList<>(getPortfolioItems());
-        items.sort((a, b) -> Double.compare(b.getStock().getChangePercent(), a.getStock().getChangePercent()));
-        return items.subList(0, Math.min(limit, items.size()));
+        return ranking.topGainers(limit);
     }
 
+    // Example: getTopLosers(5) returns the 5 stocks that went down the most today
     public java.util.List<PortfolioItem> getTopLosers(int limit) {
-        java.util.List<PortfolioItem> items = new java.util.ArrayList<>(getPortfolioItems());
-        items.sort((a, b) -> Double.compare(a.getStock().getChangePercent(), b.getStock().getChangePercent()));
-        return items.subList(0, Math.min(limit, items.size()));
+        return ranking.topLosers(limit);
+    }
+
+    // Biggest moves in either direction (ex: -6% ranks above +4%)
+    public java.util.List<PortfolioItem> getBiggestMovers(int limit) {
+        return ranking.biggestMovers(limit);
+    }
+
+    // Symbols of your biggest holdings by current value in the base currency (all lots together)
+    // Example: getLargestPositions(3) returns [NVDA, AAPL, TSLA]
+    public java.util.List<String> getLargestPositions(int limit) {
+        java.util.List<String> symbols = new ArrayList<>();
+        for (PortfolioItem lot : ranking.largest(limit)) {
+            symbols.add(symbolKey(lot.getStock().getSymbol()));
+        }
+        return symbols;
+    }
+
+    // Moves one stock to its new place in the ranking (or takes it out when no lots are left)
+    // Call under writeLock. Example: rank("AAPL", [Apple x10, Apple x5])
+    private void rank(String symbol, List<PortfolioItem> lots) {
+        String key = symbolKey(symbol);
+        if (lots.isEmpty()) {
+            ranking.remove(key);
+            return;
+        }
+        double value = 0;
+        for (PortfolioItem lot : lots) {
+            value += lot.getTotalValue() * totals.rateFor(lot.getOriginalCurrency());
+        }
+        PortfolioItem first = lots.get(0); // Every lot of a stock has the same price and change
+        ranking.put(key, first, first.getStock().getChangePercent(), value);
+    }
+
+    // Rebuilds the ranking from the current snapshot (at startup and when the base currency changes)
+    private void rankAll() {
+        ranking.clear();
+        for (Map.Entry<String, List<PortfolioItem>> entry : snapshot.getLotsBySymbol().entrySet()) {
+            rank(entry.getKey(), entry.getValue());
+        }
+    }
+
+    // Current value of every lot of a stock, in the base currency
+    // Example: getPositionValue("AAPL") for 15 shares at $278 returns 4,170 (converted)
+    public double getPositionValue(String symbol) {
+        HoldingsColumns store = columns;
+        if (store != null) {
+            return store.getPositionValue(symbol, totals);
+        }
+        double value = 0;
+        for (PortfolioItem lot : getLots(symbol)) {
+            value += convertToBase(lot.getTotalValue(), lot.getOriginalCurrency());
+        }
+        return value;
+    }
+
+    // Current value per sector, in the base currency (lots with no sector count as "Other")
+    // Example: getSectorAllocation() returns {"IT & Tech" -> 52,000.0, "Energy" -> 8,400.0}
+    public java.util.Map<String, Double> getSectorAllocation() {
+        HoldingsColumns store = columns;
+        if (store != null) {
+            return store.getValueBySector(totals);
+        }
+        java.util.Map<String, Double> sectors = new LinkedHashMap<>();
+        for (PortfolioItem item : snapshot.getItems()) {
+            String sector = item.getStock().getSector();
+            if (sector == null || sector.isEmpty())
+                sector = "Other";
+            sectors.merge(sector, convertToBase(item.getTotalValue(), item.getOriginalCurrency()), Double::sum);
+        }
+        return sectors;
     }
 }
@@ -0,0 +1,192 @@
+package com.portfolio.service; // This file belongs to the "service" folder
+
+import com.portfolio.model.PortfolioItem; // Import PortfolioItem class
+import com.portfolio.model.Transaction; // Import Transaction class
+import java.util.AbstractList; // Base class for the read-only transaction view
+import java.util.ArrayList; // Import ArrayList
+import java.util.Arrays; // Import Arrays to grow the transaction array
+import java.util.Collections; // Import Collections for read-only views
+import java.util.HashMap; // Import HashMap for share counts
+import java.util.LinkedHashMap; // Import LinkedHashMap to keep symbols in order
+import java.util.List; // Import List interface
+import java.util.Map; // Import Map interface
+import java.util.Set; // Import Set interface
+
+/**
+ * PortfolioSnapshot - A frozen picture of the portfolio at one moment
+ * Holds the lots of every stock (oldest first) and the transactions made since the
+ * app started (older history stays in the database - see PortfolioService.getTransactionPage).
+ * A snapshot never changes: buying or selling builds a new one and PortfolioService
+ * swaps it in all at once. Anyone still reading the old snapshot (ex: a table being
+ * drawn, an AI chat thread) keeps a consistent view and never needs a lock.
+ *
+ * A new snapshot shares everything it can with the old one: a trade copies only the
+ * lots of the stock traded and the symbol map, and the transaction history is an
+ * append-only array, so trading stays fast with tens of thousands of lots.
+ *
+ * Lots and their Stocks are never changed either: a price refresh gives the refreshed
+ * lots new copies holding the new price, in a new snapshot, so a reader never sees a
+ * new price next to an old change % or half a refresh.
+ *
+ * Example:
+ *   PortfolioSnapshot now = service.getSnapshot();
+ *   for (PortfolioItem item : now.getItems()) { ... } // Safe even while another thread sells
+ */
+public final class PortfolioSnapshot {
+    private final Map<String, List<PortfolioItem>> lotsBySymbol; // "AAPL" -> [Apple x10, Apple x5], oldest first
+    private final Map<String, Integer> sharesBySymbol; // "AAPL" -> 15 (all lots)
+
+    // Transactions live in an array that only ever grows at the end. Every snapshot
+    // sees the first "transactionCount" entries, which never change once written.
+    private final Transaction[] transactionArray;
+    private final int transactionCount;
+
+    private volatile List<PortfolioItem> items; // Every lot in one list, built the first time someone asks
+
+    // Constructor - builds the first snapshot from loaded lots and transactions
+    PortfolioSnapshot(List<PortfolioItem> items, List<Transaction> transactions) {
+        Map<String, List<PortfolioItem>> lots = new LinkedHashMap<>();
+        Map<String, Integer> shares = new HashMap<>();
+        for (PortfolioItem item : items) {
+            String key = normalize(item.getStock().getSymbol());
+            lots.computeIfAbsent(key, k -> new ArrayList<>()).add(item);
+            shares.merge(key, item.getQuantity(), Integer::sum);
+        }
+        for (Map.Entry<String, List<PortfolioItem>> entry : lots.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        this.lotsBySymbol = Collections.unmodifiableMap(lots);
+        this.sharesBySymbol = shares;
+        this.transactionArray = transactions.toArray(new Transaction[Math.max(16, transactions.size())]);
+        this.transactionCount = transactions.size();
+    }
+
+    private PortfolioSnapshot(Map<String, List<PortfolioItem>> lotsBySymbol, Map<String, Integer> sharesBySymbol,
+            Transaction[] transactionArray, int transactionCount) {
+        this.lotsBySymbol = Collections.unmodifiableMap(lotsBySymbol);
+        this.sharesBySymbol = sharesBySymbol;
+        this.transactionArray = transactionArray;
+        this.transactionCount = transactionCount;
+    }
+
+    // Returns the same lots with no transactions (after a journal checkpoint has counted them)
+    PortfolioSnapshot withoutTransactions() {
+        return new PortfolioSnapshot(lotsBySymbol, sharesBySymbol, new Transaction[16], 0);
+    }
+
+    // Symbols are matched without caring about case or spaces (" aapl" is "AAPL")
+    static String normalize(String symbol) {
+        return symbol.trim().toUpperCase();
+    }
+
+    /**
+     * Returns a new snapshot where one stock has the given lots, plus one more transaction
+     * Must only be called on the newest snapshot, under PortfolioService's writeLock
+     *
+     * @param symbol      The stock that changed
+     * @param lots        All its lots now, oldest first (empty if none are left)
+     * @param transaction The buy/sell that caused the change
+     */
+    PortfolioSnapshot withLots(String symbol, List<PortfolioItem> lots, Transaction transaction) {
+        String key = normalize(symbol);
+        Map<String, List<PortfolioItem>> newLots = new LinkedHashMap<>(lotsBySymbol);
+        Map<String, Integer> newShares = new HashMap<>(sharesBySymbol);
+        if (lots.isEmpty()) {
+            newLots.remove(key);
+            newShares.remove(key);
+        } else {
+            int shares = 0;
+            for (PortfolioItem lot : lots) {
+                shares += lot.getQuantity();
+            }
+            newLots.put(key, Collections.unmodifiableList(lots));
+            newShares.put(key, shares);
+        }
+
+        // Append the transaction - older snapshots only look at the entries before it
+        Transaction[] array = transactionArray;
+        if (transactionCount == array.length) {
+            array = Arrays.copyOf(array, array.length * 2);
+        }
+        array[transactionCount] = transaction;
+
+        return new PortfolioSnapshot(newLots, newShares, array, transactionCount + 1);
+    }
+
+    /**
+     * Returns a new snapshot where some stocks have new copies of their lots (after a price refresh)
+     * Share counts and transactions stay the same. Must only be called on the newest
+     * snapshot, under PortfolioService's writeLock
+     *
+     * @param lots Symbol -> its lots now, oldest first (ex: {"AAPL" -> [Apple x10 @ 280, Apple x5 @ 280]})
+     */
+    PortfolioSnapshot withRepricedLots(Map<String, List<PortfolioItem>> lots) {
+        Map<String, List<PortfolioItem>> newLots = new LinkedHashMap<>(lotsBySymbol);
+        for (Map.Entry<String, List<PortfolioItem>> entry : lots.entrySet()) {
+            newLots.put(normalize(entry.getKey()), Collections.unmodifiableList(entry.getValue()));
+        }
+        return new PortfolioSnapshot(newLots, sharesBySymbol, transactionArray, transactionCount);
+    }
+
+    // Returns a new snapshot with one more lot of a stock (the newest)
+    PortfolioSnapshot withLot(PortfolioItem item, Transaction transaction) {
+        List<PortfolioItem> lots = new ArrayList<>(getLots(item.getStock().getSymbol()));
+        lots.add(item);
+        return withLots(item.getStock().getSymbol(), lots, transaction);
+    }
+
+    // Returns every lot, grouped by stock
+    public List<PortfolioItem> getItems() {
+        List<PortfolioItem> all = items;
+        if (all == null) {
+            List<PortfolioItem> built = new ArrayList<>();
+            for (List<PortfolioItem> lots : lotsBySymbol.values()) {
+                built.addAll(lots);
+            }
+            all = Collections.unmodifiableList(built);
+            items = all;
+        }
+        return all;
+    }
+
+    // Returns the buys/sells made since the app started (in journal mode: since the
+    // latest checkpoint), oldest first
+    public List<Transaction> getTransactions() {
+        Transaction[] array = transactionArray;
+        int count = transactionCount;
+        return new AbstractList<Transaction>() {
+            @Override
+            public Transaction get(int index) {
+                if (index < 0 || index >= count) {
+                    throw new IndexOutOfBoundsException("Index " + index + ", size " + count);
+                }
+                return array[index];
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    // Returns every lot of a stock, oldest first (empty if you don't own it)
+    public List<PortfolioItem> getLots(String symbol) {
+        return lotsBySymbol.getOrDefault(normalize(symbol), Collections.emptyList());
+    }
+
+    // Returns how many shares of a stock you own, across all lots
+    public int getQuantity(String symbol) {
+        return sharesBySymbol.getOrDefault(normalize(symbol), 0);
+    }
+
+    // Returns the symbols you own, each once (ex: [AAPL, TSLA])
+    public Set<String> getSymbols() {
+        return lotsBySymbol.keySet();
+    }
+
+    // Returns symbol -> lots for every stock you own
+    Map<String, List<PortfolioItem>> getLotsBySymbol() {
+        return lotsBySymbol;
+    }
+}
@@ -0,0 +1,186 @@
+package com.portfolio.service; // This file belongs to the "service" folder
+
+import java.util.Collections; // Import Collections for read-only views
+import java.util.HashMap; // Import HashMap for exchange rates
+import java.util.LinkedHashMap; // Import LinkedHashMap to keep currencies in order
+import java.util.Map; // Import Map interface
+import java.util.Set; // Import Set interface
+
+/**
+ * PortfolioTotals - Running totals of what you invested and what it's worth now
+ * Instead of adding up every holding each time the dashboard asks, the totals are
+ * adjusted by the difference on every buy, sell and price change, so reading them is instant.
+ * Profit/loss locked in by sales (realized) is kept the same way.
+ *
+ * Totals are kept per currency (ex: USD holdings in dollars, INR holdings in rupees)
+ * and in the base currency. Each currency's exchange rate is looked up once and cached
+ * until refreshRates() is called.
+ *
+ * Example:
+ *   totals.add("USD", 10, 150.0, 150.0);      // Bought 10 @ $150
+ *   totals.priceChanged("USD", 10, 150.0, 160.0); // Price moved to $160
+ *   totals.getValue();                         // 1,600 USD in the base currency
+ *
+ * All methods are synchronized - price refreshes update the totals from background threads.
+ */
+public class PortfolioTotals {
+    private static final int INVESTED = 0;
+    private static final int VALUE = 1;
+    private static final int REALIZED = 2; // Profit/loss already locked in by sales
+
+    private final CurrencyService currencyService; // For exchange rates
+    private final Map<String, double[]> byCurrency = new LinkedHashMap<>(); // "USD" -> {invested, value, realized}
+    private final Map<String, Double> rates = new HashMap<>(); // "USD" -> base currency per 1 USD
+    private String baseCurrency;
+    private double investedBase; // Sum of invested in the base currency
+    private double valueBase; // Sum of value in the base currency
+    private double realizedBase; // Sum of realized profit/loss in the base currency
+
+    // Constructor - creates empty totals shown in the given base currency
+    // Example: new PortfolioTotals(currencyService, "INR")
+    PortfolioTotals(CurrencyService currencyService, String baseCurrency) {
+        this.currencyService = currencyService;
+        this.baseCurrency = baseCurrency;
+    }
+
+    // Adds shares (use a negative quantity to take them away)
+    // Example: add("USD", 10, 150.0, 278.12) for a lot of 10 bought at $150, now $278.12
+    synchronized void add(String currency, int quantity, double purchasePrice, double currentPrice) {
+        double invested = quantity * purchasePrice;
+        double value = quantity * currentPrice;
+        double[] sums = byCurrency.computeIfAbsent(currency, c -> new double[3]);
+        sums[INVESTED] += invested;
+        sums[VALUE] += value;
+
+        double rate = rate(currency);
+        investedBase += invested * rate;
+        valueBase += value * rate;
+    }
+
+    // A sale locked in some profit or loss
+    // Example: addRealized("USD", 350.0) after selling 10 @ $160 that cost $125
+    synchronized void addRealized(String currency, double amount) {
+        byCurrency.computeIfAbsent(currency, c -> new double[3])[REALIZED] += amount;
+        realizedBase += amount * rate(currency);
+    }
+
+    // A holding's price moved - only its value changes
+    // Example: priceChanged("USD", 10, 278.12, 280.00) adds 18.80 USD of value
+    synchronized void priceChanged(String currency, int quantity, double oldPrice, double newPrice) {
+        double delta = quantity * (newPrice - oldPrice);
+        byCurrency.computeIfAbsent(currency, c -> new double[3])[VALUE] += delta;
+        valueBase += delta * rate(currency);
+    }
+
+    // Shows the totals in another currency (looks up the rates again)
+    synchronized void setBaseCurrency(String baseCurrency) {
+        this.baseCurrency = baseCurrency;
+        refreshRates();
+    }
+
+    // Looks up every exchange rate again and re-adds the base totals
+    // Costs one conversion per currency, not per holding
+    synchronized void refreshRates() {
+        rates.clear();
+        recomputeBase();
+    }
+
+    // New empty totals in the same base currency that start with these cached exchange rates
+    // Example: totals.emptyWithSameRates() to add everything up again without asking for rates
+    synchronized PortfolioTotals emptyWithSameRates() {
+        PortfolioTotals empty = new PortfolioTotals(currencyService, baseCurrency);
+        empty.rates.putAll(rates);
+        return empty;
+    }
+
+    // Replaces the running totals with ones freshly added up from every holding
+    // Returns how far off the base-currency value was (0 when the running totals were right)
+    synchronized double replaceWith(PortfolioTotals fresh) {
+        double drift = Math.abs(valueBase - fresh.valueBase) + Math.abs(investedBase - fresh.investedBase);
+        byCurrency.clear();
+        for (Map.Entry<String, double[]> entry : fresh.byCurrency.entrySet()) {
+            byCurrency.put(entry.getKey(), entry.getValue().clone());
+        }
+        rates.clear();
+        rates.putAll(fresh.rates);
+        investedBase = fresh.investedBase;
+        valueBase = fresh.valueBase;
+        realizedBase = fresh.realizedBase;
+        return drift;
+    }
+
+    private void recomputeBase() {
+        investedBase = 0;
+        valueBase = 0;
+        realizedBase = 0;
+        for (Map.Entry<String, double[]> entry : byCurrency.entrySet()) {
+            double rate = rate(entry.getKey());
+            investedBase += entry.getValue()[INVESTED] * rate;
+            valueBase += entry.getValue()[VALUE] * rate;
+            realizedBase += entry.getValue()[REALIZED] * rate;
+        }
+    }
+
+    // Base currency per 1 unit of the currency (ex: rateFor("USD") = 83.2 when the base is INR)
+    synchronized double rateFor(String currency) {
+        return rate(currency);
+    }
+
+    // Base currency per 1 unit of the currency, asked once and then remembered
+    private double rate(String currency) {
+        Double rate = rates.get(currency);
+        if (rate == null) {
+            rate = currency.equals(baseCurrency) ? 1.0 : currencyService.convert(1.0, currency, baseCurrency);
+            rates.put(currency, rate);
+        }
+        return rate;
+    }
+
+    // Total invested, in the base currency
+    public synchronized double getInvested() {
+        return investedBase;
+    }
+
+    // Total current value, in the base currency
+    public synchronized double getValue() {
+        return valueBase;
+    }
+
+    // Current value minus invested, in the base currency (both read together)
+    // This is the unrealized profit/loss - what you'd make if you sold everything now
+    public synchronized double getProfitLoss() {
+        return valueBase - investedBase;
+    }
+
+    // Profit/loss already locked in by sales, in the base currency
+    public synchronized double getRealizedProfitLoss() {
+        return realizedBase;
+    }
+
+    // Total invested in one currency, in that currency (ex: getInvested("USD") = 1500.0)
+    public synchronized double getInvested(String currency) {
+        double[] sums = byCurrency.get(currency);
+        return sums != null ? sums[INVESTED] : 0.0;
+    }
+
+    // Total current value in one currency, in that currency
+    public synchronized double getValue(String currency) {
+        double[] sums = byCurrency.get(currency);
+        return sums != null ? sums[VALUE] : 0.0;
+    }
+
+    // Realized profit/loss in one currency, in that currency
+    public synchronized double getRealizedProfitLoss(String currency) {
+        double[] sums = byCurrency.get(currency);
+        return sums != null ? sums[REALIZED] : 0.0;
+    }
+
+    // The currencies you hold something in (ex: [USD, INR])
+    public synchronized Set<String> getCurrencies() {
+        return Collections.unmodifiableSet(new java.util.LinkedHashSet<>(byCurrency.keySet()));
+    }
+
+    public synchronized String getBaseCurrency() {
+        return baseCurrency;
+    }
+}
@@ -0,0 +1,72 @@
+package com.portfolio.service; // This file belongs to the "service" folder
+
+import java.util.Collections; // Import Collections for read-only views
+import java.util.LinkedHashMap; // Import LinkedHashMap to keep symbols in order
+import java.util.Map; // Import Map interface
+
+/**
+ * PriceRefreshResult - The outcome of one price refresh run
+ * Tells you which symbols were updated (and to what price) and which failed (and why)
+ *
+ * Example:
+ *   PriceRefreshResult result = portfolioService.updateAllPrices();
+ *   result.getUpdatedPrices() -> {AAPL=278.12, TSLA=250.4}
+ *   result.getFailures()      -> {INFY=API failed: 503}
+ */
+public class PriceRefreshResult {
+    private final Map<String, Double> updatedPrices = new LinkedHashMap<>(); // Symbol -> new price
+    private final Map<String, String> failures = new LinkedHashMap<>(); // Symbol -> error message
+    private long elapsedMillis; // How long the whole refresh took
+
+    // Records a symbol whose price was fetched successfully
+    // Example: result.recordSuccess("AAPL", 278.12)
+    void recordSuccess(String symbol, double price) {
+        updatedPrices.put(symbol, price);
+    }
+
+    // Records a symbol whose price could not be fetched or saved
+    // Example: result.recordFailure("INFY", "API failed: 503")
+    void recordFailure(String symbol, String reason) {
+        updatedPrices.remove(symbol); // A symbol is either updated or failed, never both
+        failures.put(symbol, reason);
+    }
+
+    void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getter - symbols that were updated, with their new price
+    public Map<String, Double> getUpdatedPrices() {
+        return Collections.unmodifiableMap(updatedPrices);
+    }
+
+    // Getter - symbols that failed, with the reason
+    public Map<String, String> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    // Returns true if this symbol was refreshed successfully
+    public boolean isUpdated(String symbol) {
+        return updatedPrices.containsKey(symbol);
+    }
+
+    public int getSuccessCount() {
+        return updatedPrices.size();
+    }
+
+    public int getFailureCount() {
+        return failures.size();
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    // Formats the result as a one-line summary
+    // Example: "Refreshed 12 symbols, 1 failed in 840 ms"
+    @Override
+    public String toString() {
+        return "Refreshed " + updatedPrices.size() + " symbols, " + failures.size() + " failed in "
+                + elapsedMillis + " ms";
+    }
+}
@@ -0,0 +1,100 @@
+package com.portfolio.service; // This file belongs to the "service" folder
+
+import com.portfolio.model.Quote; // Import Quote class
+import java.lang.management.ManagementFactory; // To ask the JVM how many bytes this thread allocated
+import java.nio.charset.StandardCharsets; // For turning the reply into bytes and back
+
+/**
+ * QuoteParserBenchmark - Compares GlobalQuoteParser with the old String/indexOf scan
+ * Parses the same GLOBAL_QUOTE reply many times both ways and prints the time and the
+ * bytes allocated per parse:
+ *   1. GlobalQuoteParser - one pass over the bytes, fills every field of a reused Quote
+ *   2. Old scan - decode the bytes to a String, then indexOf/substring for price and change
+ *      (only two fields, like AlphaVantageService did before the parser)
+ *
+ * Run it with:
+ *   java -cp ".;lib/*" com.portfolio.service.QuoteParserBenchmark [count]
+ * Example: ... QuoteParserBenchmark 2000000
+ */
+public class QuoteParserBenchmark {
+
+    // A real reply, as Alpha Vantage sends it
+    private static final byte[] REPLY = ("{\n    \"Global Quote\": {\n"
+            + "        \"01. symbol\": \"AAPL\",\n"
+            + "        \"02. open\": \"276.5000\",\n"
+            + "        \"03. high\": \"279.8800\",\n"
+            + "        \"04. low\": \"275.9100\",\n"
+            + "        \"05. price\": \"278.1200\",\n"
+            + "        \"06. volume\": \"41230000\",\n"
+            + "        \"07. latest trading day\": \"2024-11-29\",\n"
+            + "        \"08. previous close\": \"274.7400\",\n"
+            + "        \"09. change\": \"3.3800\",\n"
+            + "        \"10. change percent\": \"1.2303%\"\n"
+            + "    }\n}").getBytes(StandardCharsets.UTF_8);
+
+    private static double sink; // Keeps the JIT from throwing the results away
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        GlobalQuoteParser parser = new GlobalQuoteParser();
+        Quote quote = new Quote();
+
+        // Warm up both, so the JIT has compiled them before we time anything
+        for (int i = 0; i < 200_000; i++) {
+            parser.parse(REPLY, quote);
+            sink += quote.getPrice() + oldScan(REPLY);
+        }
+
+        // ===== 1. GLOBAL QUOTE PARSER =====
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            parser.parse(REPLY, quote);
+            sink += quote.getPrice();
+        }
+        report("GlobalQuoteParser (all 9 fields)", start, bytes, count);
+
+        // ===== 2. OLD STRING + indexOf SCAN =====
+        bytes = allocatedBytes();
+        start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            sink += oldScan(REPLY);
+        }
+        report("Old String + indexOf (price, change %)", start, bytes, count);
+
+        System.out.println("(checksum " + (long) sink + ")");
+    }
+
+    // What AlphaVantageService did before: the body as a String, then two indexOf scans
+    private static double oldScan(byte[] body) {
+        String json = new String(body, StandardCharsets.UTF_8);
+        return field(json, "\"05. price\":") + field(json, "\"10. change percent\":");
+    }
+
+    // Example: field(json, "\"05. price\":") returns 278.12
+    private static double field(String json, String key) {
+        int index = json.indexOf(key);
+        if (index == -1) {
+            return 0.0;
+        }
+        int startQuote = json.indexOf("\"", index + key.length());
+        int endQuote = json.indexOf("\"", startQuote + 1);
+        return Double.parseDouble(json.substring(startQuote + 1, endQuote).replace("%", ""));
+    }
+
+    // Bytes this thread has allocated so far (-1 if the JVM can't tell us)
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static void report(String what, long startNanos, long startBytes, int count) {
+        double nanos = (System.nanoTime() - startNanos) / (double) count;
+        long end = allocatedBytes();
+        String perOp = startBytes < 0 || end < 0 ? "n/a" : String.format("%.0f B/op", (end - startBytes) / (double) count);
+        System.out.println(String.format("⏱️ %-42s %8.1f ns/op  %10s", what, nanos, perOp));
+    }
+}
@@ -0,0 +1,307 @@
+package com.portfolio.service; // This file belongs to the "service" folder
+
+import com.portfolio.model.Quote; // Import Quote class
+import com.portfolio.model.Stock; // Import Stock class
+import java.time.LocalDate; // Import LocalDate to know when the daily quota resets
+import java.util.ArrayList; // Import ArrayList
+import java.util.Collection; // Import Collection interface
+import java.util.HashSet; // Import HashSet
+import java.util.List; // Import List interface
+import java.util.Set; // Import Set interface
+import java.util.concurrent.CompletableFuture; // A result that arrives later
+import java.util.concurrent.CompletionException; // Wraps errors inside a CompletableFuture
+import java.util.concurrent.ExecutionException; // Wraps errors thrown by queued work
+import java.util.concurrent.PriorityBlockingQueue; // Thread-safe queue that keeps the most urgent request first
+import java.util.concurrent.TimeUnit; // For converting between nanoseconds and milliseconds
+import java.util.concurrent.atomic.AtomicLong; // Thread-safe counters
+
+/**
+ * RateLimitedPriceService - Keeps price requests inside the API quota
+ * Wraps another StockPriceService (usually AlphaVantageService) and puts every request in a
+ * queue. One background thread takes requests off the queue only when the quota allows it,
+ * using a token bucket: tokens refill evenly over each minute, and each request spends one.
+ *
+ * Symbols that are visible on screen are fetched before everything else.
+ *
+ * Example:
+ *   StockPriceService prices = new RateLimitedPriceService(new AlphaVantageService());
+ *   prices.getCurrentPrice("AAPL"); // Waits for a free slot, then fetches
+ */
+public class RateLimitedPriceService implements StockPriceService {
+    // Alpha Vantage free tier limits
+    public static final int DEFAULT_REQUESTS_PER_MINUTE = 5;
+    public static final int DEFAULT_REQUESTS_PER_DAY = 25;
+
+    private final StockPriceService delegate; // The real service that talks to the API
+    private final int requestsPerMinute; // Bucket size and refill rate
+    private final int requestsPerDay; // Hard daily cap
+
+    // Requests waiting for a slot, most urgent first
+    private final PriorityBlockingQueue<QueuedRequest> queue = new PriorityBlockingQueue<>();
+    private final AtomicLong sequence = new AtomicLong(); // Keeps equal-priority requests in FIFO order
+    private volatile Set<String> visibleSymbols = new HashSet<>(); // Symbols currently on screen
+    private volatile int inHand; // 1 while the dispatcher holds a request it took off the queue
+
+    // Token bucket state (guarded by "this")
+    private double minuteTokens; // Requests we may send right now
+    private long lastRefillNanos; // When we last added tokens
+    private int usedToday; // Requests sent since the day started
+    private LocalDate quotaDay; // Which day usedToday belongs to
+
+    // Metrics
+    private final AtomicLong dispatchedCount = new AtomicLong(); // Requests sent to the API
+    private final AtomicLong rejectedCount = new AtomicLong(); // Requests refused (daily quota used up)
+    private final AtomicLong totalWaitNanos = new AtomicLong(); // Sum of time requests spent queued
+    private final AtomicLong maxWaitNanos = new AtomicLong(); // Longest time a request spent queued
+
+    // Constructor with the free tier limits
+    // Example: new RateLimitedPriceService(new AlphaVantageService())
+    public RateLimitedPriceService(StockPriceService delegate) {
+        this(delegate, DEFAULT_REQUESTS_PER_MINUTE, DEFAULT_REQUESTS_PER_DAY);
+    }
+
+    // Constructor with custom limits (for premium API keys)
+    // Example: new RateLimitedPriceService(new AlphaVantageService(), 75, Integer.MAX_VALUE)
+    public RateLimitedPriceService(StockPriceService delegate, int requestsPerMinute, int requestsPerDay) {
+        this.delegate = delegate;
+        this.requestsPerMinute = requestsPerMinute;
+        this.requestsPerDay = requestsPerDay;
+        this.minuteTokens = requestsPerMinute; // Start with a full bucket
+        this.lastRefillNanos = System.nanoTime();
+        this.quotaDay = LocalDate.now();
+
+        Thread dispatcher = new Thread(this::dispatchLoop, "quote-scheduler");
+        dispatcher.setDaemon(true); // Don't keep the app alive just for this thread
+        dispatcher.start();
+    }
+
+    // Gets the current price, waiting in the queue for a free slot
+    @Override
+    public double getCurrentPrice(String symbol) throws Exception {
+        return await(getQuoteAsync(symbol)).getPrice();
+    }
+
+    // Updates a stock's price, waiting in the queue for a free slot
+    @Override
+    public void updateStockPrice(Stock stock) throws Exception {
+        await(getQuoteAsync(stock.getSymbol())).applyTo(stock);
+    }
+
+    // Puts a quote request in the queue and returns right away
+    // The future completes once the dispatcher has sent the request and the answer arrived
+    @Override
+    public CompletableFuture<Quote> getQuoteAsync(String symbol) {
+        QueuedRequest request = new QueuedRequest(symbol, sequence.incrementAndGet());
+        request.visible = visibleSymbols.contains(request.key);
+        queue.add(request);
+        return request.result;
+    }
+
+    // Remembers which symbols are on screen and moves their queued requests to the front
+    @Override
+    public void setVisibleSymbols(Collection<String> symbols) {
+        Set<String> normalized = new HashSet<>();
+        for (String symbol : symbols) {
+            normalized.add(symbol.toUpperCase());
+        }
+        visibleSymbols = normalized;
+
+        // Re-rank what is already waiting
+        List<QueuedRequest> waiting = new ArrayList<>();
+        queue.drainTo(waiting);
+        for (QueuedRequest request : waiting) {
+            request.visible = normalized.contains(request.key);
+            queue.add(request);
+        }
+        delegate.setVisibleSymbols(symbols);
+    }
+
+    // Spends one request from the same bucket and daily cap as the quotes, for another call
+    // to the same API (ex: a history download) - blocks until the bucket has a token
+    @Override
+    public void reserveRequest() throws Exception {
+        if (!acquireDailySlot()) {
+            rejectedCount.incrementAndGet();
+            throw new Exception("Daily API quota of " + requestsPerDay + " requests used up");
+        }
+        waitForMinuteToken();
+        dispatchedCount.incrementAndGet();
+    }
+
+    // Getter - how many requests are waiting right now (the one the dispatcher holds included)
+    public int getQueueDepth() {
+        return queue.size() + inHand;
+    }
+
+    // Getter - average time a request waited before being sent (milliseconds)
+    public double getAverageWaitMillis() {
+        long count = dispatchedCount.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalWaitNanos.get()) / 1000.0 / count;
+    }
+
+    // Getter - longest time a request waited before being sent (milliseconds)
+    public long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    // Getter - how many requests have been sent to the API
+    public long getDispatchedCount() {
+        return dispatchedCount.get();
+    }
+
+    // Getter - how many requests were refused because the daily quota was used up
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    // Getter - how many requests we may still send today
+    public synchronized int getRemainingDailyQuota() {
+        resetDayIfNeeded();
+        return Math.max(0, requestsPerDay - usedToday);
+    }
+
+    // Blocks until a queued request has finished
+    private Quote await(CompletableFuture<Quote> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            // Rethrow the original error so callers see e.g. "API failed: 503"
+            Throwable cause = e.getCause();
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    // Background loop - sends one request every time the bucket has a token
+    // Requests stay in the queue while we wait for the token, so the one sent (and charged
+    // to today's quota) is the most urgent one at the moment the token is there
+    private void dispatchLoop() {
+        while (true) {
+            try {
+                queue.add(take()); // Wait until there is work, without picking a request yet
+                inHand = 0;
+                waitForMinuteToken();
+                QueuedRequest request = take(); // The most urgent request right now
+
+                if (!acquireDailySlot()) {
+                    returnMinuteToken(); // Nothing was sent
+                    inHand = 0;
+                    rejectedCount.incrementAndGet();
+                    request.result.completeExceptionally(
+                            new Exception("Daily API quota of " + requestsPerDay + " requests used up"));
+                    continue;
+                }
+
+                long waited = System.nanoTime() - request.enqueuedNanos;
+                totalWaitNanos.addAndGet(waited);
+                maxWaitNanos.accumulateAndGet(waited, Math::max);
+                dispatchedCount.incrementAndGet();
+
+                // Send without waiting for the answer, so the next slot isn't delayed by a slow response
+                CompletableFuture<Quote> result = request.result;
+                try {
+                    delegate.getQuoteAsync(request.symbol).whenComplete((quote, error) -> {
+                        if (error == null) {
+                            result.complete(quote);
+                        } else {
+                            result.completeExceptionally(error);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+                inHand = 0;
+            } catch (InterruptedException e) {
+                return; // App is shutting down
+            }
+        }
+    }
+
+    // Takes the most urgent request off the queue (waits for one), counting it as held
+    private QueuedRequest take() throws InterruptedException {
+        QueuedRequest request = queue.take();
+        inHand = 1;
+        return request;
+    }
+
+    // Takes one request from today's quota, or returns false if none are left
+    private synchronized boolean acquireDailySlot() {
+        resetDayIfNeeded();
+        if (usedToday >= requestsPerDay) {
+            return false;
+        }
+        usedToday++;
+        return true;
+    }
+
+    // Sleeps until the per-minute bucket has a token, then spends it
+    private void waitForMinuteToken() throws InterruptedException {
+        while (true) {
+            long sleepNanos;
+            synchronized (this) {
+                refillMinuteTokens();
+                if (minuteTokens >= 1) {
+                    minuteTokens -= 1;
+                    return;
+                }
+                // Time until the next whole token has dripped in
+                double nanosPerToken = TimeUnit.MINUTES.toNanos(1) / (double) requestsPerMinute;
+                sleepNanos = (long) ((1 - minuteTokens) * nanosPerToken);
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(sleepNanos, TimeUnit.MILLISECONDS.toNanos(1)));
+        }
+    }
+
+    // Gives back a token that was taken but not used
+    private synchronized void returnMinuteToken() {
+        minuteTokens = Math.min(requestsPerMinute, minuteTokens + 1);
+    }
+
+    // Adds the tokens earned since the last refill (never more than a full bucket)
+    private void refillMinuteTokens() {
+        long now = System.nanoTime();
+        double earned = (now - lastRefillNanos) * requestsPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        minuteTokens = Math.min(requestsPerMinute, minuteTokens + earned);
+        lastRefillNanos = now;
+    }
+
+    // Starts a fresh daily count after midnight
+    private void resetDayIfNeeded() {
+        LocalDate today = LocalDate.now();
+        if (!today.equals(quotaDay)) {
+            quotaDay = today;
+            usedToday = 0;
+        }
+    }
+
+    /**
+     * One waiting request - visible symbols sort first, then oldest first
+     */
+    private static class QueuedRequest implements Comparable<QueuedRequest> {
+        final String symbol; // As the caller wrote it
+        final String key; // Upper-case, for matching visible symbols
+        final long seq;
+        final long enqueuedNanos = System.nanoTime();
+        final CompletableFuture<Quote> result = new CompletableFuture<>();
+        volatile boolean visible;
+
+        QueuedRequest(String symbol, long seq) {
+            this.symbol = symbol;
+            this.key = symbol.toUpperCase();
+            this.seq = seq;
+        }
+
+        @Override
+        public int compareTo(QueuedRequest other) {
+            if (visible != other.visible) {
+                return visible ? -1 : 1; // Visible symbols first
+            }
+            return Long.compare(seq, other.seq); // Then first come, first served
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package com.portfolio.service; // This file belongs to the "service" folder - services do work/actions
 
+import com.portfolio.model.Quote;  // Import the Quote class (price + change at one moment)
 import com.portfolio.model.Stock;  // Import the Stock class so we can use it
+import java.util.Collection;       // Import Collection interface
+import java.util.LinkedHashMap;    // Import LinkedHashMap to keep symbols in order
+import java.util.Map;              // Import Map interface
+import java.util.concurrent.CompletableFuture;  // A result that arrives later
+import java.util.concurrent.CompletionException; // Wraps errors inside a CompletableFuture
 
 // This is an INTERFACE - it's like a contract that says "any price service must have these methods"
 // Think of it like a menu at a restaurant - it lists what's available, but doesn't cook the food
@@ -24,4 +30,73 @@ public interface StockPriceService {
      * @throws Exception if something goes wrong
      */
     void updateStockPrice(Stock stock) throws Exception;
+
+    /**
+     * Tells the service which symbols are currently on screen, so it can fetch those first
+     * Services that don't queue requests can ignore this (that's what the default does)
+     * Example: setVisibleSymbols(List.of("AAPL", "TSLA")) while the dashboard shows Apple and Tesla
+     *
+     * @param symbols The symbols the user can see right now
+     */
+    default void setVisibleSymbols(Collection<String> symbols) {
+        // Nothing to prioritise by default
+    }
+
+    /**
+     * Spends one request of the API quota on a call made outside this service
+     * (ex: a history download), waiting for a free slot like a queued quote would
+     * Services without a quota don't need to wait (that's what the default does)
+     * Example: prices.reserveRequest(); api.getHistoricalData("AAPL", false);
+     *
+     * @throws Exception if today's quota is already used up
+     */
+    default void reserveRequest() throws Exception {
+        // No quota to spend by default
+    }
+
+    /**
+     * Gets a quote without blocking the calling thread
+     * The default runs updateStockPrice on a background pool; services with a
+     * non-blocking HTTP client (like AlphaVantageService) override this
+     * Example: getQuoteAsync("AAPL").thenAccept(q -> System.out.println(q.getPrice()))
+     *
+     * @param symbol The stock symbol (ex: "AAPL")
+     * @return A future that completes with the quote, or fails with the fetch error
+     */
+    default CompletableFuture<Quote> getQuoteAsync(String symbol) {
+        return CompletableFuture.supplyAsync(() -> {
+            Stock stock = new Stock(symbol, symbol);
+            try {
+                updateStockPrice(stock);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+            return new Quote(symbol, stock.getCurrentPrice(), stock.getChangePercent());
+        });
+    }
+
+    /**
+     * Gets quotes for many symbols at once without blocking the calling thread
+     * Symbols whose fetch fails are left out of the map
+     * Example: getQuotesAsync(List.of("AAPL", "TSLA")) completes with {AAPL=..., TSLA=...}
+     *
+     * @param symbols The stock symbols to fetch
+     * @return A future that completes once every fetch has finished
+     */
+    default CompletableFuture<Map<String, Quote>> getQuotesAsync(Collection<String> symbols) {
+        Map<String, CompletableFuture<Quote>> pending = new LinkedHashMap<>();
+        for (String symbol : symbols) {
+            pending.computeIfAbsent(symbol, this::getQuoteAsync);
+        }
+        return CompletableFuture.allOf(pending.values().toArray(new CompletableFuture<?>[0]))
+                .handle((ignored, error) -> {
+                    Map<String, Quote> quotes = new LinkedHashMap<>();
+                    for (Map.Entry<String, CompletableFuture<Quote>> entry : pending.entrySet()) {
+                        if (!entry.getValue().isCompletedExceptionally()) {
+                            quotes.put(entry.getKey(), entry.getValue().join());
+                        }
+                    }
+                    return quotes;
+                });
+    }
 }
@@ -0,0 +1,121 @@
+package com.portfolio.service; // This file belongs to the "service" folder
+
+import java.util.ArrayList; // Import ArrayList for the results
+import java.util.Comparator; // Import Comparator for the three orders
+import java.util.HashMap; // Import HashMap - symbol -> its entry
+import java.util.Iterator; // Walks a tree from either end
+import java.util.List; // Import List interface
+import java.util.Map; // Import Map interface
+import java.util.TreeSet; // Import TreeSet - entries kept in order all the time
+
+/**
+ * StockRanking - Keeps stocks in order by today's change and by position value, ready to read
+ * Each stock has one entry in three ordered trees (by change, by size of the move, by value).
+ * A buy, sell or price tick moves only that stock's entry - a few tree steps - so asking for
+ * the top 5 gainers just reads the first 5 entries: O(K), however many stocks there are.
+ *
+ * Shared by the dashboard's gainer/loser tables (through PortfolioService) and the
+ * market page sort.
+ *
+ * Example:
+ *   StockRanking<PortfolioItem> ranking = new StockRanking<>();
+ *   ranking.put("AAPL", appleLot, 1.23, 41_700.0); // +1.23% today, worth 41,700
+ *   ranking.topGainers(5); // The 5 biggest rises, best first
+ *
+ * All methods are synchronized - price refreshes update the ranking from background threads.
+ *
+ * @param <T> What is handed back for each stock (ex: a PortfolioItem, or a market page card)
+ */
+public class StockRanking<T> {
+    private final Map<String, Entry<T>> entries = new HashMap<>(); // "AAPL" -> its entry
+
+    // Ties are broken by symbol, so two stocks with the same change both stay in the tree
+    private final TreeSet<Entry<T>> byChange = new TreeSet<>(
+            Comparator.comparingDouble((Entry<T> e) -> e.change).thenComparing(e -> e.key));
+    private final TreeSet<Entry<T>> byMove = new TreeSet<>(
+            Comparator.comparingDouble((Entry<T> e) -> Math.abs(e.change)).thenComparing(e -> e.key));
+    private final TreeSet<Entry<T>> byValue = new TreeSet<>(
+            Comparator.comparingDouble((Entry<T> e) -> e.value).thenComparing(e -> e.key));
+
+    /**
+     * Adds a stock, or moves it to its new place
+     *
+     * @param key    The stock's symbol (ex: "AAPL")
+     * @param item   What to hand back for it
+     * @param change Today's change in percent (ex: 1.23 for +1.23%)
+     * @param value  What the position is worth (ex: in the base currency)
+     */
+    public synchronized void put(String key, T item, double change, double value) {
+        remove(key);
+        Entry<T> entry = new Entry<>(key, item, change, value);
+        entries.put(key, entry);
+        byChange.add(entry);
+        byMove.add(entry);
+        byValue.add(entry);
+    }
+
+    // Takes a stock out (ex: after it was sold out)
+    public synchronized void remove(String key) {
+        Entry<T> old = entries.remove(key);
+        if (old != null) {
+            byChange.remove(old);
+            byMove.remove(old);
+            byValue.remove(old);
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        byChange.clear();
+        byMove.clear();
+        byValue.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // The "k" biggest rises, best first
+    public synchronized List<T> topGainers(int k) {
+        return first(byChange.descendingIterator(), k);
+    }
+
+    // The "k" biggest falls, worst first
+    public synchronized List<T> topLosers(int k) {
+        return first(byChange.iterator(), k);
+    }
+
+    // The "k" biggest moves either way (ex: -6% ranks above +4%)
+    public synchronized List<T> biggestMovers(int k) {
+        return first(byMove.descendingIterator(), k);
+    }
+
+    // The "k" most valuable positions, biggest first
+    public synchronized List<T> largest(int k) {
+        return first(byValue.descendingIterator(), k);
+    }
+
+    // Reads the first "k" entries of a tree - never more
+    private List<T> first(Iterator<Entry<T>> entries, int k) {
+        List<T> result = new ArrayList<>(Math.max(0, Math.min(k, this.entries.size())));
+        while (result.size() < k && entries.hasNext()) {
+            result.add(entries.next().item);
+        }
+        return result;
+    }
+
+    // One stock's place in the trees - never changed while it is in them
+    private static final class Entry<T> {
+        final String key;
+        final T item;
+        final double change;
+        final double value;
+
+        Entry(String key, T item, double change, double value) {
+            this.key = key;
+            this.item = item;
+            this.change = change;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package com.portfolio.service; // This file belongs to the "service" folder
+
+/**
+ * TechnicalIndicators - Chart indicators (SMA, EMA, RSI, MACD, Bollinger Bands, VWAP)
+ * Every indicator is a small object you feed one bar at a time with add(...). Each add costs
+ * the same no matter how long the window is (running sums and ring buffers, no re-summing),
+ * so a whole series is O(n) and a new live bar is O(1).
+ *
+ * The static methods run an indicator over a full series of plain double[] values.
+ * Days before the indicator has enough data are Double.NaN.
+ *
+ * Example (whole series):
+ *   double[] sma20 = TechnicalIndicators.sma(closes, 20);
+ *
+ * Example (live updates):
+ *   TechnicalIndicators.Rsi rsi = new TechnicalIndicators.Rsi(14);
+ *   for (double close : closes) rsi.add(close);
+ *   double latest = rsi.add(newClose); // O(1)
+ *
+ * The objects are NOT thread-safe - use one per chart/thread.
+ */
+public final class TechnicalIndicators {
+
+    private TechnicalIndicators() {
+        // Only static helpers and indicator classes
+    }
+
+    // ─── Whole-series helpers ───────────────────────────────────────────
+
+    // Simple Moving Average of the last "period" values
+    public static double[] sma(double[] values, int period) {
+        Sma sma = new Sma(period);
+        double[] out = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            out[i] = sma.add(values[i]);
+        }
+        return out;
+    }
+
+    // Exponential Moving Average, started from the SMA of the first "period" values
+    public static double[] ema(double[] values, int period) {
+        Ema ema = new Ema(period);
+        double[] out = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            out[i] = ema.add(values[i]);
+        }
+        return out;
+    }
+
+    // Relative Strength Index (Wilder's smoothing), 0 to 100
+    public static double[] rsi(double[] closes, int period) {
+        Rsi rsi = new Rsi(period);
+        double[] out = new double[closes.length];
+        for (int i = 0; i < closes.length; i++) {
+            out[i] = rsi.add(closes[i]);
+        }
+        return out;
+    }
+
+    // MACD line, signal line and histogram (ex: macd(closes, 12, 26, 9))
+    public static MacdSeries macd(double[] closes, int fast, int slow, int signal) {
+        Macd macd = new Macd(fast, slow, signal);
+        MacdSeries out = new MacdSeries(closes.length);
+        for (int i = 0; i < closes.length; i++) {
+            out.macd[i] = macd.add(closes[i]);
+            out.signal[i] = macd.getSignal();
+            out.histogram[i] = macd.getHistogram();
+        }
+        return out;
+    }
+
+    // Bollinger Bands: SMA +/- "width" standard deviations (ex: bollinger(closes, 20, 2.0))
+    public static BandSeries bollinger(double[] closes, int period, double width) {
+        Bollinger bands = new Bollinger(period, width);
+        BandSeries out = new BandSeries(closes.length);
+        for (int i = 0; i < closes.length; i++) {
+            out.middle[i] = bands.add(closes[i]);
+            out.upper[i] = bands.getUpper();
+            out.lower[i] = bands.getLower();
+        }
+        return out;
+    }
+
+    // Volume Weighted Average Price over the last "period" bars (0 = since the first bar)
+    public static double[] vwap(double[] high, double[] low, double[] close, double[] volume, int period) {
+        Vwap vwap = new Vwap(period);
+        double[] out = new double[close.length];
+        for (int i = 0; i < close.length; i++) {
+            out[i] = vwap.add(high[i], low[i], close[i], volume[i]);
+        }
+        return out;
+    }
+
+    // ─── Results with more than one line ────────────────────────────────
+
+    public static final class MacdSeries {
+        public final double[] macd;
+        public final double[] signal;
+        public final double[] histogram;
+
+        MacdSeries(int n) {
+            macd = new double[n];
+            signal = new double[n];
+            histogram = new double[n];
+        }
+    }
+
+    public static final class BandSeries {
+        public final double[] upper;
+        public final double[] middle;
+        public final double[] lower;
+
+        BandSeries(int n) {
+            upper = new double[n];
+            middle = new double[n];
+            lower = new double[n];
+        }
+    }
+
+    // ─── Incremental indicators ─────────────────────────────────────────
+
+    /**
+     * Fixed-size window of the latest values with a running sum (and sum of squares)
+     * The sums are rebuilt from the window each time it wraps around, so rounding errors
+     * can't pile up over millions of bars - that's one O(period) pass every "period" adds.
+     */
+    private static final class Window {
+        private final double[] values;
+        private int next; // Where the next value goes
+        private int count; // How many values are in the window (up to values.length)
+        private double sum;
+        private double sumOfSquares;
+
+        Window(int period) {
+            if (period < 1) {
+                throw new IllegalArgumentException("Period must be at least 1, got " + period);
+            }
+            values = new double[period];
+        }
+
+        void add(double value) {
+            if (count == values.length) {
+                double old = values[next];
+                sum -= old;
+                sumOfSquares -= old * old;
+            } else {
+                count++;
+            }
+            values[next] = value;
+            sum += value;
+            sumOfSquares += value * value;
+
+            if (++next == values.length) {
+                next = 0;
+                resum();
+            }
+        }
+
+        private void resum() {
+            double s = 0;
+            double sq = 0;
+            for (int i = 0; i < count; i++) {
+                s += values[i];
+                sq += values[i] * values[i];
+            }
+            sum = s;
+            sumOfSquares = sq;
+        }
+
+        boolean isFull() {
+            return count == values.length;
+        }
+
+        double mean() {
+            return sum / count;
+        }
+
+        // Population standard deviation (what Bollinger Bands use)
+        double standardDeviation() {
+            double mean = mean();
+            double variance = sumOfSquares / count - mean * mean;
+            return variance > 0 ? Math.sqrt(variance) : 0.0; // Rounding can make it a tiny negative
+        }
+    }
+
+    // Simple Moving Average - Example: new Sma(20)
+    public static final class Sma {
+        private final Window window;
+
+        public Sma(int period) {
+            window = new Window(period);
+        }
+
+        // Adds the next value and returns the average (NaN until "period" values were added)
+        public double add(double value) {
+            window.add(value);
+            return getValue();
+        }
+
+        public double getValue() {
+            return window.isFull() ? window.mean() : Double.NaN;
+        }
+
+        public boolean isReady() {
+            return window.isFull();
+        }
+    }
+
+    // Exponential Moving Average - Example: new Ema(10)
+    public static final class Ema {
+        private final int period;
+        private final double k; // Weight of the newest value: 2 / (period + 1)
+        private int count;
+        private double seedSum; // Sum of the first values, for the starting SMA
+        private double value = Double.NaN;
+
+        public Ema(int period) {
+            if (period < 1) {
+                throw new IllegalArgumentException("Period must be at least 1, got " + period);
+            }
+            this.period = period;
+            this.k = 2.0 / (period + 1);
+        }
+
+        // Adds the next value and returns the EMA (NaN until "period" values were added)
+        public double add(double x) {
+            if (count < period) {
+                seedSum += x;
+                if (++count == period) {
+                    value = seedSum / period; // Start from the plain average
+                }
+                return value;
+            }
+            value += k * (x - value);
+            return value;
+        }
+
+        public double getValue() {
+            return value;
+        }
+
+        public boolean isReady() {
+            return count >= period;
+        }
+    }
+
+    // Relative Strength Index with Wilder's smoothing - Example: new Rsi(14)
+    public static final class Rsi {
+        private final int period;
+        private double previous = Double.NaN; // Last close
+        private int changes; // How many close-to-close changes we've seen
+        private double averageGain;
+        private double averageLoss;
+        private double value = Double.NaN;
+
+        public Rsi(int period) {
+            if (period < 1) {
+                throw new IllegalArgumentException("Period must be at least 1, got " + period);
+            }
+            this.period = period;
+        }
+
+        // Adds the next close and returns the RSI (NaN until "period" changes were seen)
+        public double add(double close) {
+            if (Double.isNaN(previous)) {
+                previous = close;
+                return value;
+            }
+            double change = close - previous;
+            previous = close;
+            double gain = change > 0 ? change : 0;
+            double loss = change < 0 ? -change : 0;
+
+            changes++;
+            if (changes <= period) {
+                // First "period" changes: plain average
+                averageGain += gain / period;
+                averageLoss += loss / period;
+                if (changes < period) {
+                    return value;
+                }
+            } else {
+                averageGain = (averageGain * (period - 1) + gain) / period;
+                averageLoss = (averageLoss * (period - 1) + loss) / period;
+            }
+
+            value = averageLoss == 0 ? 100.0 : 100.0 - 100.0 / (1.0 + averageGain / averageLoss);
+            return value;
+        }
+
+        public double getValue() {
+            return value;
+        }
+
+        public boolean isReady() {
+            return !Double.isNaN(value);
+        }
+    }
+
+    // MACD: fast EMA minus slow EMA, with an EMA "signal" of that - Example: new Macd(12, 26, 9)
+    public static final class Macd {
+        private final Ema fast;
+        private final Ema slow;
+        private final Ema signal;
+        private double macd = Double.NaN;
+
+        public Macd(int fastPeriod, int slowPeriod, int signalPeriod) {
+            if (fastPeriod >= slowPeriod) {
+                throw new IllegalArgumentException("Fast period must be shorter than slow period");
+            }
+            fast = new Ema(fastPeriod);
+            slow = new Ema(slowPeriod);
+            signal = new Ema(signalPeriod);
+        }
+
+        // Adds the next close and returns the MACD line (NaN until the slow EMA is ready)
+        public double add(double close) {
+            fast.add(close);
+            slow.add(close);
+            if (slow.isReady()) {
+                macd = fast.getValue() - slow.getValue();
+                signal.add(macd);
+            }
+            return macd;
+        }
+
+        public double getMacd() {
+            return macd;
+        }
+
+        public double getSignal() {
+            return signal.getValue();
+        }
+
+        public double getHistogram() {
+            return macd - signal.getValue(); // NaN while the signal isn't ready
+        }
+    }
+
+    // Bollinger Bands - Example: new Bollinger(20, 2.0)
+    public static final class Bollinger {
+        private final Window window;
+        private final double width; // How many standard deviations from the middle
+        private double middle = Double.NaN;
+        private double upper = Double.NaN;
+        private double lower = Double.NaN;
+
+        public Bollinger(int period, double width) {
+            this.window = new Window(period);
+            this.width = width;
+        }
+
+        // Adds the next close and returns the middle band (NaN until "period" closes were added)
+        public double add(double close) {
+            window.add(close);
+            if (window.isFull()) {
+                middle = window.mean();
+                double spread = width * window.standardDeviation();
+                upper = middle + spread;
+                lower = middle - spread;
+            }
+            return middle;
+        }
+
+        public double getMiddle() {
+            return middle;
+        }
+
+        public double getUpper() {
+            return upper;
+        }
+
+        public double getLower() {
+            return lower;
+        }
+    }
+
+    /**
+     * Volume Weighted Average Price, using the typical price (high + low + close) / 3
+     * With period 0 it averages everything since the start (or the last reset() - ex: each
+     * trading session for minute bars). With a period it averages the last "period" bars.
+     */
+    public static final class Vwap {
+        private final double[] priceVolume; // Ring buffers (empty when period is 0)
+        private final double[] volumes;
+        private int next;
+        private int count;
+        private double sumPriceVolume;
+        private double sumVolume;
+
+        public Vwap(int period) {
+            if (period < 0) {
+                throw new IllegalArgumentException("Period can't be negative, got " + period);
+            }
+            priceVolume = new double[period];
+            volumes = new double[period];
+        }
+
+        // Adds the next bar and returns the VWAP (NaN while no volume was traded)
+        public double add(double high, double low, double close, double volume) {
+            double pv = (high + low + close) / 3.0 * volume;
+            int period = volumes.length;
+            if (period > 0) {
+                if (count == period) {
+                    sumPriceVolume -= priceVolume[next];
+                    sumVolume -= volumes[next];
+                } else {
+                    count++;
+                }
+                priceVolume[next] = pv;
+                volumes[next] = volume;
+            }
+            sumPriceVolume += pv;
+            sumVolume += volume;
+
+            if (period > 0 && ++next == period) {
+                next = 0;
+                resum();
+            }
+            return getValue();
+        }
+
+        // Starts over (ex: at the open of a new trading session)
+        public void reset() {
+            next = 0;
+            count = 0;
+            sumPriceVolume = 0;
+            sumVolume = 0;
+        }
+
+        private void resum() {
+            double pv = 0;
+            double v = 0;
+            for (int i = 0; i < count; i++) {
+                pv += priceVolume[i];
+                v += volumes[i];
+            }
+            sumPriceVolume = pv;
+            sumVolume = v;
+        }
+
+        public double getValue() {
+            return sumVolume > 0 ? sumPriceVolume / sumVolume : Double.NaN;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.portfolio.ui;
 import com.portfolio.model.*;
 import com.portfolio.model.StockPrice; // Explicit import
 import com.portfolio.service.*;
+import com.portfolio.database.TransactionPage;
 import javax.swing.*;
 import javax.swing.border.*;
 import javax.swing.table.*;
@@ -12,6 +13,8 @@ import java.awt.event.*;
 import java.awt.geom.*;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.jfree.chart.*;
 import org.jfree.chart.plot.*;
 import org.jfree.chart.axis.*;
@@ -52,16 +55,41 @@ public class PremiumStockDashboard extends JFrame {
     // State
     private CardLayout cardLayout;
     private JPanel contentArea;
+    private final Map<String, java.util.function.Supplier<JPanel>> pageBuilders = new LinkedHashMap<>(); // How to build each page
+    private final Map<String, JPanel> builtPages = new HashMap<>(); // Pages built so far, by name
+    private final Set<String> dirtyPages = new HashSet<>(); // Built pages that are out of date - rebuilt when next shown
+
+    // Tables that outlive page rebuilds, so selection, scroll position and sorting are kept.
+    // Portfolio change events update them row by row (see listenToPortfolio).
+    private HoldingsTableModel holdingsModel; // My Portfolio - every lot
+    private HoldingsTableModel recentModel; // Dashboard "Recent Stocks" - the first 5 lots
+    private JScrollPane holdingsScroll;
+    private JScrollPane recentScroll;
+    private TransactionTableModel transactionModel; // Created when Transactions is first shown
+    private JScrollPane transactionScroll;
+
+    // Dashboard parts that portfolio events update in place (null until the Dashboard is built)
+    private JLabel totalValueLabel;
+    private JLabel investedLabel;
+    private JLabel profitLossLabel;
+    private JLabel returnLabel;
+    private DefaultTableModel gainerModel;
+    private DefaultTableModel loserModel;
+
+    // Chart pages are rebuilt at most once per burst of events, after things settle down
+    private final javax.swing.Timer chartRefreshTimer = new javax.swing.Timer(2000, e -> refreshPages());
     private JLabel pageTitle;
     private List<NavButton> navButtons = new ArrayList<>();
-    private final PortfolioService portfolioService;
+    private volatile PortfolioService portfolioService; // null until loaded in the background (see onPortfolioReady)
     private JTextField searchField;
     private JPopupMenu searchPopup;
-    private final AssemblyAIVoiceService voiceService;
-    private final GroqAIService groqAIService;
-    private final TextToSpeechService ttsService;
-    private final NewsService newsService; // Added NewsService
-    private final Map<String, List<StockPrice>> historyCache = new HashMap<>();
+    private JPanel topControls; // P/L, currency and search - filled in once the portfolio is loaded
+    private final StartupOrchestrator startup; // Times startup and creates the services below on first use
+    private final StartupOrchestrator.Lazy<AssemblyAIVoiceService> voiceService;
+    private final StartupOrchestrator.Lazy<GroqAIService> groqAIService;
+    private final StartupOrchestrator.Lazy<TextToSpeechService> ttsService;
+    private final StartupOrchestrator.Lazy<NewsService> newsService;
+    private HistoryService historyService; // Daily price history saved on disk - created once the portfolio is loaded
     private volatile boolean isRecording = false;
     private volatile boolean isSpeaking = false;
     private String lastUserCommand = ""; // Store last command for Implement button
@@ -78,20 +106,31 @@ public class PremiumStockDashboard extends JFrame {
     };
 
     public static void main(String[] args) {
+        StartupOrchestrator startup = new StartupOrchestrator();
+
+        // Start loading the portfolio from the database right away, while the welcome screen is up
+        CompletableFuture<PortfolioService> portfolio = startup.inBackground("Portfolio + database", () -> {
+            StockPriceService priceService = new CachingPriceService(
+                    new RateLimitedPriceService(new AlphaVantageService()));
+            return new PortfolioService(priceService);
+        });
+
         SwingUtilities.invokeLater(() -> {
-            try {
-                UIManager.setLookAndFeel(new FlatDarkLaf());
-            } catch (Exception ignored) {
-            }
+            startup.timed("Look and feel", () -> {
+                try {
+                    UIManager.setLookAndFeel(new FlatDarkLaf());
+                } catch (Exception ignored) {
+                }
+            });
 
             // Show welcome screen first
-            WelcomeScreen welcomeScreen = new WelcomeScreen(() -> {
-                // After login, show main dashboard
-                StockPriceService priceService = new AlphaVantageService();
-                PortfolioService portfolioService = new PortfolioService(priceService);
-                new PremiumStockDashboard(portfolioService).setVisible(true);
+            startup.timed("Welcome screen", () -> {
+                WelcomeScreen welcomeScreen = new WelcomeScreen(() -> {
+                    // After login, show the dashboard shell - the pages fill in when the portfolio is loaded
+                    new PremiumStockDashboard(portfolio, startup).setVisible(true);
+                });
+                welcomeScreen.setVisible(true);
             });
-            welcomeScreen.setVisible(true);
         });
     }
 
@@ -99,14 +138,46 @@ public class PremiumStockDashboard extends JFrame {
     private JButton chatbotToggleBtn;
     private boolean isChatbotOpen = false;
 
+    // Dashboard for a portfolio that is already loaded
     public PremiumStockDashboard(PortfolioService portfolioService) {
+        this(CompletableFuture.completedFuture(portfolioService), new StartupOrchestrator());
+    }
+
+    /**
+     * Dashboard that shows its shell (sidebar, top bar, chatbot) right away and
+     * builds the pages when the portfolio has finished loading
+     *
+     * @param portfolio Completes when PortfolioService has loaded the database
+     * @param startup   Records the startup timing breakdown
+     */
+    public PremiumStockDashboard(CompletableFuture<PortfolioService> portfolio, StartupOrchestrator startup) {
         super("StockVault — Portfolio Dashboard");
-        this.portfolioService = portfolioService;
-        this.voiceService = new AssemblyAIVoiceService();
-        this.groqAIService = new GroqAIService(portfolioService);
-        this.ttsService = new TextToSpeechService();
-        this.newsService = new NewsService(); // Initialize NewsService
+        this.startup = startup;
+        // Voice, AI, speech and news are only created the first time they are used
+        this.voiceService = startup.lazy("Voice input", AssemblyAIVoiceService::new);
+        this.groqAIService = startup.lazy("AI assistant", () -> new GroqAIService(portfolio.join())); // Always used off the Swing thread
+        this.ttsService = startup.lazy("Text to speech", TextToSpeechService::new);
+        this.newsService = startup.lazy("News", NewsService::new);
+
+        // Pages are only built the first time they are shown (see showPage)
+        pageBuilders.put("Dashboard", this::buildDashboardPage);
+        pageBuilders.put("My Portfolio", this::buildPortfolioPage);
+        pageBuilders.put("AI Insights", this::buildAIInsightsPage);
+        pageBuilders.put("Market", this::buildMarketPage);
+        pageBuilders.put("Watchlist", this::buildWatchlistPage);
+        pageBuilders.put("Transactions", this::buildTransactionsPage);
+        pageBuilders.put("Analytics", this::buildAnalyticsPage);
+        pageBuilders.put("Reports", this::buildReportsPage);
+        pageBuilders.put("Settings", this::buildSettingsPage);
+
+        startup.timed("Dashboard shell", this::buildShell);
+
+        // Build the pages on the Swing thread once the portfolio is loaded
+        portfolio.whenComplete((service, error) -> SwingUtilities.invokeLater(() -> onPortfolioReady(service, error)));
+    }
 
+    // Window, sidebar, top bar, "Loading..." page and chatbot - nothing here needs the portfolio
+    private void buildShell() {
         setDefaultCloseOperation(EXIT_ON_CLOSE);
         setSize(1400, 900);
         setMinimumSize(new Dimension(1200, 700));
@@ -142,6 +213,28 @@ public class PremiumStockDashboard extends JFrame {
         navigate("Dashboard");
     }
 
+    // Called once when the background load finishes (ok or not)
+    private void onPortfolioReady(PortfolioService service, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            System.err.println("❌ Could not load the portfolio: " + cause.getMessage());
+            JOptionPane.showMessageDialog(this, "Could not load the portfolio:\n" + cause.getMessage(),
+                    "Startup Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        portfolioService = service;
+        // History downloads share the price service's API quota
+        historyService = new HistoryService(new AlphaVantageService(), service.getPriceService());
+        listenToPortfolio(service);
+        startup.timed("First page", () -> {
+            topControls.add(buildTopControls());
+            topControls.revalidate();
+            navigate(pageTitle.getText()); // Builds only the page picked while loading
+        });
+        System.out.println("✅ Dashboard ready after " + startup.elapsedMillis() + " ms");
+        startup.printReport();
+    }
+
     // ═══════════════════════════════════════════════════════════════════════
     // SIDEBAR
     // ═══════════════════════════════════════════════════════════════════════
@@ -228,7 +321,27 @@ public class PremiumStockDashboard extends JFrame {
         pageTitle.setForeground(TEXT);
         topbar.add(pageTitle, BorderLayout.WEST);
 
-        // Top Controls (Search + Currency + Sentiment)
+        topControls = new JPanel(new BorderLayout());
+        topControls.setOpaque(false);
+        topbar.add(topControls, BorderLayout.EAST);
+
+        // Content pages - just "Loading..." until the portfolio is ready
+        cardLayout = new CardLayout();
+        contentArea = new JPanel(cardLayout);
+        contentArea.setBackground(BG);
+        JLabel loading = new JLabel("⏳ Loading your portfolio...", SwingConstants.CENTER);
+        loading.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 18));
+        loading.setForeground(TEXT_DIM);
+        contentArea.add(loading, "Loading");
+
+        main.add(topbar, BorderLayout.NORTH);
+        main.add(contentArea, BorderLayout.CENTER);
+
+        return main;
+    }
+
+    // Top Controls (Search + Currency + Sentiment) - needs the portfolio
+    private JPanel buildTopControls() {
         JPanel controls = new JPanel(new FlowLayout(FlowLayout.RIGHT, 20, 0));
         controls.setOpaque(false);
 
@@ -256,42 +369,173 @@ public class PremiumStockDashboard extends JFrame {
         });
 
         controls.add(currencyBox);
-        // Content pages
-        cardLayout = new CardLayout();
-        contentArea = new JPanel(cardLayout);
-        contentArea.setBackground(BG);
-
         controls.add(buildSearchBar());
 
-        topbar.add(controls, BorderLayout.EAST);
+        return controls;
+    }
 
-        main.add(topbar, BorderLayout.NORTH);
+    /**
+     * Fills the holdings tables from the portfolio and keeps them in step with it
+     * Each change arrives as an event and becomes row events on the tables: a buy inserts
+     * one row, a sale updates/deletes the rows of that stock, a price refresh repaints
+     * only the rows of the symbols that moved. The Dashboard's cards and top movers are
+     * updated in place; the chart pages are only marked out of date (see summaryChanged).
+     */
+    private void listenToPortfolio(PortfolioService service) {
+        chartRefreshTimer.setRepeats(false);
+        PortfolioSnapshot start = service.addListener(new PortfolioListener() {
+            @Override
+            public void lotAdded(PortfolioItem lot) {
+                SwingUtilities.invokeLater(() -> {
+                    holdingsModel.lotAdded(lot);
+                    recentModel.lotAdded(lot);
+                    summaryChanged();
+                });
+            }
+
+            @Override
+            public void lotsChanged(String symbol, List<PortfolioItem> remaining) {
+                SwingUtilities.invokeLater(() -> {
+                    holdingsModel.lotsChanged(symbol, remaining);
+                    recentModel.lotsChanged(symbol, remaining);
+                    summaryChanged();
+                });
+            }
 
-        refreshAllViews();
+            @Override
+            public void transactionAdded(Transaction transaction) {
+                SwingUtilities.invokeLater(() -> {
+                    if (transactionModel != null) {
+                        transactionModel.transactionAdded(transaction);
+                    }
+                });
+            }
 
-        main.add(contentArea, BorderLayout.CENTER);
+            @Override
+            public void pricesChanged(Map<String, List<PortfolioItem>> lots) {
+                SwingUtilities.invokeLater(() -> {
+                    holdingsModel.pricesChanged(lots);
+                    recentModel.pricesChanged(lots);
+                    summaryChanged();
+                });
+            }
 
-        return main;
+            @Override
+            public void baseCurrencyChanged(String currency) {
+                SwingUtilities.invokeLater(() -> {
+                    holdingsModel.allRowsUpdated();
+                    recentModel.allRowsUpdated();
+                    if (transactionModel != null) {
+                        transactionModel.allRowsUpdated();
+                    }
+                });
+            }
+        });
+
+        holdingsModel = new HoldingsTableModel(new String[] { "Symbol", "Name", "Quantity", "Buy Price",
+                "Current Price", "Total Value", "Gain/Loss", "Return %" }, Integer.MAX_VALUE, start.getItems());
+        recentModel = new HoldingsTableModel(new String[] { "Symbol", "Name", "Quantity", "Price", "Value",
+                "Gain/Loss" }, 5, start.getItems());
+        holdingsScroll = createTableScroll(createHoldingsTable(holdingsModel, true));
+        recentScroll = createTableScroll(createHoldingsTable(recentModel, false));
+        recentScroll.setPreferredSize(new Dimension(0, 220));
+    }
+
+    // Pages drawn from charts - rebuilt (never in place) after trades and price refreshes
+    private static final String[] CHART_PAGES = { "Analytics", "Reports" };
+
+    // Totals or prices changed: new numbers on the Dashboard now, charts a little later
+    private void summaryChanged() {
+        updateDashboardSummary();
+        markDirty(CHART_PAGES);
+        chartRefreshTimer.restart(); // Redraws the visible chart page once events stop for 2 seconds
+    }
+
+    // Puts the current totals and top movers into the Dashboard's existing labels and tables
+    private void updateDashboardSummary() {
+        if (totalValueLabel == null) {
+            return; // Dashboard not built yet - it reads fresh numbers when it is
+        }
+        double totalValue = portfolioService.calculateCurrentValue();
+        double totalInvestment = portfolioService.calculateTotalInvestment();
+        double profitLoss = portfolioService.calculateProfitLoss();
+        double profitPercent = totalInvestment > 0 ? (profitLoss / totalInvestment) * 100 : 0;
+        Color plColor = profitLoss >= 0 ? GREEN : RED;
+
+        totalValueLabel.setText(formatCurrency(totalValue));
+        investedLabel.setText(formatCurrency(totalInvestment));
+        profitLossLabel.setText(formatCurrency(profitLoss));
+        profitLossLabel.setForeground(plColor);
+        returnLabel.setText(String.format("%.2f%%", profitPercent));
+        returnLabel.setForeground(plColor);
+
+        fillMovers(gainerModel, portfolioService.getTopGainers(5));
+        fillMovers(loserModel, portfolioService.getTopLosers(5));
+    }
+
+    // Writes the top movers into a Symbol/Price/Change table, touching only cells that changed
+    private void fillMovers(DefaultTableModel model, List<PortfolioItem> movers) {
+        model.setRowCount(movers.size());
+        for (int row = 0; row < movers.size(); row++) {
+            PortfolioItem item = movers.get(row);
+            Object[] values = {
+                    item.getStock().getSymbol(),
+                    formatCurrency(item.getStock().getCurrentPrice()),
+                    String.format("%+.2f%%", item.getStock().getChangePercent())
+            };
+            for (int column = 0; column < values.length; column++) {
+                if (!values[column].equals(model.getValueAt(row, column))) {
+                    model.setValueAt(values[column], row, column);
+                }
+            }
+        }
+    }
+
+    // Marks built pages as out of date without rebuilding anything
+    private void markDirty(String... pages) {
+        for (String page : pages) {
+            if (builtPages.containsKey(page)) {
+                dirtyPages.add(page); // Never built yet = nothing to mark
+            }
+        }
     }
 
+    // After a currency change or price refresh: every page is out of date,
+    // but only the one on screen is rebuilt now - the rest wait until they are shown
     private void refreshAllViews() {
-        String currentView = pageTitle != null ? pageTitle.getText() : "Dashboard";
-        contentArea.removeAll();
-        contentArea.add(buildDashboardPage(), "Dashboard");
-        contentArea.add(buildPortfolioPage(), "My Portfolio");
-        contentArea.add(buildAIInsightsPage(), "AI Insights");
-        contentArea.add(buildMarketPage(), "Market");
-        contentArea.add(buildWatchlistPage(), "Watchlist");
-        contentArea.add(buildTransactionsPage(), "Transactions");
-        contentArea.add(buildAnalyticsPage(), "Analytics");
-        contentArea.add(buildReportsPage(), "Reports");
-        contentArea.add(buildSettingsPage(), "Settings");
+        refreshPages(pageBuilders.keySet().toArray(new String[0]));
+    }
 
-        if (cardLayout != null) {
-            cardLayout.show(contentArea, currentView);
+    /**
+     * Marks pages as out of date and rebuilds the visible one right away
+     * Example: refreshPages("Dashboard", "My Portfolio") after a buy
+     */
+    private void refreshPages(String... pages) {
+        markDirty(pages);
+        String visible = pageTitle.getText();
+        if (dirtyPages.contains(visible)) {
+            showPage(visible);
         }
-        contentArea.revalidate();
-        contentArea.repaint();
+    }
+
+    // Shows a page, building it first if it was never built or is out of date
+    private void showPage(String page) {
+        java.util.function.Supplier<JPanel> builder = pageBuilders.get(page);
+        if (builder == null || portfolioService == null) {
+            return; // Unknown page, or still loading (the "Loading..." card stays up)
+        }
+        JPanel current = builtPages.get(page);
+        if (current == null || dirtyPages.remove(page)) {
+            if (current != null) {
+                contentArea.remove(current);
+            }
+            current = builder.get();
+            builtPages.put(page, current);
+            contentArea.add(current, page);
+            contentArea.revalidate();
+            contentArea.repaint();
+        }
+        cardLayout.show(contentArea, page);
     }
 
     private String getCurrencySymbol() {
@@ -311,10 +555,30 @@ public class PremiumStockDashboard extends JFrame {
 
     private void navigate(String page) {
         pageTitle.setText(page);
-        cardLayout.show(contentArea, page);
+        showPage(page);
         for (NavButton nb : navButtons) {
             nb.setActive(nb.label.equals(page));
         }
+        updateVisibleSymbols(page);
+    }
+
+    // Tells the price service which symbols this page shows, so their quotes are fetched first
+    private void updateVisibleSymbols(String page) {
+        if (portfolioService == null) {
+            return; // Still loading - onPortfolioReady navigates again
+        }
+        List<String> symbols = new ArrayList<>();
+        List<PortfolioItem> items = portfolioService.getPortfolioItems();
+        if (page.equals("Dashboard")) {
+            for (int i = 0; i < Math.min(5, items.size()); i++) {
+                symbols.add(items.get(i).getStock().getSymbol());
+            }
+        } else if (page.equals("My Portfolio") || page.equals("Analytics")) {
+            for (PortfolioItem item : items) {
+                symbols.add(item.getStock().getSymbol());
+            }
+        }
+        portfolioService.getPriceService().setVisibleSymbols(symbols);
     }
 
     // ═══════════════════════════════════════════════════════════════════════
@@ -449,16 +713,18 @@ public class PremiumStockDashboard extends JFrame {
         statsPanel.setBackground(BG);
         statsPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 120));
 
-        double totalValue = portfolioService.calculateCurrentValue();
-        double totalInvestment = portfolioService.calculateTotalInvestment();
-        double profitLoss = portfolioService.calculateProfitLoss();
-        double profitPercent = totalInvestment > 0 ? (profitLoss / totalInvestment) * 100 : 0;
+        // Empty labels for now - updateDashboardSummary fills them in, here and after every change
+        totalValueLabel = new JLabel();
+        totalValueLabel.setForeground(GREEN);
+        investedLabel = new JLabel();
+        investedLabel.setForeground(ACCENT);
+        profitLossLabel = new JLabel();
+        returnLabel = new JLabel();
 
-        statsPanel.add(createStatCard("Total Value", formatCurrency(totalValue), GREEN));
-        statsPanel.add(createStatCard("Invested", formatCurrency(totalInvestment), ACCENT));
-        statsPanel
-                .add(createStatCard("Profit/Loss", formatCurrency(profitLoss), profitLoss >= 0 ? GREEN : RED));
-        statsPanel.add(createStatCard("Return", String.format("%.2f%%", profitPercent), profitLoss >= 0 ? GREEN : RED));
+        statsPanel.add(createStatCard("Total Value", totalValueLabel));
+        statsPanel.add(createStatCard("Invested", investedLabel));
+        statsPanel.add(createStatCard("Profit/Loss", profitLossLabel));
+        statsPanel.add(createStatCard("Return", returnLabel));
 
         content.add(statsPanel);
         content.add(Box.createVerticalStrut(25));
@@ -467,40 +733,8 @@ public class PremiumStockDashboard extends JFrame {
         JPanel recentPanel = createCard("Recent Stocks");
         recentPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 300));
 
-        String[] columns = { "Symbol", "Name", "Quantity", "Price", "Value", "Gain/Loss" };
-        DefaultTableModel model = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
-
-        List<PortfolioItem> items = portfolioService.getPortfolioItems();
-        for (int i = 0; i < Math.min(5, items.size()); i++) {
-            PortfolioItem item = items.get(i);
-            double convertedPrice = portfolioService.convertToBase(item.getStock().getCurrentPrice(),
-                    item.getOriginalCurrency());
-            double convertedTotal = portfolioService.convertToBase(item.getTotalValue(), item.getOriginalCurrency());
-            double convertedGain = portfolioService.convertToBase(item.getGainLoss(), item.getOriginalCurrency());
-
-            model.addRow(new Object[] {
-                    item.getStock().getSymbol(),
-                    item.getStock().getName(),
-                    item.getQuantity(),
-                    formatCurrency(convertedPrice),
-                    formatCurrency(convertedTotal),
-                    formatCurrency(convertedGain)
-            });
-        }
-
-        JTable table = createStyledTable(model);
-        JScrollPane scroll = new JScrollPane(table);
-        scroll.setBackground(CARD_BG);
-        scroll.getViewport().setBackground(CARD_BG);
-        scroll.setBorder(null);
-        scroll.setPreferredSize(new Dimension(0, 220));
-
-        recentPanel.add(scroll, BorderLayout.CENTER);
+        // The same table every time this page is rebuilt - kept up to date by recentModel
+        recentPanel.add(recentScroll, BorderLayout.CENTER);
         content.add(recentPanel);
         content.add(Box.createVerticalStrut(25));
 
@@ -511,34 +745,20 @@ public class PremiumStockDashboard extends JFrame {
 
         // Top Gainers
         JPanel gainerCard = createCard("🚀 Top Gainers");
-        DefaultTableModel gainerModel = new DefaultTableModel(new String[] { "Symbol", "Price", "Change" }, 0);
-        java.util.List<com.portfolio.model.PortfolioItem> gainers = portfolioService.getTopGainers(5);
-        for (com.portfolio.model.PortfolioItem item : gainers) {
-            gainerModel.addRow(new Object[] {
-                    item.getStock().getSymbol(),
-                    formatCurrency(item.getStock().getCurrentPrice()),
-                    String.format("%+.2f%%", item.getStock().getChangePercent())
-            });
-        }
+        gainerModel = new DefaultTableModel(new String[] { "Symbol", "Price", "Change" }, 0);
         gainerCard.add(new JScrollPane(createStyledTable(gainerModel)), BorderLayout.CENTER);
 
         // Top Losers
         JPanel loserCard = createCard("📉 Top Losers");
-        DefaultTableModel loserModel = new DefaultTableModel(new String[] { "Symbol", "Price", "Change" }, 0);
-        java.util.List<com.portfolio.model.PortfolioItem> losers = portfolioService.getTopLosers(5);
-        for (com.portfolio.model.PortfolioItem item : losers) {
-            loserModel.addRow(new Object[] {
-                    item.getStock().getSymbol(),
-                    formatCurrency(item.getStock().getCurrentPrice()),
-                    String.format("%+.2f%%", item.getStock().getChangePercent())
-            });
-        }
+        loserModel = new DefaultTableModel(new String[] { "Symbol", "Price", "Change" }, 0);
         loserCard.add(new JScrollPane(createStyledTable(loserModel)), BorderLayout.CENTER);
 
         moversPanel.add(gainerCard);
         moversPanel.add(loserCard);
         content.add(moversPanel);
 
+        updateDashboardSummary(); // Cards and top movers
+
         JScrollPane scrollPane = new JScrollPane(content);
         scrollPane.setBorder(null);
         scrollPane.getVerticalScrollBar().setUnitIncrement(16);
@@ -589,46 +809,8 @@ public class PremiumStockDashboard extends JFrame {
         // Portfolio table
         JPanel tableCard = createCard("Your Holdings");
 
-        String[] columns = { "Symbol", "Name", "Quantity", "Buy Price", "Current Price", "Total Value", "Gain/Loss",
-                "Return %" };
-        DefaultTableModel model = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
-
-        List<PortfolioItem> items = portfolioService.getPortfolioItems();
-        for (PortfolioItem item : items) {
-            double returnPercent = ((item.getStock().getCurrentPrice() - item.getPurchasePrice())
-                    / item.getPurchasePrice()) * 100;
-
-            double convertedPurchase = portfolioService.convertToBase(item.getPurchasePrice(),
-                    item.getOriginalCurrency());
-            double convertedCurrent = portfolioService.convertToBase(item.getStock().getCurrentPrice(),
-                    item.getOriginalCurrency());
-            double convertedTotal = portfolioService.convertToBase(item.getTotalValue(), item.getOriginalCurrency());
-            double convertedGain = portfolioService.convertToBase(item.getGainLoss(), item.getOriginalCurrency());
-
-            model.addRow(new Object[] {
-                    item.getStock().getSymbol(),
-                    item.getStock().getName(),
-                    item.getQuantity(),
-                    formatCurrency(convertedPurchase),
-                    formatCurrency(convertedCurrent),
-                    formatCurrency(convertedTotal),
-                    formatCurrency(convertedGain),
-                    String.format("%.2f%%", returnPercent)
-            });
-        }
-
-        JTable table = createStyledTable(model);
-        JScrollPane scroll = new JScrollPane(table);
-        scroll.setBackground(CARD_BG);
-        scroll.getViewport().setBackground(CARD_BG);
-        scroll.setBorder(null);
-
-        tableCard.add(scroll, BorderLayout.CENTER);
+        // The same sortable table every time this page is rebuilt - kept up to date by holdingsModel
+        tableCard.add(holdingsScroll, BorderLayout.CENTER);
         content.add(tableCard);
 
         JScrollPane scrollPane = new JScrollPane(content);
@@ -694,7 +876,7 @@ public class PremiumStockDashboard extends JFrame {
 
             new Thread(() -> {
                 try {
-                    String recommendations = groqAIService.getRecommendations();
+                    String recommendations = groqAIService.get().getRecommendations();
                     // Convert simple Markdown to basic HTML for JTextPane
                     String html = recommendations
                             .replace("### ", "<h3>")
@@ -799,14 +981,27 @@ public class PremiumStockDashboard extends JFrame {
                 { "AMD", "AMD", 178.40, "+4.12%", true, "IT", "Mid Cap" }
         };
 
+        // The cards in gainer order, built once - sorting is then just reading it front to back
+        StockRanking<Object[]> marketRanking = new StockRanking<>();
+        for (Object[] stock : marketData) {
+            marketRanking.put((String) stock[0], stock, parseChange((String) stock[3]), 0);
+        }
+
         Runnable updateTable = () -> {
             gridPanel.removeAll();
             String selSector = (String) sectorFilter.getSelectedItem();
             String selCap = (String) capFilter.getSelectedItem();
             String selSort = (String) sortFilter.getSelectedItem();
 
+            java.util.List<Object[]> ordered = java.util.Arrays.asList(marketData);
+            if (selSort.equals("Top Gainers")) {
+                ordered = marketRanking.topGainers(marketData.length);
+            } else if (selSort.equals("Top Losers")) {
+                ordered = marketRanking.topLosers(marketData.length);
+            }
+
             java.util.List<Object[]> filteredList = new java.util.ArrayList<>();
-            for (Object[] stock : marketData) {
+            for (Object[] stock : ordered) {
                 String sector = (String) stock[5];
                 String cap = (String) stock[6];
 
@@ -818,16 +1013,6 @@ public class PremiumStockDashboard extends JFrame {
                 }
             }
 
-            if (selSort.equals("Top Gainers")) {
-                filteredList.sort(
-                        (a, b) -> Double.compare(Double.parseDouble(((String) b[3]).replace("%", "").replace("+", "")),
-                                Double.parseDouble(((String) a[3]).replace("%", "").replace("+", ""))));
-            } else if (selSort.equals("Top Losers")) {
-                filteredList.sort(
-                        (a, b) -> Double.compare(Double.parseDouble(((String) a[3]).replace("%", "").replace("+", "")),
-                                Double.parseDouble(((String) b[3]).replace("%", "").replace("+", ""))));
-            }
-
             for (Object[] stock : filteredList) {
                 double rawPrice = (Double) stock[2];
                 double convertedPrice = portfolioService.convertToBase(rawPrice, "USD");
@@ -855,6 +1040,11 @@ public class PremiumStockDashboard extends JFrame {
         return page;
     }
 
+    // Turns a change like "+1.23%" into 1.23
+    private static double parseChange(String change) {
+        return Double.parseDouble(change.replace("%", "").replace("+", ""));
+    }
+
     private JPanel createStockCard(String symbol, String name, String price, String change, boolean isPositive,
             String sector, String marketCap) {
         JPanel card = new RoundedPanel(20); // Rounded corners
@@ -981,39 +1171,13 @@ public class PremiumStockDashboard extends JFrame {
         mainPanel.setBackground(BG);
         mainPanel.setBorder(new EmptyBorder(20, 20, 20, 20));
 
-        // Create XY Dataset for Technical Analysis
+        // Create XY Dataset for Technical Analysis (filled in the background from real history)
         XYSeries priceSeries = new XYSeries("Price");
         XYSeries smaSeries = new XYSeries("SMA (20)");
         XYSeries emaSeries = new XYSeries("EMA (10)");
-
-        Random rand = new Random(symbol.hashCode());
-        double currentPrice = 150 + rand.nextInt(500);
-        double smaSum = 0;
-        List<Double> prices = new ArrayList<>();
-
-        for (int i = 0; i < 100; i++) {
-            currentPrice += (rand.nextDouble() - 0.48) * 15; // Upward bias
-            priceSeries.add(i, currentPrice);
-            prices.add(currentPrice);
-
-            // Simple Moving Average
-            if (i >= 20) {
-                double sum = 0;
-                for (int j = i - 20; j < i; j++)
-                    sum += prices.get(j);
-                smaSeries.add(i, sum / 20);
-            }
-
-            // Exponential Moving Average (Simplified)
-            if (i == 0)
-                emaSeries.add(i, currentPrice);
-            else {
-                double prevEma = emaSeries.getY(i - 1).doubleValue();
-                double k = 2.0 / (10 + 1);
-                double ema = (currentPrice * k) + (prevEma * (1 - k));
-                emaSeries.add(i, ema);
-            }
-        }
+        priceSeries.setMaximumItemCount(100); // Show the latest 100 trading days
+        smaSeries.setMaximumItemCount(100);
+        emaSeries.setMaximumItemCount(100);
 
         XYSeriesCollection dataset = new XYSeriesCollection();
         dataset.addSeries(priceSeries);
@@ -1022,7 +1186,7 @@ public class PremiumStockDashboard extends JFrame {
 
         JFreeChart chart = ChartFactory.createXYLineChart(
                 symbol + " Technical Chart",
-                "Days",
+                "Date",
                 "Price (" + getCurrencySymbol() + ")",
                 dataset,
                 PlotOrientation.VERTICAL,
@@ -1036,6 +1200,8 @@ public class PremiumStockDashboard extends JFrame {
         plot.setBackgroundPaint(BG);
         plot.setDomainGridlinePaint(BORDER);
         plot.setRangeGridlinePaint(BORDER);
+        plot.setDomainAxis(new DateAxis("Date"));
+        ((NumberAxis) plot.getRangeAxis()).setAutoRangeIncludesZero(false);
 
         XYLineAndShapeRenderer renderer = new XYLineAndShapeRenderer(true, false);
         renderer.setSeriesPaint(0, ACCENT);
@@ -1058,12 +1224,19 @@ public class PremiumStockDashboard extends JFrame {
         // Indicator Toggle Panel
         JPanel tools = new JPanel(new FlowLayout(FlowLayout.LEFT, 15, 10));
         tools.setOpaque(false);
-        JLabel help = new JLabel("💡 Use mouse wheel to zoom. SMA/EMA indicators added.");
+        JLabel help = new JLabel("⏳ Loading price history...");
         help.setForeground(TEXT_DIM);
         help.setFont(FONT_SMALL);
         tools.add(help);
         mainPanel.add(tools, BorderLayout.SOUTH);
 
+        // Saved bars show up right away, newly downloaded days are appended after
+        loadHistoryProgressively(symbol, 100, history -> {
+            history.appendTo(priceSeries, smaSeries, emaSeries);
+            help.setText("💡 Use mouse wheel to zoom. SMA/EMA indicators added. Last close: "
+                    + history.lastDate());
+        }, error -> help.setText("⚠️ Could not load price history: " + error));
+
         dialog.add(mainPanel);
         dialog.setVisible(true);
     }
@@ -1110,37 +1283,355 @@ public class PremiumStockDashboard extends JFrame {
 
         JPanel card = createCard("Transaction History");
 
-        String[] columns = { "Date", "Type", "Symbol", "Quantity", "Price", "Total" };
-        DefaultTableModel model = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
+        // Rows are read from the database a page at a time, as you scroll; new trades are
+        // added at the top as they happen. Built once, then reused when this page is rebuilt
+        if (transactionModel == null) {
+            transactionModel = new TransactionTableModel();
+            transactionScroll = createTableScroll(createStyledTable(transactionModel));
+        }
+
+        card.add(transactionScroll, BorderLayout.CENTER);
+        content.add(card);
+
+        page.add(content, BorderLayout.CENTER);
+        return page;
+    }
+
+    /**
+     * Transaction history table that loads itself one page at a time
+     * Starts with the newest page; when the table asks for a row near the end of what
+     * is loaded (you scrolled down), the next page is read in the background. Rows not
+     * read yet show "Loading..." - so opening the page costs one page, not the whole history.
+     */
+    private class TransactionTableModel extends AbstractTableModel {
+        private static final int PAGE_SIZE = 200;
+        private static final int PREFETCH = 50; // Start the next page this many rows before the end
+
+        private final String[] columns = { "Date", "Type", "Symbol", "Quantity", "Price", "Total" };
+        private final List<Transaction> rows = new ArrayList<>(); // Loaded so far, newest first
+        private int rowCount = 0; // Saved transactions (rows past rows.size() are still loading)
+        private TransactionPage lastPage; // null until the first page arrives
+        private boolean loading = false; // Only one page on its way at a time
+        private boolean failed = false; // Stop asking after a database error
+        private boolean reloadFirstPage = false; // A trade happened while the first page was loading
+
+        TransactionTableModel() {
+            loadNextPage();
+        }
+
+        // A new trade goes on top (newest first) - one inserted row
+        void transactionAdded(Transaction transaction) {
+            if (lastPage == null) {
+                // The first page may or may not have read it yet - read it again once it's in
+                reloadFirstPage = true;
+                return;
             }
-        };
+            rows.add(0, transaction);
+            rowCount++;
+            fireTableRowsInserted(0, 0);
+        }
 
-        List<Transaction> transactions = portfolioService.getTransactions();
-        for (Transaction t : transactions) {
-            model.addRow(new Object[] {
-                    t.getTimestamp().toString(),
-                    t.getType(),
-                    t.getSymbol(),
-                    t.getQuantity(),
-                    formatCurrency(t.getPrice()),
-                    formatCurrency(t.getQuantity() * t.getPrice())
-            });
+        // Amounts are shown in another currency now
+        void allRowsUpdated() {
+            if (rowCount > 0) {
+                fireTableRowsUpdated(0, rowCount - 1);
+            }
+        }
+
+        // Reads the next page off the Swing thread and adds it to the table
+        // Only called on the Swing thread, so the fields need no lock
+        private void loadNextPage() {
+            if (loading || failed || (lastPage != null && !lastPage.hasMore())) {
+                return;
+            }
+            loading = true;
+            TransactionPage after = lastPage;
+
+            new Thread(() -> {
+                try {
+                    int total = after == null ? portfolioService.getTransactionCount() : 0;
+                    TransactionPage page = portfolioService.getTransactionPage(after, PAGE_SIZE);
+
+                    SwingUtilities.invokeLater(() -> {
+                        if (after == null && reloadFirstPage) {
+                            reloadFirstPage = false;
+                            loading = false;
+                            loadNextPage(); // Starts after the trade was saved, so it's included
+                            return;
+                        }
+                        int from = rows.size();
+                        rows.addAll(page.getTransactions());
+                        lastPage = page;
+                        loading = false;
+
+                        // Last page: now we know exactly. Otherwise at least one more row is coming
+                        int newCount = page.hasMore() ? Math.max(Math.max(total, rowCount), rows.size() + 1)
+                                : rows.size();
+                        if (newCount != rowCount) {
+                            rowCount = newCount;
+                            fireTableDataChanged();
+                        } else if (rows.size() > from) {
+                            fireTableRowsUpdated(from, rows.size() - 1); // "Loading..." rows filled in
+                        }
+                    });
+                } catch (Exception e) {
+                    System.err.println("❌ Could not load transactions: " + e.getMessage());
+                    SwingUtilities.invokeLater(() -> {
+                        loading = false;
+                        failed = true;
+                        rowCount = rows.size(); // Show what we have
+                        fireTableDataChanged();
+                    });
+                }
+            }, "transactions-page").start();
+        }
+
+        @Override
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columns.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columns[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            if (row >= rows.size() - PREFETCH) {
+                loadNextPage(); // Getting close to the end of what's loaded
+            }
+            if (row >= rows.size()) {
+                return column == 0 ? "Loading..." : "";
+            }
+
+            Transaction t = rows.get(row);
+            switch (column) {
+                case 0:
+                    return t.getTimestamp().toString();
+                case 1:
+                    return t.getType();
+                case 2:
+                    return t.getSymbol();
+                case 3:
+                    return t.getQuantity();
+                case 4:
+                    return formatCurrency(t.getPrice());
+                default:
+                    return formatCurrency(t.getQuantity() * t.getPrice());
+            }
+        }
+    }
+
+    /**
+     * Holdings table backed by the portfolio's lots, in the same order as the snapshot
+     * (lots grouped by stock, oldest first). It never rebuilds itself: each portfolio event
+     * changes only the affected rows, so the table keeps its selection, scroll position
+     * and sort order, and a price change repaints just the rows of that stock.
+     * Money columns hold numbers in the base currency, so sorting is by value.
+     * Only used on the Swing thread.
+     */
+    private class HoldingsTableModel extends AbstractTableModel {
+        private final String[] columns; // Any of the names in getValueAt
+        private final int maxRows; // Rows shown (ex: 5 for the dashboard), Integer.MAX_VALUE for all
+        private final List<PortfolioItem> lots; // Every lot, even past maxRows
+
+        HoldingsTableModel(String[] columns, int maxRows, List<PortfolioItem> start) {
+            this.columns = columns;
+            this.maxRows = maxRows;
+            this.lots = new ArrayList<>(start);
+        }
+
+        // Bought: the new lot goes after the other lots of its stock (or last, for a new stock)
+        void lotAdded(PortfolioItem lot) {
+            String symbol = symbolOf(lot);
+            int index = lots.size();
+            for (int i = lots.size() - 1; i >= 0; i--) {
+                if (symbolOf(lots.get(i)).equals(symbol)) {
+                    index = i + 1;
+                    break;
+                }
+            }
+            lots.add(index, lot);
+            if (maxRows == Integer.MAX_VALUE) {
+                fireTableRowsInserted(index, index);
+            } else if (index < maxRows) {
+                fireTableDataChanged(); // The short table's rows moved down one
+            }
+        }
+
+        // Sold: swap the stock's rows for the lots it has left
+        // Example: 3 lots, first one sold out -> 2 rows updated, 1 row deleted
+        void lotsChanged(String symbol, List<PortfolioItem> remaining) {
+            int start = -1;
+            int oldCount = 0;
+            for (int i = 0; i < lots.size(); i++) {
+                if (symbolOf(lots.get(i)).equals(symbol)) {
+                    if (start < 0) {
+                        start = i;
+                    }
+                    oldCount++;
+                }
+            }
+            if (start < 0) {
+                start = lots.size();
+            }
+            int newCount = remaining.size();
+            lots.subList(start, start + oldCount).clear();
+            lots.addAll(start, remaining);
+
+            if (maxRows != Integer.MAX_VALUE) {
+                if (start < maxRows) {
+                    fireTableDataChanged();
+                }
+                return;
+            }
+            int same = Math.min(oldCount, newCount);
+            if (same > 0) {
+                fireTableRowsUpdated(start, start + same - 1);
+            }
+            if (oldCount > newCount) {
+                fireTableRowsDeleted(start + newCount, start + oldCount - 1);
+            } else if (newCount > oldCount) {
+                fireTableRowsInserted(start + oldCount, start + newCount - 1);
+            }
         }
 
+        // Prices refreshed: those symbols' rows take the new lots (same lots, new price) and only
+        // they are repainted. A stock's lots are next to each other, in the same order as "repriced"
+        void pricesChanged(Map<String, List<PortfolioItem>> repriced) {
+            int runStart = -1;
+            List<PortfolioItem> fresh = null; // New lots of the stock whose rows we are in
+            for (int i = 0; i <= lots.size(); i++) {
+                String symbol = i < lots.size() ? symbolOf(lots.get(i)) : null;
+                if (runStart >= 0 && (symbol == null || !symbol.equals(symbolOf(lots.get(runStart))))) {
+                    if (runStart < getRowCount()) {
+                        fireTableRowsUpdated(runStart, Math.min(i, getRowCount()) - 1);
+                    }
+                    runStart = -1;
+                }
+                if (symbol != null && runStart < 0 && (fresh = repriced.get(symbol)) != null) {
+                    runStart = i;
+                }
+                if (runStart >= 0 && i - runStart < fresh.size()) {
+                    lots.set(i, fresh.get(i - runStart));
+                }
+            }
+        }
+
+        // Amounts are shown in another currency now - same rows, new values (selection stays)
+        void allRowsUpdated() {
+            if (getRowCount() > 0) {
+                fireTableRowsUpdated(0, getRowCount() - 1);
+            }
+        }
+
+        private String symbolOf(PortfolioItem lot) {
+            return lot.getStock().getSymbol().trim().toUpperCase();
+        }
+
+        @Override
+        public int getRowCount() {
+            return Math.min(lots.size(), maxRows);
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columns.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columns[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            switch (columns[column]) {
+                case "Symbol":
+                case "Name":
+                    return String.class;
+                case "Quantity":
+                    return Integer.class;
+                default:
+                    return Double.class; // Sorted as numbers, drawn by MoneyRenderer
+            }
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            PortfolioItem item = lots.get(row);
+            String currency = item.getOriginalCurrency();
+            switch (columns[column]) {
+                case "Symbol":
+                    return item.getStock().getSymbol();
+                case "Name":
+                    return item.getStock().getName();
+                case "Quantity":
+                    return item.getQuantity();
+                case "Buy Price":
+                    return portfolioService.convertToBase(item.getPurchasePrice(), currency);
+                case "Price":
+                case "Current Price":
+                    return portfolioService.convertToBase(item.getStock().getCurrentPrice(), currency);
+                case "Value":
+                case "Total Value":
+                    return portfolioService.convertToBase(item.getTotalValue(), currency);
+                case "Gain/Loss":
+                    return portfolioService.convertToBase(item.getGainLoss(), currency);
+                default: // "Return %"
+                    return item.getPurchasePrice() == 0 ? 0.0
+                            : (item.getStock().getCurrentPrice() - item.getPurchasePrice()) / item.getPurchasePrice()
+                                    * 100;
+            }
+        }
+    }
+
+    // Draws the number columns of a holdings table as money (ex: ₹1234.50) or percent (ex: 12.30%)
+    private class MoneyRenderer extends DefaultTableCellRenderer {
+        private final boolean percent;
+
+        MoneyRenderer(boolean percent) {
+            this.percent = percent;
+            setHorizontalAlignment(SwingConstants.CENTER);
+            setFont(new Font("Segoe UI", Font.BOLD, 15));
+        }
+
+        @Override
+        protected void setValue(Object value) {
+            if (value instanceof Double) {
+                double amount = (Double) value;
+                setText(percent ? String.format("%.2f%%", amount) : formatCurrency(amount));
+            } else {
+                super.setValue(value);
+            }
+        }
+    }
+
+    // Styled table for a HoldingsTableModel; "sortable" lets you click a header to sort
+    private JTable createHoldingsTable(HoldingsTableModel model, boolean sortable) {
         JTable table = createStyledTable(model);
+        table.setAutoCreateRowSorter(sortable); // Updated rows stay where they are (sortsOnUpdates is off)
+        for (int i = 0; i < model.getColumnCount(); i++) {
+            if (model.getColumnClass(i) == Double.class) {
+                table.getColumnModel().getColumn(i)
+                        .setCellRenderer(new MoneyRenderer(model.getColumnName(i).endsWith("%")));
+            }
+        }
+        return table;
+    }
+
+    private JScrollPane createTableScroll(JTable table) {
         JScrollPane scroll = new JScrollPane(table);
         scroll.setBackground(CARD_BG);
         scroll.getViewport().setBackground(CARD_BG);
         scroll.setBorder(null);
-
-        card.add(scroll, BorderLayout.CENTER);
-        content.add(card);
-
-        page.add(content, BorderLayout.CENTER);
-        return page;
+        return scroll;
     }
 
     // ═══════════════════════════════════════════════════════════════════════
@@ -1368,20 +1859,25 @@ public class PremiumStockDashboard extends JFrame {
 
     private ChartPanel createHistoricalPerformanceChart(String symbol) {
         org.jfree.data.xy.XYSeries series = new org.jfree.data.xy.XYSeries("Price");
-
-        // Use mock data if API fails or for demo
-        for (int i = 0; i < 30; i++) {
-            series.add(i, 150 + Math.random() * 50);
-        }
+        series.setMaximumItemCount(30); // Last 30 trading days
 
         org.jfree.data.xy.XYSeriesCollection dataset = new org.jfree.data.xy.XYSeriesCollection(series);
         JFreeChart chart = ChartFactory.createXYLineChart(
                 symbol + " - 30 Day Performance",
-                "Days", "Price (" + getCurrencySymbol() + ")",
+                "Date", "Price (" + getCurrencySymbol() + ")",
                 dataset, PlotOrientation.VERTICAL,
                 false, true, false);
 
         styleChart(chart);
+        XYPlot plot = chart.getXYPlot();
+        plot.setDomainAxis(new DateAxis("Date"));
+        plot.getDomainAxis().setLabelPaint(TEXT);
+        plot.getDomainAxis().setTickLabelPaint(TEXT);
+        ((NumberAxis) plot.getRangeAxis()).setAutoRangeIncludesZero(false);
+
+        loadHistoryProgressively(symbol, 30, history -> history.appendTo(series, null, null),
+                error -> chart.setTitle(symbol + " - history unavailable"));
+
         ChartPanel panel = new ChartPanel(chart);
         panel.setMouseWheelEnabled(true);
         panel.setMouseZoomable(true);
@@ -1389,6 +1885,102 @@ public class PremiumStockDashboard extends JFrame {
         return panel;
     }
 
+    /**
+     * Loads a stock's daily history on a background thread and hands it to the chart in two steps:
+     * first the bars already saved on disk (instant), then again once any missing days have been
+     * downloaded. Closes and indicators are worked out on the background thread too, so the
+     * Swing thread only adds points.
+     *
+     * @param symbol   The stock symbol (ex: "AAPL")
+     * @param limit    How many of the latest days the chart shows
+     * @param onLoaded Runs on the Swing thread with each version of the history
+     * @param onError  Runs on the Swing thread if there is no history at all
+     */
+    private void loadHistoryProgressively(String symbol, int limit,
+            java.util.function.Consumer<ChartHistory> onLoaded,
+            java.util.function.Consumer<String> onError) {
+        new Thread(() -> {
+            List<StockPrice> cached = historyService.getCachedHistory(symbol);
+            if (!cached.isEmpty()) {
+                ChartHistory fromDisk = ChartHistory.of(cached, limit);
+                SwingUtilities.invokeLater(() -> onLoaded.accept(fromDisk));
+            }
+
+            try {
+                List<StockPrice> fresh = historyService.getDailyHistory(symbol);
+                if (fresh.size() > cached.size()) {
+                    ChartHistory updated = ChartHistory.of(fresh, limit);
+                    SwingUtilities.invokeLater(() -> onLoaded.accept(updated));
+                }
+            } catch (Exception e) {
+                if (cached.isEmpty()) {
+                    SwingUtilities.invokeLater(() -> onError.accept(e.getMessage()));
+                }
+            }
+        }, "history-" + symbol).start();
+    }
+
+    /**
+     * Chart-ready daily history: dates, closes and the SMA (20) / EMA (10) lines,
+     * all worked out in one pass off the Swing thread
+     */
+    private static class ChartHistory {
+        private static final int SMA_PERIOD = 20;
+        private static final int EMA_PERIOD = 10;
+
+        final long[] x; // Trading day as epoch millis (for the date axis)
+        final double[] close;
+        final double[] sma; // NaN until there are 20 days
+        final double[] ema; // NaN until there are 10 days
+        final int from; // First index the chart needs (the older ones would be cut off anyway)
+
+        private ChartHistory(int n, int from) {
+            this.x = new long[n];
+            this.close = new double[n];
+            this.sma = new double[n];
+            this.ema = new double[n];
+            this.from = from;
+        }
+
+        static ChartHistory of(List<StockPrice> bars, int limit) {
+            int n = bars.size();
+            ChartHistory h = new ChartHistory(n, Math.max(0, n - limit));
+            TechnicalIndicators.Sma sma = new TechnicalIndicators.Sma(SMA_PERIOD);
+            TechnicalIndicators.Ema ema = new TechnicalIndicators.Ema(EMA_PERIOD);
+
+            for (int i = 0; i < n; i++) {
+                StockPrice bar = bars.get(i);
+                h.x[i] = bar.getDate().atStartOfDay(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli();
+                h.close[i] = bar.getClose();
+                h.sma[i] = sma.add(h.close[i]);
+                h.ema[i] = ema.add(h.close[i]);
+            }
+            return h;
+        }
+
+        // Adds the days the series doesn't have yet (pass null to skip an indicator)
+        void appendTo(XYSeries price, XYSeries smaSeries, XYSeries emaSeries) {
+            double lastShown = price.isEmpty() ? Double.NEGATIVE_INFINITY : price.getMaxX();
+            for (int i = from; i < x.length; i++) {
+                if (x[i] <= lastShown) {
+                    continue; // Already on the chart from the saved history
+                }
+                price.add(x[i], close[i]);
+                if (smaSeries != null && !Double.isNaN(sma[i])) {
+                    smaSeries.add(x[i], sma[i]);
+                }
+                if (emaSeries != null && !Double.isNaN(ema[i])) {
+                    emaSeries.add(x[i], ema[i]);
+                }
+            }
+        }
+
+        String lastDate() {
+            return x.length == 0 ? "-" : java.time.Instant.ofEpochMilli(x[x.length - 1])
+                    .atZone(java.time.ZoneId.systemDefault()).toLocalDate().toString();
+        }
+    }
+
     // ═══════════════════════════════════════════════════════════════════════
     // SETTINGS PAGE
     // ═══════════════════════════════════════════════════════════════════════
@@ -1438,13 +2030,7 @@ public class PremiumStockDashboard extends JFrame {
         chartCard.setPreferredSize(new Dimension(0, 400));
 
         org.jfree.data.general.DefaultPieDataset dataset = new org.jfree.data.general.DefaultPieDataset();
-        java.util.Map<String, Double> sectorMap = new java.util.HashMap<>();
-        for (com.portfolio.model.PortfolioItem item : portfolioService.getPortfolioItems()) {
-            String sector = item.getStock().getSector();
-            if (sector == null || sector.isEmpty())
-                sector = "Other";
-            sectorMap.put(sector, sectorMap.getOrDefault(sector, 0.0) + item.getTotalValue());
-        }
+        java.util.Map<String, Double> sectorMap = portfolioService.getSectorAllocation();
         for (java.util.Map.Entry<String, Double> entry : sectorMap.entrySet()) {
             dataset.setValue(entry.getKey(), entry.getValue());
         }
@@ -1603,6 +2189,13 @@ public class PremiumStockDashboard extends JFrame {
     }
 
     private JPanel createStatCard(String label, String value, Color color) {
+        JLabel valueComp = new JLabel(value);
+        valueComp.setForeground(color);
+        return createStatCard(label, valueComp);
+    }
+
+    // Stat card around a value label the caller keeps, to change its text later
+    private JPanel createStatCard(String label, JLabel valueComp) {
         RoundedPanel card = new RoundedPanel(20); // ROUNDED CORNERS!
         card.setLayout(new BoxLayout(card, BoxLayout.Y_AXIS));
         card.setBackground(CARD_BG);
@@ -1613,9 +2206,7 @@ public class PremiumStockDashboard extends JFrame {
         labelComp.setForeground(TEXT_DIM);
         labelComp.setAlignmentX(Component.CENTER_ALIGNMENT); // CENTER!
 
-        JLabel valueComp = new JLabel(value);
         valueComp.setFont(new Font("Segoe UI", Font.BOLD, 32)); // MUCH LARGER!
-        valueComp.setForeground(color);
         valueComp.setAlignmentX(Component.CENTER_ALIGNMENT); // CENTER!
 
         card.add(labelComp);
@@ -1625,7 +2216,7 @@ public class PremiumStockDashboard extends JFrame {
         return card;
     }
 
-    private JTable createStyledTable(DefaultTableModel model) {
+    private JTable createStyledTable(TableModel model) {
         JTable table = new JTable(model) {
             @Override
             public Component prepareRenderer(TableCellRenderer renderer, int row, int column) {
@@ -1756,15 +2347,17 @@ public class PremiumStockDashboard extends JFrame {
                 String sector = sectorField.getText().trim();
                 String marketCap = (String) capCombo.getSelectedItem();
 
-                portfolioService.buyStock(symbol, symbol, quantity, price, portfolioService.getBaseCurrency(), sector,
-                        marketCap, "Medium");
+                if (!portfolioService.buyStock(symbol, symbol, quantity, price, portfolioService.getBaseCurrency(),
+                        sector, marketCap, "Medium")) {
+                    JOptionPane.showMessageDialog(dialog, "Could not record the purchase - nothing was bought",
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
                 JOptionPane.showMessageDialog(dialog, "Stock added successfully!", "Success",
                         JOptionPane.INFORMATION_MESSAGE);
                 dialog.dispose();
 
-                // Refresh the portfolio page
-                contentArea.remove(1);
-                contentArea.add(buildPortfolioPage(), "My Portfolio", 1);
+                // The new row is already in the holdings table (see listenToPortfolio)
                 navigate("My Portfolio");
 
             } catch (NumberFormatException ex) {
@@ -1847,19 +2440,23 @@ public class PremiumStockDashboard extends JFrame {
         progressDialog.add(panel);
         progressDialog.setVisible(true);
 
-        new Thread(() -> {
-            portfolioService.updateAllPrices();
+        portfolioService.updateAllPricesAsync().thenAccept(result -> {
             SwingUtilities.invokeLater(() -> {
                 progressDialog.dispose();
 
-                // Refresh pages
-                refreshAllViews();
-
+                // The rows that got a new price were already repainted (see listenToPortfolio)
                 navigate("My Portfolio");
-                JOptionPane.showMessageDialog(this, "Prices updated successfully!", "Success",
-                        JOptionPane.INFORMATION_MESSAGE);
+                if (result.getFailureCount() == 0) {
+                    JOptionPane.showMessageDialog(this, "Prices updated successfully!", "Success",
+                            JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this,
+                            "Updated " + result.getSuccessCount() + " stocks. Could not update: "
+                                    + String.join(", ", result.getFailures().keySet()),
+                            "Partial Update", JOptionPane.WARNING_MESSAGE);
+                }
             });
-        }).start();
+        });
     }
 
     // ═══════════════════════════════════════════════════════════════════════
@@ -2068,7 +2665,7 @@ public class PremiumStockDashboard extends JFrame {
         new Thread(() -> {
             try {
                 // Execute the action
-                String actionResult = groqAIService.executeAction(userMessage);
+                String actionResult = groqAIService.get().executeAction(userMessage);
 
                 SwingUtilities.invokeLater(() -> {
                     progressDialog.dispose();
@@ -2084,7 +2681,7 @@ public class PremiumStockDashboard extends JFrame {
                                 JOptionPane.INFORMATION_MESSAGE);
 
                         // Speak the result
-                        ttsService.speak(actionResult.replace("✅", "Success:"));
+                        ttsService.get().speak(actionResult.replace("✅", "Success:"));
                     } else if (actionResult.contains("❌")) {
                         JOptionPane.showMessageDialog(this,
                                 actionResult,
@@ -2129,7 +2726,7 @@ public class PremiumStockDashboard extends JFrame {
         new Thread(() -> {
             try {
                 // Get AI response
-                String aiResponse = groqAIService.chat(userMessage);
+                String aiResponse = groqAIService.get().chat(userMessage);
 
                 SwingUtilities.invokeLater(() -> {
                     // Remove "Thinking..." and add real response
@@ -2142,7 +2739,7 @@ public class PremiumStockDashboard extends JFrame {
                     // Speak the response (in background)
                     new Thread(() -> {
                         try {
-                            ttsService.speak(aiResponse);
+                            ttsService.get().speak(aiResponse);
                         } catch (Exception e) {
                             System.err.println("TTS Error: " + e.getMessage());
                         }
@@ -2168,36 +2765,8 @@ public class PremiumStockDashboard extends JFrame {
     private void refreshDashboardAfterAction(String userMessage) {
         String lowerMessage = userMessage.toLowerCase();
 
-        // If action involved buying/selling stocks, refresh portfolio pages
-        if (lowerMessage.contains("buy") || lowerMessage.contains("sell") ||
-                lowerMessage.contains("add") || lowerMessage.contains("remove")) {
-
-            // Refresh Dashboard page
-            contentArea.remove(0);
-            contentArea.add(buildDashboardPage(), "Dashboard", 0);
-
-            // Refresh My Portfolio page
-            contentArea.remove(1);
-            contentArea.add(buildPortfolioPage(), "My Portfolio", 1);
-
-            // Refresh Transactions page
-            contentArea.remove(4);
-            contentArea.add(buildTransactionsPage(), "Transactions", 4);
-
-            System.out.println("✅ Dashboard refreshed after action");
-        }
-
-        // If action involved price refresh
-        if (lowerMessage.contains("refresh") || lowerMessage.contains("update")) {
-            // Refresh all pages
-            contentArea.remove(0);
-            contentArea.add(buildDashboardPage(), "Dashboard", 0);
-
-            contentArea.remove(1);
-            contentArea.add(buildPortfolioPage(), "My Portfolio", 1);
-
-            System.out.println("✅ Dashboard refreshed after price update");
-        }
+        // Buys, sells and price refreshes made by the action already updated the tables
+        // and marked the summary pages out of date (see listenToPortfolio)
 
         // Navigate to pages if requested
         if (lowerMessage.contains("show") || lowerMessage.contains("go to") || lowerMessage.contains("open")) {
@@ -2226,7 +2795,7 @@ public class PremiumStockDashboard extends JFrame {
         new Thread(() -> {
             try {
                 // Record with Voice Activity Detection
-                String transcription = voiceService.recordAndTranscribeWithVAD();
+                String transcription = voiceService.get().recordAndTranscribeWithVAD();
 
                 if (!isRecording) {
                     // User interrupted
@@ -2274,7 +2843,7 @@ public class PremiumStockDashboard extends JFrame {
                             // Speak the transcription back
                             new Thread(() -> {
                                 try {
-                                    ttsService.speak("I heard: " + transcription + ". Click Implement to execute.");
+                                    ttsService.get().speak("I heard: " + transcription + ". Click Implement to execute.");
                                 } catch (Exception e) {
                                     System.err.println("TTS Error: " + e.getMessage());
                                 }
@@ -2286,7 +2855,7 @@ public class PremiumStockDashboard extends JFrame {
 
                             new Thread(() -> {
                                 try {
-                                    String aiResponse = groqAIService.chat(transcription);
+                                    String aiResponse = groqAIService.get().chat(transcription);
 
                                     SwingUtilities.invokeLater(() -> {
                                         // Remove "Thinking..."
@@ -2299,7 +2868,7 @@ public class PremiumStockDashboard extends JFrame {
                                         // Speak the response
                                         new Thread(() -> {
                                             try {
-                                                ttsService.speak(aiResponse);
+                                                ttsService.get().speak(aiResponse);
                                             } catch (Exception e) {
                                                 System.err.println("TTS Error: " + e.getMessage());
                                             }
@@ -2359,7 +2928,7 @@ public class PremiumStockDashboard extends JFrame {
      */
     private void stopRecording() {
         isRecording = false;
-        voiceService.stopRecording();
+        voiceService.ifCreated(AssemblyAIVoiceService::stopRecording);
     }
 
     /**
@@ -2368,8 +2937,8 @@ public class PremiumStockDashboard extends JFrame {
     private void stopAllAI() {
         isRecording = false;
         isSpeaking = false;
-        voiceService.stopRecording();
-        ttsService.stop();
+        voiceService.ifCreated(AssemblyAIVoiceService::stopRecording);
+        ttsService.ifCreated(TextToSpeechService::stop);
     }
 
     // ═══════════════════════════════════════════════════════════════════════
@@ -0,0 +1,153 @@
+package com.portfolio.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * StartupOrchestrator - Gets the app from launch to a usable window as fast as possible
+ * Slow work (loading the portfolio from the database) starts in the background right
+ * at launch, while Swing builds the welcome screen and the dashboard shell. Services
+ * that only some users touch (voice, AI chat, text-to-speech, news) are wrapped in
+ * Lazy and only created the first time they are used.
+ *
+ * Every step is timed, so printReport() shows where startup time went:
+ *
+ *   📊 Startup timing (ms after launch):
+ *      Portfolio + database        3 -> 415   (412 ms, background)
+ *      Dashboard shell           820 -> 905   (85 ms)
+ *      Dashboard pages           905 -> 1030  (125 ms)
+ *
+ * Example:
+ *   StartupOrchestrator startup = new StartupOrchestrator();
+ *   CompletableFuture<PortfolioService> portfolio = startup.inBackground("Portfolio + database", () -> ...);
+ */
+public final class StartupOrchestrator {
+    private final long launchNanos = System.nanoTime();
+    private final List<String> steps = new ArrayList<>(); // One line per finished step, in finishing order
+
+    /**
+     * Runs slow work on a background thread, timed as one step
+     *
+     * @param step Name for the timing report (ex: "Portfolio + database")
+     * @param work What to run
+     * @return Completes with the result (or the error) when the work is done
+     */
+    public <T> CompletableFuture<T> inBackground(String step, Supplier<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            long start = System.nanoTime();
+            try {
+                T value = work.get();
+                record(step + " (background)", start);
+                result.complete(value);
+            } catch (Throwable e) {
+                record(step + " (background, failed)", start);
+                result.completeExceptionally(e);
+            }
+        }, "startup-" + step);
+        thread.setDaemon(true); // Never keeps the app alive by itself
+        thread.start();
+        return result;
+    }
+
+    /**
+     * Runs work right here (usually on the Swing thread), timed as one step
+     *
+     * @param step Name for the timing report (ex: "Dashboard shell")
+     * @param work What to run
+     */
+    public void timed(String step, Runnable work) {
+        long start = System.nanoTime();
+        try {
+            work.run();
+        } finally {
+            record(step, start);
+        }
+    }
+
+    // Wraps a service so it is only created (and timed) the first time get() is called
+    public <T> Lazy<T> lazy(String name, Supplier<T> factory) {
+        return new Lazy<>(name, factory, this);
+    }
+
+    // Adds one finished step to the report
+    public void record(String step, long startNanos) {
+        long end = System.nanoTime();
+        String line = String.format("   %-32s %6d -> %-6d (%d ms)", step,
+                (startNanos - launchNanos) / 1_000_000, (end - launchNanos) / 1_000_000,
+                (end - startNanos) / 1_000_000);
+        synchronized (steps) {
+            steps.add(line);
+        }
+    }
+
+    // Milliseconds since launch (ex: 1030)
+    public long elapsedMillis() {
+        return (System.nanoTime() - launchNanos) / 1_000_000;
+    }
+
+    // Every step timed so far, one per line
+    public String getReport() {
+        StringBuilder report = new StringBuilder("📊 Startup timing (ms after launch):");
+        synchronized (steps) {
+            for (String line : steps) {
+                report.append('\n').append(line);
+            }
+        }
+        return report.toString();
+    }
+
+    public void printReport() {
+        System.out.println(getReport());
+    }
+
+    /**
+     * A service created the first time it is needed
+     * get() may be called from any thread; the factory runs once.
+     *
+     * Example:
+     *   Lazy<TextToSpeechService> tts = startup.lazy("Text to speech", TextToSpeechService::new);
+     *   tts.get().speak("Hello"); // Created here, on first use
+     *   tts.ifCreated(TextToSpeechService::stop); // Does nothing if it was never used
+     */
+    public static final class Lazy<T> {
+        private final String name;
+        private final Supplier<T> factory;
+        private final StartupOrchestrator startup;
+        private volatile T value;
+
+        private Lazy(String name, Supplier<T> factory, StartupOrchestrator startup) {
+            this.name = name;
+            this.factory = factory;
+            this.startup = startup;
+        }
+
+        public T get() {
+            T current = value;
+            if (current == null) {
+                synchronized (this) {
+                    current = value;
+                    if (current == null) {
+                        long start = System.nanoTime();
+                        current = factory.get();
+                        value = current;
+                        startup.record(name + " (first use)", start);
+                        System.out.println("✅ " + name + " started on first use");
+                    }
+                }
+            }
+            return current;
+        }
+
+        // Runs the action only if the service was already created
+        public void ifCreated(Consumer<T> action) {
+            T current = value;
+            if (current != null) {
+                action.accept(current);
+            }
+        }
+    }
+}